@@ -1,17 +1,34 @@
 package com.hospital.appointment;
 
+import com.hospital.appointment.api.PneumoniaDetectionAPI;
+import com.hospital.appointment.concurrent.BackgroundExecutor;
+import com.hospital.appointment.concurrent.InferenceWorker;
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.EntityCache;
+import com.hospital.appointment.dao.remote.ApiClient;
 import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.ingest.FolderIngestService;
+import com.hospital.appointment.server.ServerMain;
 import com.hospital.appointment.views.LoginView;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.util.Arrays;
+
 public class HospitalApp extends Application {
     
     @Override
     public void start(Stage primaryStage) {
-        // Initialize database
-        DatabaseManager.getInstance().initializeDatabase();
+        // A client of an application server leaves the database and the shared queues to the server
+        if (!DaoFactory.getInstance().isRemote()) {
+            DatabaseManager.getInstance().initializeDatabase();
+            startBackgroundServices();
+        }
+        // Follow rows changed by other workstations
+        DaoFactory.getInstance().subscribeCaches();
+        InvalidationPoller.getInstance().start();
         
         // Show login screen
         LoginView loginView = new LoginView();
@@ -25,10 +42,28 @@ public class HospitalApp extends Application {
     
     @Override
     public void stop() {
+        InvalidationPoller.getInstance().shutdown();
+        FolderIngestService.getInstance().shutdown();
+        InferenceWorker.getInstance().shutdown();
+        BackgroundExecutor.shutdown();
+        PneumoniaDetectionAPI.shutdown();
+        ApiClient.shutdown();
+        EntityCache.logStatistics();
         DatabaseManager.getInstance().closeConnection();
     }
-    
+
+    private static void startBackgroundServices() {
+        // Drain queued X-ray analyses in the background
+        InferenceWorker.getInstance().start();
+        // Import films from the radiology drop folder, if one is configured
+        FolderIngestService.getInstance().start();
+    }
+
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--server")) {
+            ServerMain.main(args);
+            return;
+        }
         launch(args);
     }
 }
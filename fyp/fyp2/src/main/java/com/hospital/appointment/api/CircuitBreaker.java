@@ -0,0 +1,92 @@
+package com.hospital.appointment.api;
+
+import java.util.logging.Logger;
+
+/**
+ * CircuitBreaker - Stops calling a service that keeps failing
+ *
+ * CLOSED: calls go through; consecutive failures are counted.
+ * OPEN: after failureThreshold consecutive failures, calls are refused immediately
+ *       for openMillis, so callers fail fast instead of waiting on timeouts.
+ * HALF_OPEN: once openMillis has passed, a single probe call is let through. Success
+ *       closes the breaker again; failure re-opens it for another openMillis.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = Math.max(0, openMillis);
+    }
+
+    /**
+     * Asks permission to make a call. Every granted call must be followed by
+     * recordSuccess(), recordFailure() or recordCancelled().
+     * @return true if the call may go ahead, false if it should fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            // This caller becomes the probe
+            state = State.HALF_OPEN;
+            logger.info(name + " circuit half-open, probing service");
+        }
+        if (probeInFlight) {
+            return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info(name + " circuit closed, service recovered");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warning(name + " circuit opened after " + consecutiveFailures
+                    + " consecutive failure(s); failing fast for " + openMillis + " ms");
+            }
+            state = State.OPEN;
+            openUntil = System.currentTimeMillis() + openMillis;
+        }
+    }
+
+    /**
+     * The call was abandoned by the caller, so it says nothing about the service
+     */
+    public synchronized void recordCancelled() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,184 @@
+package com.hospital.appointment.api;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.storage.BlobStore;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InferenceCache - Persistent cache of AI analysis results keyed by image content
+ *
+ * The key is the SHA-256 of the image bytes plus the model version and the input the
+ * model is sent (the original file, or the preprocessed size, see XrayPreprocessor), so a
+ * film that is uploaded again under another name returns its stored result without another
+ * inference. Changing the model version (-Dhms.ai.modelVersion), -Dhms.ai.preprocess or
+ * the input size makes every earlier entry a miss.
+ *
+ * Entries are kept in memory in least-recently-used order, bounded by -Dhms.ai.cacheSize
+ * (default 1000), and written to -Dhms.ai.cacheFile (default cache/ai-results.json) in
+ * the background, at most once a second however many results arrive; flush() writes any
+ * change still pending.
+ */
+public class InferenceCache {
+    private static final Logger logger = Logger.getLogger(InferenceCache.class.getName());
+    private static final long SAVE_DELAY_MILLIS = 1000;
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ai-cache-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path file;
+    private final String keyPrefix;
+    private final int maxEntries;
+    private final Gson gson = new Gson();
+    private final LinkedHashMap<String, PneumoniaDetectionAPI.PneumoniaResult> entries;
+    // Held while a snapshot is taken and written, so an older snapshot never overwrites a newer one
+    private final Object saveLock = new Object();
+    private boolean dirty;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param input What the model is sent, e.g. "original" or the preprocessed size
+     */
+    public InferenceCache(Path file, String modelVersion, String input, int maxEntries) {
+        this.file = file;
+        this.keyPrefix = modelVersion + ":" + input + ":";
+        this.maxEntries = Math.max(1, maxEntries);
+        // Access order makes iteration order least-recently-used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PneumoniaDetectionAPI.PneumoniaResult> eldest) {
+                return size() > InferenceCache.this.maxEntries;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Creates the cache configured by system properties
+     * @param preprocessor The preprocessor images go through, or null if they are sent as they are
+     */
+    public static InferenceCache fromSystemProperties(XrayPreprocessor preprocessor) {
+        return new InferenceCache(
+            Paths.get(System.getProperty("hms.ai.cacheFile", "cache/ai-results.json")),
+            System.getProperty("hms.ai.modelVersion", "v1"),
+            preprocessor != null ? preprocessor.getInputSize() : "original",
+            Integer.getInteger("hms.ai.cacheSize", 1000));
+    }
+
+    /**
+     * Builds the cache key for an image file
+     * @throws IOException if the file cannot be read
+     */
+    public String keyFor(File imageFile) throws IOException {
+        return keyPrefix + BlobStore.getInstance().contentHash(imageFile);
+    }
+
+    /**
+     * Find the cached result for a key
+     * @return PneumoniaResult, or null if not cached
+     */
+    public synchronized PneumoniaDetectionAPI.PneumoniaResult get(String key) {
+        PneumoniaDetectionAPI.PneumoniaResult result = entries.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    /**
+     * Store a result; the cache is written to disk shortly after, in the background
+     */
+    public synchronized void put(String key, PneumoniaDetectionAPI.PneumoniaResult result) {
+        entries.put(key, result);
+        if (!dirty) {
+            dirty = true;
+            WRITER.schedule(this::save, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes any change not yet on disk, e.g. when the application exits
+     */
+    public void flush() {
+        save();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            // Saved least-recently-used first, so re-inserting restores the LRU order
+            Map<String, PneumoniaDetectionAPI.PneumoniaResult> saved = gson.fromJson(reader,
+                new TypeToken<LinkedHashMap<String, PneumoniaDetectionAPI.PneumoniaResult>>() { }.getType());
+            if (saved != null) {
+                entries.putAll(saved);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable AI result cache " + file, e);
+        }
+    }
+
+    private void save() {
+        synchronized (saveLock) {
+            Map<String, PneumoniaDetectionAPI.PneumoniaResult> snapshot;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                // Copying does not touch the access order
+                snapshot = new LinkedHashMap<>(entries);
+            }
+            write(snapshot);
+        }
+    }
+
+    private void write(Map<String, PneumoniaDetectionAPI.PneumoniaResult> snapshot) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            // Write to a temporary file first so a crash never leaves a half-written cache
+            Path temp = Files.createTempFile(dir, "ai-results", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to write AI result cache " + file, e);
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package com.hospital.appointment.api;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.hospital.appointment.imaging.DicomReader;
 import okhttp3.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * PneumoniaDetectionAPI - JavaFX Integration with FastAPI AI Service
@@ -16,29 +32,123 @@ import java.util.concurrent.TimeUnit;
  * API Endpoint: http://127.0.0.1:8000/predict
  * Response Format: {"prediction": "NORMAL" | "PNEUMONIA", "confidence": 0.0 - 1.0}
  * 
+ * All instances share one OkHttpClient, so keep-alive connections to the AI service are
+ * reused across uploads. Synchronous and asynchronous requests share one bulkhead of
+ * -Dhms.ai.maxInFlight permits (default 4), so at most that many are sent at once;
+ * requests beyond the cap wait until a slot frees up. analyzeXrayAsync() hashes the image
+ * and waits for its slot on an ai-submit thread, never on the caller's.
+ * 
+ * Results are cached by image content (see InferenceCache), so an image that was
+ * analyzed before is answered without calling the service again.
+ * 
+ * Every request goes through a CircuitBreaker: after hms.ai.breaker.failureThreshold
+ * consecutive failures (network errors or 5xx), calls fail immediately for
+ * hms.ai.breaker.openMillis before a single probe is let through. 503 responses are
+ * retried up to hms.ai.retries times with jittered exponential backoff. Synchronous calls
+ * give up waiting for a bulkhead permit after hms.ai.bulkheadWaitMillis; asynchronous ones queue.
+ * 
  * @author Hospital Appointment System
  * @version 1.0
  */
 public class PneumoniaDetectionAPI {
+    private static final Logger logger = Logger.getLogger(PneumoniaDetectionAPI.class.getName());
+
     // FastAPI service endpoint configuration
     private static final String API_BASE_URL = "http://127.0.0.1:8000";
     private static final String PREDICT_ENDPOINT = API_BASE_URL + "/predict";
+    private static final String BATCH_ENDPOINT = API_BASE_URL + "/predict/batch";
     
-    // HTTP client with timeout configuration for reliable network communication
+    // Maximum number of requests sent to the AI service at the same time
+    private static final int MAX_IN_FLIGHT = Math.max(1, Integer.getInteger("hms.ai.maxInFlight", 4));
+
+    // Maximum number of images packed into one batch request
+    private static final int MAX_BATCH_SIZE = Math.max(1, Integer.getInteger("hms.ai.batchSize", 16));
+
+    // Resilience policy (see class comment)
+    private static final int RETRIES = Math.max(0, Integer.getInteger("hms.ai.retries", 2));
+    private static final long RETRY_BACKOFF_MILLIS = Math.max(1, Long.getLong("hms.ai.retryBackoffMillis", 500));
+    private static final long BULKHEAD_WAIT_MILLIS = Math.max(0, Long.getLong("hms.ai.bulkheadWaitMillis", 10_000));
+    private static final String CIRCUIT_OPEN_MESSAGE =
+        "AI service is temporarily unavailable (recent requests failed). Please try again later.";
+
+    private static final CircuitBreaker BREAKER = new CircuitBreaker("AI service",
+        Integer.getInteger("hms.ai.breaker.failureThreshold", 3),
+        Long.getLong("hms.ai.breaker.openMillis", 30_000));
+    // The one limit on requests in flight, synchronous or asynchronous; held across 503 retries
+    private static final Semaphore BULKHEAD = new Semaphore(MAX_IN_FLIGHT, true);
+    // Hashes, preprocesses and waits for a permit on behalf of asynchronous requests
+    private static final ExecutorService SUBMIT_EXECUTOR = Executors.newFixedThreadPool(MAX_IN_FLIGHT, r -> {
+        Thread t = new Thread(r, "ai-submit");
+        t.setDaemon(true);
+        return t;
+    });
+    // Re-sends asynchronous requests after a 503 without blocking a dispatcher thread
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ai-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Set once the service answers 404/405 on the batch endpoint, so later batches skip straight to single requests
+    private static volatile boolean batchUnsupported;
+
+    // Shared HTTP client with timeout configuration for reliable network communication
+    private static final OkHttpClient SHARED_CLIENT = createClient();
+    // Optional client-side grayscale/downsample step; null when disabled
+    private static final XrayPreprocessor SHARED_PREPROCESSOR = XrayPreprocessor.fromSystemProperties();
+    // Results of earlier analyses keyed by image content and model input, shared by all instances
+    private static final InferenceCache SHARED_CACHE = InferenceCache.fromSystemProperties(SHARED_PREPROCESSOR);
+    private static final PneumoniaDetectionAPI INSTANCE = new PneumoniaDetectionAPI();
+
     private final OkHttpClient client;
+    private final InferenceCache cache;
+    private final XrayPreprocessor preprocessor;
     private final Gson gson;
 
     /**
-     * Constructor initializes HTTP client and JSON parser.
-     * Timeouts are set to handle slow network connections and large image files.
+     * Constructor initializes the JSON parser and attaches to the shared HTTP client.
+     * Prefer getInstance(); creating more instances is cheap but unnecessary.
      */
     public PneumoniaDetectionAPI() {
-        this.client = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)  // Connection establishment timeout
-            .readTimeout(60, TimeUnit.SECONDS)     // Response reading timeout
+        this.client = SHARED_CLIENT;
+        this.cache = SHARED_CACHE;
+        this.preprocessor = SHARED_PREPROCESSOR;
+        this.gson = new Gson();
+    }
+
+    /**
+     * Get the shared API instance
+     */
+    public static PneumoniaDetectionAPI getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the shared HTTP client.
+     * Timeouts are set to handle slow network connections and large image files.
+     */
+    private static OkHttpClient createClient() {
+        // The dispatcher keeps its default limits: BULKHEAD admits at most MAX_IN_FLIGHT calls
+        return new OkHttpClient.Builder()
+            // Keep one idle connection per possible in-flight request for 5 minutes
+            .connectionPool(new ConnectionPool(MAX_IN_FLIGHT, 5, TimeUnit.MINUTES))
+            // Connection establishment timeout; kept short because the service runs locally
+            .connectTimeout(Long.getLong("hms.ai.connectTimeoutMillis", 5_000), TimeUnit.MILLISECONDS)
+            .readTimeout(Long.getLong("hms.ai.readTimeoutMillis", 60_000), TimeUnit.MILLISECONDS)   // Response reading timeout
             .writeTimeout(60, TimeUnit.SECONDS)    // Request writing timeout
             .build();
-        this.gson = new Gson();
+    }
+
+    /**
+     * Stops the shared client's dispatcher threads, closes idle connections and writes
+     * pending result cache changes. Called once when the application exits.
+     */
+    public static void shutdown() {
+        SHARED_CACHE.flush();
+        SUBMIT_EXECUTOR.shutdownNow();
+        RETRY_SCHEDULER.shutdownNow();
+        SHARED_CLIENT.dispatcher().executorService().shutdown();
+        SHARED_CLIENT.connectionPool().evictAll();
     }
 
     /**
@@ -56,124 +166,512 @@ public class PneumoniaDetectionAPI {
      * @throws IOException if network error, API unavailable (503), or invalid response
      */
     public PneumoniaResult analyzeXray(File imageFile) throws IOException {
-        // Step 1: Create multipart/form-data request body
-        // The API expects the file under the "file" form field name
-        RequestBody requestBody = new MultipartBody.Builder()
-            .setType(MultipartBody.FORM)
-            .addFormDataPart("file", imageFile.getName(),
-                RequestBody.create(imageFile, MediaType.parse("image/*")))
-            .build();
+        String cacheKey = cacheKey(imageFile);
+        PneumoniaResult cached = cacheKey != null ? cache.get(cacheKey) : null;
+        if (cached != null) {
+            return cached;
+        }
 
-        // Step 2: Build HTTP POST request
+        try {
+            PneumoniaResult result = execute(buildRequest(imageFile), this::parseResponse);
+            cacheResult(cacheKey, result);
+            return result;
+        } catch (IOException e) {
+            // Re-throw with context for better error messages
+            throw new IOException("Failed to communicate with AI service: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Analyzes an X-ray image without blocking the calling thread.
+     * 
+     * The image is hashed for the result cache on an ai-submit thread, which then waits
+     * for one of the MAX_IN_FLIGHT bulkhead permits and queues the HTTP call. Cancelling
+     * the returned future cancels the HTTP call. A previously analyzed image completes
+     * from the result cache without a request.
+     * 
+     * @param imageFile The X-ray image file to analyze (JPG, PNG, DICOM)
+     * @return Future completed with the PneumoniaResult, or exceptionally with an IOException
+     */
+    public CompletableFuture<PneumoniaResult> analyzeXrayAsync(File imageFile) {
+        return sendAsync(imageFile, true);
+    }
+
+    /**
+     * Prepares one single-image request on an ai-submit thread and sends it once a bulkhead
+     * permit is free. The permit is held until the returned future completes.
+     * @param useCache Whether to answer from, and store the result in, the result cache
+     */
+    private CompletableFuture<PneumoniaResult> sendAsync(File imageFile, boolean useCache) {
+        CompletableFuture<PneumoniaResult> future = new CompletableFuture<>();
+        AtomicReference<Call> currentCall = new AtomicReference<>();
+        future.whenComplete((result, error) -> {
+            Call call = currentCall.get();
+            if (future.isCancelled() && call != null) {
+                call.cancel();
+            }
+        });
+        try {
+            SUBMIT_EXECUTOR.execute(() -> {
+                String cacheKey = useCache ? cacheKey(imageFile) : null;
+                PneumoniaResult cached = cacheKey != null ? cache.get(cacheKey) : null;
+                if (cached != null) {
+                    future.complete(cached);
+                    return;
+                }
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    BULKHEAD.acquire();
+                } catch (InterruptedException e) {
+                    future.completeExceptionally(new IOException("Interrupted while waiting for the AI service", e));
+                    return;
+                }
+                // Runs at once if the future was cancelled while this thread waited
+                future.whenComplete((result, error) -> BULKHEAD.release());
+                try {
+                    enqueue(buildRequest(imageFile), cacheKey, future, currentCall, 0);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new IOException("AI service client has been shut down", e));
+        }
+        return future;
+    }
+
+    /**
+     * Sends one attempt of an asynchronous request; a 503 schedules the next attempt.
+     */
+    private void enqueue(Request request, String cacheKey, CompletableFuture<PneumoniaResult> future,
+                         AtomicReference<Call> currentCall, int attempt) {
+        if (future.isDone()) {
+            return;
+        }
+        if (!BREAKER.tryAcquire()) {
+            future.completeExceptionally(new IOException(CIRCUIT_OPEN_MESSAGE));
+            return;
+        }
+        Call call = client.newCall(request);
+        currentCall.set(call);
+        if (future.isCancelled()) {
+            // Cancelled while the previous attempt was waiting to retry
+            call.cancel();
+        }
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (call.isCanceled()) {
+                    BREAKER.recordCancelled();
+                } else {
+                    BREAKER.recordFailure();
+                }
+                future.completeExceptionally(
+                    new IOException("Failed to communicate with AI service: " + e.getMessage(), e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.code() == 503 && attempt < RETRIES) {
+                        BREAKER.recordFailure();
+                        RETRY_SCHEDULER.schedule(() -> enqueue(request, cacheKey, future, currentCall, attempt + 1),
+                            retryDelay(attempt), TimeUnit.MILLISECONDS);
+                        return;
+                    }
+                    recordOutcome(response.code());
+                    PneumoniaResult result = parseResponse(response);
+                    cacheResult(cacheKey, result);
+                    future.complete(result);
+                } catch (IOException e) {
+                    future.completeExceptionally(
+                        new IOException("Failed to communicate with AI service: " + e.getMessage(), e));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Analyzes several X-ray images, e.g. a screening-day series.
+     * 
+     * Images are packed into batch requests of up to hms.ai.batchSize files when the
+     * service provides /predict/batch. Otherwise, or when a batch request fails, each
+     * image is sent as a single request; all of them are queued at once so the shared
+     * client keeps up to hms.ai.maxInFlight requests in flight.
+     * 
+     * @param imageFiles X-ray image files to analyze
+     * @return Results in the same order as imageFiles; an entry is null if that image could not be analyzed
+     * @throws IOException if the calling thread is interrupted while waiting
+     */
+    public List<PneumoniaResult> analyzeBatch(List<File> imageFiles) throws IOException {
+        // Answer what we can from the cache; only the misses go to the service
+        List<PneumoniaResult> results = new ArrayList<>();
+        List<String> cacheKeys = new ArrayList<>();
+        List<Integer> missIndexes = new ArrayList<>();
+        List<File> misses = new ArrayList<>();
+        for (int i = 0; i < imageFiles.size(); i++) {
+            String cacheKey = cacheKey(imageFiles.get(i));
+            PneumoniaResult cached = cacheKey != null ? cache.get(cacheKey) : null;
+            results.add(cached);
+            cacheKeys.add(cacheKey);
+            if (cached == null) {
+                missIndexes.add(i);
+                misses.add(imageFiles.get(i));
+            }
+        }
+
+        for (int start = 0; start < misses.size(); start += MAX_BATCH_SIZE) {
+            List<File> chunk = misses.subList(start, Math.min(start + MAX_BATCH_SIZE, misses.size()));
+            List<PneumoniaResult> chunkResults = chunk.size() > 1 && !batchUnsupported ? analyzeBatchRequest(chunk) : null;
+            if (chunkResults == null) {
+                chunkResults = analyzeConcurrently(chunk);
+            }
+            for (int i = 0; i < chunkResults.size(); i++) {
+                int index = missIndexes.get(start + i);
+                results.set(index, chunkResults.get(i));
+                cacheResult(cacheKeys.get(index), chunkResults.get(i));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Cache key for an image, or null if the file cannot be hashed (the request will report the error)
+     */
+    private String cacheKey(File imageFile) {
+        try {
+            return cache.keyFor(imageFile);
+        } catch (IOException e) {
+            logger.warning("Could not hash " + imageFile + " for the result cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void cacheResult(String cacheKey, PneumoniaResult result) {
+        if (cacheKey != null && result != null) {
+            cache.put(cacheKey, result);
+        }
+    }
+
+    /**
+     * Sends one batch request.
+     * @return Results in request order, or null if the batch endpoint could not be used
+     */
+    private List<PneumoniaResult> analyzeBatchRequest(List<File> imageFiles) throws IOException {
+        MultipartBody.Builder bodyBuilder = new MultipartBody.Builder().setType(MultipartBody.FORM);
+        for (File imageFile : imageFiles) {
+            bodyBuilder.addPart(imagePart("files", imageFile));
+        }
         Request request = new Request.Builder()
-            .url(PREDICT_ENDPOINT)
-            .post(requestBody)
+            .url(BATCH_ENDPOINT)
+            .post(bodyBuilder.build())
             .build();
 
-        // Step 3: Execute request and handle response
-        try (Response response = client.newCall(request).execute()) {
-            // Handle HTTP error status codes
-            if (!response.isSuccessful()) {
-                int statusCode = response.code();
-                String errorMessage = "API request failed with status code: " + statusCode;
-                
-                // Specific handling for service unavailable
-                if (statusCode == 503) {
-                    errorMessage = "AI service is temporarily unavailable. Please try again later.";
-                } else if (statusCode == 400) {
-                    errorMessage = "Invalid image file format. Please ensure the file is a valid X-ray image.";
-                } else if (statusCode == 500) {
-                    errorMessage = "AI service encountered an internal error. Please contact support.";
+        try {
+            return execute(request, response -> {
+                if (response.code() == 404 || response.code() == 405) {
+                    logger.info("AI service has no batch endpoint; using single requests");
+                    batchUnsupported = true;
+                    return null;
+                }
+                if (!response.isSuccessful()) {
+                    logger.warning("Batch request failed with status code: " + response.code());
+                    return null;
                 }
-                
-                throw new IOException(errorMessage);
-            }
 
-            // Step 4: Parse JSON response
-            String responseBody = response.body().string();
-            
-            // Debug: Log response for troubleshooting
-            System.out.println("API Response Status: " + response.code());
-            System.out.println("API Response Body: " + responseBody);
-            
-            // Check if response body is empty
-            if (responseBody == null || responseBody.trim().isEmpty()) {
-                throw new IOException("API returned empty response. Status code: " + response.code());
+                String responseBody = response.body().string();
+                // Accept either a bare array or {"results": [...]}
+                JsonElement json = gson.fromJson(responseBody, JsonElement.class);
+                JsonArray items = json != null && json.isJsonObject() && json.getAsJsonObject().has("results")
+                    ? json.getAsJsonObject().getAsJsonArray("results")
+                    : json != null && json.isJsonArray() ? json.getAsJsonArray() : null;
+                if (items == null || items.size() != imageFiles.size()) {
+                    logger.warning("Batch response does not match the request; using single requests");
+                    return null;
+                }
+
+                List<PneumoniaResult> results = new ArrayList<>();
+                for (JsonElement item : items) {
+                    try {
+                        results.add(parseResult(item.getAsJsonObject(), item.toString()));
+                    } catch (IOException | IllegalStateException e) {
+                        logger.warning("Invalid batch result: " + e.getMessage());
+                        results.add(null);
+                    }
+                }
+                return results;
+            });
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("AI analysis was cancelled", e);
             }
-            
-            // Parse JSON with error handling
-            JsonObject jsonResponse;
+            logger.log(Level.WARNING, "Batch request failed; using single requests", e);
+            return null;
+        }
+    }
+
+    /**
+     * Queues one single-image request per file and waits for all of them.
+     */
+    private List<PneumoniaResult> analyzeConcurrently(List<File> imageFiles) throws IOException {
+        List<CompletableFuture<PneumoniaResult>> futures = new ArrayList<>();
+        for (File imageFile : imageFiles) {
+            // analyzeBatch has already checked the cache and stores the results itself
+            futures.add(sendAsync(imageFile, false));
+        }
+
+        List<PneumoniaResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
             try {
-                jsonResponse = gson.fromJson(responseBody, JsonObject.class);
-            } catch (Exception e) {
-                throw new IOException("Failed to parse JSON response. Response body: " + responseBody + 
-                    "\nError: " + e.getMessage());
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IOException("AI analysis was cancelled", e);
+            } catch (ExecutionException e) {
+                logger.warning("AI analysis failed for " + imageFiles.get(i).getName() + ": " + e.getCause().getMessage());
+                results.add(null);
             }
-            
-            // Validate response structure - check for both possible field names
-            boolean hasPrediction = jsonResponse.has("prediction");
-            boolean hasDiagnosis = jsonResponse.has("diagnosis");
-            boolean hasConfidence = jsonResponse.has("confidence");
-            
-            if ((!hasPrediction && !hasDiagnosis) || !hasConfidence) {
-                String availableFields = jsonResponse.keySet().toString();
-                throw new IOException("Invalid API response format.\n" +
-                    "Expected 'prediction' (or 'diagnosis') and 'confidence' fields.\n" +
-                    "Received fields: " + availableFields + "\n" +
-                    "Response body: " + responseBody);
+        }
+        return results;
+    }
+
+    /**
+     * Runs a synchronous request through the bulkhead, the circuit breaker and the 503 retry policy.
+     * @param handler Reads the response; the response is closed afterwards
+     */
+    private <T> T execute(Request request, ResponseHandler<T> handler) throws IOException {
+        try {
+            if (!BULKHEAD.tryAcquire(BULKHEAD_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("AI service is busy (" + MAX_IN_FLIGHT + " requests in progress). Please try again later.");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the AI service", e);
+        }
 
-            // Step 5: Extract and process response data
-            PneumoniaResult result = new PneumoniaResult();
-            
-            // Get prediction: "NORMAL" or "PNEUMONIA" (support both "prediction" and "diagnosis" fields)
-            String prediction;
-            if (jsonResponse.has("prediction")) {
-                prediction = jsonResponse.get("prediction").getAsString();
-            } else if (jsonResponse.has("diagnosis")) {
-                prediction = jsonResponse.get("diagnosis").getAsString();
-            } else {
-                throw new IOException("Response missing 'prediction' or 'diagnosis' field. Response: " + responseBody);
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (!BREAKER.tryAcquire()) {
+                    throw new IOException(CIRCUIT_OPEN_MESSAGE);
+                }
+                Response response;
+                try {
+                    response = client.newCall(request).execute();
+                } catch (IOException e) {
+                    BREAKER.recordFailure();
+                    throw e;
+                }
+
+                try (response) {
+                    if (response.code() == 503 && attempt < RETRIES) {
+                        BREAKER.recordFailure();
+                        sleep(retryDelay(attempt));
+                        continue;
+                    }
+                    recordOutcome(response.code());
+                    return handler.handle(response);
+                }
             }
-            result.setDiagnosis(prediction);
-            
-            // Get confidence (0.0 - 1.0) and convert to percentage (0 - 100)
-            double confidenceRaw;
+        } finally {
+            BULKHEAD.release();
+        }
+    }
+
+    /**
+     * Server errors count against the circuit breaker; anything else (including 4xx for a bad image) shows the service is up
+     */
+    private void recordOutcome(int statusCode) {
+        if (statusCode >= 500) {
+            BREAKER.recordFailure();
+        } else {
+            BREAKER.recordSuccess();
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: a random delay between half and all of base * 2^attempt
+     */
+    private static long retryDelay(int attempt) {
+        long delay = RETRY_BACKOFF_MILLIS << Math.min(attempt, 20);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    /**
+     * Reads an HTTP response into a result
+     */
+    private interface ResponseHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
+    /**
+     * Form part for one image: the preprocessed PNG when preprocessing is enabled and helps,
+     * otherwise the original file.
+     */
+    private MultipartBody.Part imagePart(String fieldName, File imageFile) {
+        boolean dicom = DicomReader.isDicom(imageFile);
+        if (preprocessor != null || dicom) {
             try {
-                confidenceRaw = jsonResponse.get("confidence").getAsDouble();
-            } catch (Exception e) {
-                throw new IOException("Failed to parse confidence value. Response: " + responseBody + 
-                    "\nError: " + e.getMessage());
+                // The service cannot decode DICOM, so it is always sent as PNG
+                byte[] png = preprocessor != null ? preprocessor.preprocess(imageFile) : XrayPreprocessor.toPng(imageFile);
+                if (png != null) {
+                    String baseName = imageFile.getName().replaceFirst("\\.[^.]*$", "");
+                    return MultipartBody.Part.createFormData(fieldName, baseName + ".png",
+                        RequestBody.create(png, MediaType.parse("image/png")));
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warning("Preprocessing failed for " + imageFile.getName() + ", sending original: " + e.getMessage());
             }
+        }
+        return MultipartBody.Part.createFormData(fieldName, imageFile.getName(),
+            RequestBody.create(imageFile, MediaType.parse("image/*")));
+    }
+
+    /**
+     * Builds the multipart/form-data POST request for one image.
+     */
+    private Request buildRequest(File imageFile) {
+        // Step 1: Create multipart/form-data request body
+        // The API expects the file under the "file" form field name
+        RequestBody requestBody = new MultipartBody.Builder()
+            .setType(MultipartBody.FORM)
+            .addPart(imagePart("file", imageFile))
+            .build();
+
+        // Step 2: Build HTTP POST request
+        return new Request.Builder()
+            .url(PREDICT_ENDPOINT)
+            .post(requestBody)
+            .build();
+    }
+
+    /**
+     * Parses the AI service response into a PneumoniaResult.
+     * @throws IOException if the status code is an error or the body is invalid
+     */
+    private PneumoniaResult parseResponse(Response response) throws IOException {
+        // Step 3: Handle response
+        // Handle HTTP error status codes
+        if (!response.isSuccessful()) {
+            int statusCode = response.code();
+            String errorMessage = "API request failed with status code: " + statusCode;
             
-            // Convert to percentage if needed (if value is <= 1.0, assume it's 0.0-1.0 range)
-            double confidencePercentage;
-            if (confidenceRaw <= 1.0) {
-                confidencePercentage = confidenceRaw * 100.0;
-            } else {
-                // Already in percentage format
-                confidencePercentage = confidenceRaw;
+            // Specific handling for service unavailable
+            if (statusCode == 503) {
+                errorMessage = "AI service is temporarily unavailable. Please try again later.";
+            } else if (statusCode == 400) {
+                errorMessage = "Invalid image file format. Please ensure the file is a valid X-ray image.";
+            } else if (statusCode == 500) {
+                errorMessage = "AI service encountered an internal error. Please contact support.";
             }
             
-            result.setConfidence(confidencePercentage);
-            result.setRawScore(confidenceRaw <= 1.0 ? confidenceRaw : confidenceRaw / 100.0); // Store original 0.0-1.0 value
-            
-            // Store full response for database persistence
-            result.setFullResponse(responseBody);
-            
-            // Determine confidence level for UI display
-            String confidenceLevel = determineConfidenceLevel(confidencePercentage);
-            result.setConfidenceLevel(confidenceLevel);
-            
-            // Generate recommendation based on diagnosis
-            String recommendation = generateRecommendation(prediction, confidencePercentage);
-            result.setRecommendation(recommendation);
+            throw new IOException(errorMessage);
+        }
 
-            return result;
-        } catch (IOException e) {
-            // Re-throw with context for better error messages
-            throw new IOException("Failed to communicate with AI service: " + e.getMessage(), e);
+        // Step 4: Parse JSON response
+        String responseBody = response.body().string();
+        
+        // Debug: Log response for troubleshooting
+        logger.fine("API Response Status: " + response.code());
+        logger.fine("API Response Body: " + responseBody);
+        
+        // Check if response body is empty
+        if (responseBody == null || responseBody.trim().isEmpty()) {
+            throw new IOException("API returned empty response. Status code: " + response.code());
+        }
+        
+        // Parse JSON with error handling
+        JsonObject jsonResponse;
+        try {
+            jsonResponse = gson.fromJson(responseBody, JsonObject.class);
+        } catch (Exception e) {
+            throw new IOException("Failed to parse JSON response. Response body: " + responseBody + 
+                "\nError: " + e.getMessage());
         }
+        
+        return parseResult(jsonResponse, responseBody);
+    }
+
+    /**
+     * Converts one prediction object from the AI service into a PneumoniaResult.
+     * @param jsonResponse Object with "prediction" (or "diagnosis") and "confidence" fields
+     * @param responseBody JSON text stored on the result for database persistence
+     */
+    private PneumoniaResult parseResult(JsonObject jsonResponse, String responseBody) throws IOException {
+        // Validate response structure - check for both possible field names
+        boolean hasPrediction = jsonResponse.has("prediction");
+        boolean hasDiagnosis = jsonResponse.has("diagnosis");
+        boolean hasConfidence = jsonResponse.has("confidence");
+        
+        if ((!hasPrediction && !hasDiagnosis) || !hasConfidence) {
+            String availableFields = jsonResponse.keySet().toString();
+            throw new IOException("Invalid API response format.\n" +
+                "Expected 'prediction' (or 'diagnosis') and 'confidence' fields.\n" +
+                "Received fields: " + availableFields + "\n" +
+                "Response body: " + responseBody);
+        }
+
+        // Step 5: Extract and process response data
+        PneumoniaResult result = new PneumoniaResult();
+        
+        // Get prediction: "NORMAL" or "PNEUMONIA" (support both "prediction" and "diagnosis" fields)
+        String prediction;
+        if (jsonResponse.has("prediction")) {
+            prediction = jsonResponse.get("prediction").getAsString();
+        } else if (jsonResponse.has("diagnosis")) {
+            prediction = jsonResponse.get("diagnosis").getAsString();
+        } else {
+            throw new IOException("Response missing 'prediction' or 'diagnosis' field. Response: " + responseBody);
+        }
+        result.setDiagnosis(prediction);
+        
+        // Get confidence (0.0 - 1.0) and convert to percentage (0 - 100)
+        double confidenceRaw;
+        try {
+            confidenceRaw = jsonResponse.get("confidence").getAsDouble();
+        } catch (Exception e) {
+            throw new IOException("Failed to parse confidence value. Response: " + responseBody + 
+                "\nError: " + e.getMessage());
+        }
+        
+        // Convert to percentage if needed (if value is <= 1.0, assume it's 0.0-1.0 range)
+        double confidencePercentage;
+        if (confidenceRaw <= 1.0) {
+            confidencePercentage = confidenceRaw * 100.0;
+        } else {
+            // Already in percentage format
+            confidencePercentage = confidenceRaw;
+        }
+        
+        result.setConfidence(confidencePercentage);
+        result.setRawScore(confidenceRaw <= 1.0 ? confidenceRaw : confidenceRaw / 100.0); // Store original 0.0-1.0 value
+        
+        // Store full response for database persistence
+        result.setFullResponse(responseBody);
+        
+        // Determine confidence level for UI display
+        String confidenceLevel = determineConfidenceLevel(confidencePercentage);
+        result.setConfidenceLevel(confidenceLevel);
+        
+        // Generate recommendation based on diagnosis
+        String recommendation = generateRecommendation(prediction, confidencePercentage);
+        result.setRecommendation(recommendation);
+
+        return result;
     }
 
     /**
@@ -0,0 +1,150 @@
+package com.hospital.appointment.api;
+
+import com.hospital.appointment.imaging.DicomReader;
+import com.hospital.appointment.imaging.ImageRenditions;
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * XrayPreprocessor - Shrinks X-ray images before they are sent for inference
+ *
+ * The model only looks at a small grayscale input, so sending the original multi-megabyte
+ * film wastes upload time and server-side decoding. The image is decoded, converted to
+ * grayscale and downsampled until it just covers the model's input size (aspect ratio is
+ * kept; the service still does its own final resize), then re-encoded as lossless PNG.
+ * DICOM films are windowed to 8 bits by DicomReader first; the service cannot read DICOM,
+ * so they are converted (see toPng) even when preprocessing is disabled.
+ *
+ * Enabled with -Dhms.ai.preprocess=true. The input size is read from
+ * -Dhms.ai.inputSize.&lt;modelVersion&gt; (e.g. hms.ai.inputSize.v1=224x224), falling back
+ * to -Dhms.ai.inputSize (default 224x224).
+ *
+ * Runs on the calling thread; callers are background threads (upload tasks and InferenceWorker).
+ */
+public class XrayPreprocessor {
+    private static final Logger logger = Logger.getLogger(XrayPreprocessor.class.getName());
+
+    private final int targetWidth;
+    private final int targetHeight;
+
+    public XrayPreprocessor(int targetWidth, int targetHeight) {
+        this.targetWidth = Math.max(1, targetWidth);
+        this.targetHeight = Math.max(1, targetHeight);
+    }
+
+    /**
+     * Creates the preprocessor configured by system properties
+     * @return XrayPreprocessor, or null if preprocessing is disabled
+     */
+    public static XrayPreprocessor fromSystemProperties() {
+        if (!Boolean.getBoolean("hms.ai.preprocess")) {
+            return null;
+        }
+        String modelVersion = System.getProperty("hms.ai.modelVersion", "v1");
+        String size = System.getProperty("hms.ai.inputSize." + modelVersion,
+                                         System.getProperty("hms.ai.inputSize", "224x224"));
+        try {
+            String[] parts = size.toLowerCase().split("x");
+            int width = Integer.parseInt(parts[0].trim());
+            int height = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : width;
+            logger.info("X-ray preprocessing enabled: " + width + "x" + height + " for model " + modelVersion);
+            return new XrayPreprocessor(width, height);
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid hms.ai.inputSize '" + size + "'; X-ray preprocessing disabled");
+            return null;
+        }
+    }
+
+    /**
+     * The size images are reduced to, e.g. "224x224"; part of the result cache key
+     */
+    public String getInputSize() {
+        return targetWidth + "x" + targetHeight;
+    }
+
+    /**
+     * Produces the reduced PNG for an image file
+     * @return PNG bytes, or null if the image cannot be decoded or would not get smaller
+     * @throws IOException if the file cannot be read
+     */
+    public byte[] preprocess(File imageFile) throws IOException {
+        BufferedImage source = ImageRenditions.decode(imageFile);
+        if (source == null) {
+            // No reader for this format; send the original
+            return null;
+        }
+
+        byte[] png = encodePng(downsample(toGrayscale(source)));
+        // A DICOM original must never be sent, however small it is
+        if (png.length >= imageFile.length() && !DicomReader.isDicom(imageFile)) {
+            return null;
+        }
+        return png;
+    }
+
+    /**
+     * Converts a DICOM film to a full-resolution PNG the service can read
+     * @return PNG bytes, or null if the file is not DICOM
+     * @throws IOException if the file cannot be read or decoded
+     */
+    public static byte[] toPng(File imageFile) throws IOException {
+        if (!DicomReader.isDicom(imageFile)) {
+            return null;
+        }
+        return encodePng(DicomReader.read(imageFile));
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private BufferedImage toGrayscale(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return source;
+        }
+        BufferedImage gray = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return gray;
+    }
+
+    /**
+     * Halves the image repeatedly (bilinear steps keep quality close to a full area filter)
+     * and finishes with one step to the smallest size that still covers the target.
+     */
+    private BufferedImage downsample(BufferedImage image) {
+        double scale = Math.max((double) targetWidth / image.getWidth(), (double) targetHeight / image.getHeight());
+        if (scale >= 1.0) {
+            return image;
+        }
+        int finalWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int finalHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= finalWidth && current.getHeight() / 2 >= finalHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != finalWidth || current.getHeight() != finalHeight) {
+            current = resize(current, finalWidth, finalHeight);
+        }
+        return current;
+    }
+
+    private BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+}
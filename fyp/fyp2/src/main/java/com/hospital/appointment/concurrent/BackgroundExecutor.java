@@ -0,0 +1,84 @@
+package com.hospital.appointment.concurrent;
+
+import javafx.concurrent.Task;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BackgroundExecutor - Shared worker pool for DAO and HTTP calls made by the views
+ * 
+ * Work runs off the JavaFX Application Thread; success and failure callbacks are
+ * delivered back on the FX thread through javafx.concurrent.Task, so views can
+ * update controls directly from them.
+ */
+public final class BackgroundExecutor {
+    private static final Logger logger = Logger.getLogger(BackgroundExecutor.class.getName());
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    // Cached pool of daemon threads: blocking JDBC/HTTP work grows the pool as needed
+    // and idle workers are reclaimed after a minute
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ui-worker-" + threadCounter.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private BackgroundExecutor() {
+    }
+
+    /**
+     * Runs work in the background and delivers the outcome on the FX thread.
+     * Callbacks are skipped if the returned task is cancelled first.
+     * @param work Blocking work to run off the FX thread
+     * @param onSuccess Called on the FX thread with the result
+     * @param onFailure Called on the FX thread with the error, may be null
+     * @return Task that can be cancelled
+     */
+    public static <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (onSuccess != null) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            Throwable error = task.getException();
+            logger.log(Level.WARNING, "Background task failed", error);
+            if (onFailure != null) {
+                onFailure.accept(error);
+            }
+        });
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Submits work without waiting for callbacks (fire and forget).
+     */
+    public static void execute(Runnable work) {
+        EXECUTOR.execute(work);
+    }
+
+    /**
+     * Stops accepting new work and gives running tasks a moment to finish.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.hospital.appointment.concurrent;
+
+import com.hospital.appointment.api.PneumoniaDetectionAPI;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.InferenceJobDAO;
+import com.hospital.appointment.dao.XrayImageDAO;
+import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.models.InferenceJob;
+import com.hospital.appointment.models.XrayImage;
+import com.hospital.appointment.storage.BlobStore;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InferenceWorker - Background workers that drain the inference_jobs queue
+ *
+ * An upload only records the image and queues a job, so nurses never wait for the AI
+ * service. Each worker claims due jobs, analyzes them as one batch, and in one transaction
+ * writes the ai_reports rows, moves the appointments to UPLOADED and completes the jobs.
+ * A job that fails is retried with exponential backoff until it runs out of attempts.
+ * Claims are leases held by this app instance: jobs whose lease runs out, because their
+ * instance stopped or hung mid-analysis, are put back in the queue for any instance.
+ *
+ * Tuning (system properties):
+ *   hms.ai.jobWorkers           number of worker threads (default 2)
+ *   hms.ai.jobPollMillis        how often idle workers check for due jobs (default 5000)
+ *   hms.ai.jobMaxAttempts       attempts before a job is marked FAILED (default 10)
+ *   hms.ai.jobBackoffMillis     delay before the first retry, doubled each attempt (default 30000)
+ *   hms.ai.jobMaxBackoffMillis  upper bound on the retry delay (default 1800000)
+ *   hms.ai.jobLeaseMillis       how long a claimed batch may take before it is requeued (default 900000)
+ */
+public class InferenceWorker {
+    private static final Logger logger = Logger.getLogger(InferenceWorker.class.getName());
+    private static InferenceWorker instance;
+
+    private final int workers = Math.max(1, Integer.getInteger("hms.ai.jobWorkers", 2));
+    private final long pollMillis = Math.max(100, Long.getLong("hms.ai.jobPollMillis", 5_000));
+    private final int maxAttempts = Math.max(1, Integer.getInteger("hms.ai.jobMaxAttempts", 10));
+    private final long backoffMillis = Math.max(1, Long.getLong("hms.ai.jobBackoffMillis", 30_000));
+    private final long maxBackoffMillis = Math.max(backoffMillis, Long.getLong("hms.ai.jobMaxBackoffMillis", 1_800_000));
+    private final int claimLimit = Math.max(1, Integer.getInteger("hms.ai.batchSize", 16));
+    private final long leaseMillis = Math.max(pollMillis, Long.getLong("hms.ai.jobLeaseMillis", 900_000));
+    // Recorded in inference_jobs.claimed_by; pid@host, unique among running instances
+    private final String workerId = truncate(ManagementFactory.getRuntimeMXBean().getName(), 64);
+
+    // Null on an application server client, which never starts the workers: the queue is
+    // worked where the database is
+    private final InferenceJobDAO inferenceJobDAO = DaoFactory.getInstance().getInferenceJobDAO();
+    private final XrayImageDAO xrayImageDAO = DaoFactory.getInstance().getXrayImageDAO();
+
+    private ScheduledExecutorService executor;
+
+    private InferenceWorker() {
+    }
+
+    public static synchronized InferenceWorker getInstance() {
+        if (instance == null) {
+            instance = new InferenceWorker();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the worker threads, and a check that requeues jobs whose lease has expired.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(workers, r -> {
+            Thread t = new Thread(r, "inference-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::requeueExpired, 0, pollMillis, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < workers; i++) {
+            // Stagger the workers so they do not all poll at the same moment
+            executor.scheduleWithFixedDelay(this::poll, pollMillis * i / workers, pollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Checks the queue now instead of waiting for the next poll, e.g. right after an upload
+     */
+    public synchronized void wakeUp() {
+        if (executor != null) {
+            executor.execute(this::poll);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void requeueExpired() {
+        try {
+            int requeued = inferenceJobDAO.requeueExpired();
+            if (requeued > 0) {
+                logger.info("Requeued " + requeued + " inference job(s) whose lease expired");
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Inference lease check failed", e);
+        }
+    }
+
+    /**
+     * Claims and processes due jobs until none are left
+     */
+    private void poll() {
+        try {
+            List<InferenceJob> jobs;
+            while (!Thread.currentThread().isInterrupted()
+                   && !(jobs = inferenceJobDAO.claimDue(claimLimit, workerId,
+                                                        LocalDateTime.now().plusNanos(leaseMillis * 1_000_000))).isEmpty()) {
+                process(jobs);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the scheduled poll
+            logger.log(Level.SEVERE, "Inference worker failed", e);
+        }
+    }
+
+    private void process(List<InferenceJob> jobs) {
+        List<InferenceJob> runnable = new ArrayList<>();
+        List<XrayImage> images = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        for (InferenceJob job : jobs) {
+            XrayImage image = xrayImageDAO.findById(job.getImageId());
+            if (image == null || !BlobStore.getInstance().resolve(image.getImagePath()).exists()) {
+                fail(job, "X-ray image is missing");
+                continue;
+            }
+            runnable.add(job);
+            images.add(image);
+            files.add(BlobStore.getInstance().resolve(image.getImagePath()));
+        }
+        if (runnable.isEmpty()) {
+            return;
+        }
+
+        List<PneumoniaDetectionAPI.PneumoniaResult> results;
+        try {
+            results = PneumoniaDetectionAPI.getInstance().analyzeBatch(files);
+        } catch (IOException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down; the jobs are requeued once their lease expires
+                logger.info("Inference interrupted: " + e.getMessage());
+                return;
+            }
+            for (InferenceJob job : runnable) {
+                retry(job, e.getMessage());
+            }
+            return;
+        }
+
+        List<InferenceJob> analyzed = new ArrayList<>();
+        List<XrayImage> analyzedImages = new ArrayList<>();
+        List<AIReport> reports = new ArrayList<>();
+        for (int i = 0; i < runnable.size(); i++) {
+            PneumoniaDetectionAPI.PneumoniaResult result = results.get(i);
+            if (result == null) {
+                retry(runnable.get(i), "AI service unavailable");
+                continue;
+            }
+            analyzed.add(runnable.get(i));
+            analyzedImages.add(images.get(i));
+            reports.add(toAIReport(result, images.get(i)));
+        }
+        if (analyzed.isEmpty()) {
+            return;
+        }
+
+        if (!saveAIReports(analyzed, analyzedImages, reports)) {
+            for (InferenceJob job : analyzed) {
+                retry(job, "Failed to save AI report");
+            }
+        }
+    }
+
+    private AIReport toAIReport(PneumoniaDetectionAPI.PneumoniaResult result, XrayImage image) {
+        AIReport aiReport = new AIReport();
+        aiReport.setImageId(image.getImageId());
+        aiReport.setPrediction(result.getDiagnosis());
+        // Convert percentage back to 0.0-1.0 for database
+        aiReport.setConfidenceScore(result.getRawScore());
+        aiReport.setGeneratedAt(LocalDateTime.now());
+        return aiReport;
+    }
+
+    /**
+     * Completes the jobs, saves their reports to ai_reports and moves the appointments to
+     * UPLOADED in one transaction (see InferenceJobDAO.complete). A job whose lease expired
+     * and was claimed again is left to its new worker, and its report is not saved twice.
+     */
+    private boolean saveAIReports(List<InferenceJob> jobs, List<XrayImage> images, List<AIReport> reports) {
+        List<Integer> jobIds = new ArrayList<>();
+        List<Integer> appointmentIds = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            jobIds.add(jobs.get(i).getJobId());
+            appointmentIds.add(images.get(i).getAppointmentId());
+        }
+        List<Integer> done = inferenceJobDAO.complete(jobIds, workerId, reports, appointmentIds);
+        if (done == null) {
+            return false;
+        }
+        int lost = jobs.size() - done.size();
+        if (lost > 0) {
+            logger.warning(lost + " inference job(s) outlived their lease and were left to another worker");
+        }
+        return true;
+    }
+
+    private void retry(InferenceJob job, String error) {
+        int attempt = job.getAttempts() + 1;
+        if (attempt >= maxAttempts) {
+            fail(job, error);
+            return;
+        }
+        // Exponential backoff with jitter so queued jobs do not all retry at once
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 30));
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        logger.info("Inference job " + job.getJobId() + " failed (attempt " + attempt + "), retrying in "
+            + delay / 1000 + "s: " + error);
+        inferenceJobDAO.scheduleRetry(job.getJobId(), workerId, LocalDateTime.now().plusNanos(delay * 1_000_000), error);
+    }
+
+    private void fail(InferenceJob job, String error) {
+        logger.warning("Inference job " + job.getJobId() + " failed permanently: " + error);
+        inferenceJobDAO.markFailed(job.getJobId(), workerId, error);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
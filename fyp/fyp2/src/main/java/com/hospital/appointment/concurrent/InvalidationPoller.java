@@ -0,0 +1,149 @@
+package com.hospital.appointment.concurrent;
+
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.InvalidationLogDAO;
+import com.hospital.appointment.models.CacheInvalidation;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InvalidationPoller - Tails the cache_invalidations log so cached rows follow changes
+ * made by other workstations
+ *
+ * DAO writes append the ids of the rows they change to the log on their own transaction
+ * (see JdbcInvalidationLogDAO). This thread reads the entries after its watermark every
+ * -Dhms.cache.invalidationPollMillis (default 2000) and hands each subscriber the ids of
+ * its entity type that changed, so views and caches can drop or re-read just those rows
+ * instead of expiring everything on a timer.
+ *
+ * Versions are handed out when an entry is inserted but become visible when its
+ * transaction commits, so a later version can show up first. Each poll therefore rereads
+ * the last LOOKBACK_VERSIONS versions and skips the ones already delivered.
+ *
+ * Entries older than -Dhms.cache.invalidationRetentionHours (default 24) are pruned.
+ * Listeners are called on the polling thread.
+ */
+public class InvalidationPoller {
+    private static final Logger logger = Logger.getLogger(InvalidationPoller.class.getName());
+    private static final long POLL_MILLIS = Math.max(100, Long.getLong("hms.cache.invalidationPollMillis", 2_000));
+    private static final long RETENTION_HOURS = Math.max(1, Long.getLong("hms.cache.invalidationRetentionHours", 24));
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int LOOKBACK_VERSIONS = 64;
+    private static final int BATCH_SIZE = 500;
+    private static InvalidationPoller instance;
+
+    private final InvalidationLogDAO invalidationLogDAO = DaoFactory.getInstance().getInvalidationLogDAO();
+    private final Map<String, List<Consumer<Set<Integer>>>> subscribers = new ConcurrentHashMap<>();
+
+    // Only touched by the polling thread
+    private long watermark = -1;
+    private final TreeSet<Long> delivered = new TreeSet<>();
+    private long lastPrune = System.nanoTime() - PRUNE_INTERVAL_NANOS;
+
+    private ScheduledExecutorService executor;
+
+    private InvalidationPoller() {
+    }
+
+    public static synchronized InvalidationPoller getInstance() {
+        if (instance == null) {
+            instance = new InvalidationPoller();
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invalidation-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::poll, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Listens to changes of one entity type (see CacheInvalidation)
+     * @param listener Called with the ids that changed, on the polling thread
+     * @return Call to stop listening
+     */
+    public Runnable subscribe(String entityType, Consumer<Set<Integer>> listener) {
+        subscribers.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> subscribers.get(entityType).remove(listener);
+    }
+
+    private void poll() {
+        try {
+            if (watermark < 0) {
+                // Older entries describe changes made before anything here was cached
+                long latest = invalidationLogDAO.findLatestVersion();
+                if (latest < 0) {
+                    return;
+                }
+                watermark = latest;
+            }
+
+            List<CacheInvalidation> batch;
+            do {
+                batch = invalidationLogDAO.findAfter(Math.max(0, watermark - LOOKBACK_VERSIONS), BATCH_SIZE);
+                if (batch == null) {
+                    return; // Logged by the DAO; retried on the next poll
+                }
+                Map<String, Set<Integer>> changed = new HashMap<>();
+                for (CacheInvalidation invalidation : batch) {
+                    if (delivered.add(invalidation.getVersion())) {
+                        changed.computeIfAbsent(invalidation.getEntityType(), type -> new LinkedHashSet<>())
+                               .add(invalidation.getEntityId());
+                    }
+                    watermark = Math.max(watermark, invalidation.getVersion());
+                }
+                delivered.headSet(watermark - LOOKBACK_VERSIONS, true).clear();
+                changed.forEach(this::deliver);
+            } while (batch.size() == BATCH_SIZE);
+
+            if (System.nanoTime() - lastPrune >= PRUNE_INTERVAL_NANOS) {
+                lastPrune = System.nanoTime();
+                invalidationLogDAO.deleteOlderThan(LocalDateTime.now().minusHours(RETENTION_HOURS));
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; an exception would cancel it
+            logger.log(Level.WARNING, "Invalidation poll failed", e);
+        }
+    }
+
+    private void deliver(String entityType, Set<Integer> entityIds) {
+        List<Consumer<Set<Integer>>> listeners = subscribers.get(entityType);
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<Set<Integer>> listener : listeners) {
+            try {
+                listener.accept(entityIds);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Invalidation listener failed", e);
+            }
+        }
+    }
+}
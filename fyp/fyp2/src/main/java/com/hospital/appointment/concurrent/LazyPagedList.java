@@ -0,0 +1,318 @@
+package com.hospital.appointment.concurrent;
+
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * LazyPagedList - Table items that are loaded a window at a time as they are scrolled into view
+ *
+ * The list reports the full row count, but only holds the windows the table has asked
+ * for recently. A row whose window is not loaded yet reads as the placeholder and its
+ * window is fetched on the BackgroundExecutor; when it arrives the rows are replaced
+ * in place, so a TableView repaints just those cells. Reading near the end of a window
+ * prefetches the next one. At most maxWindows windows are kept, least recently read
+ * first out, so memory and first paint stay the same however long the history grows.
+ *
+ * The last row of every loaded window is remembered, so the next window is fetched
+ * after it (keyset pagination) even once the window itself has been evicted.
+ *
+ * Start or restart the list with ViewTasks.load(key, table, list::fetchFirstWindow, list::reset).
+ * All other methods must be called on the FX thread.
+ */
+public class LazyPagedList<T> extends ObservableListBase<T> {
+    // Rows per window and windows kept in memory, shared by the worklist tables
+    private static final int WINDOW_SIZE = Math.max(1, Integer.getInteger("hms.ui.pageSize", 100));
+    private static final int MAX_WINDOWS = Integer.getInteger("hms.ui.cachedPages", 5);
+
+    /**
+     * Loads one window of rows, run in the background
+     */
+    public interface WindowLoader<T> {
+        /**
+         * @param after Row just before the window, or null if it is not known
+         * @param offset Position of the window's first row
+         * @param limit Maximum number of rows to return
+         */
+        List<T> load(T after, int offset, int limit) throws Exception;
+    }
+
+    /**
+     * Row count and first window, fetched together in the background
+     */
+    public static final class FirstWindow<T> {
+        private final int totalRows;
+        private final List<T> rows;
+
+        private FirstWindow(int totalRows, List<T> rows) {
+            this.totalRows = totalRows;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Rows changed since a watermark and the row count, fetched together in the background
+     */
+    public static final class Changes<T> {
+        private final int totalRows;
+        private final List<T> rows;
+
+        private Changes(int totalRows, List<T> rows) {
+            this.totalRows = totalRows;
+            this.rows = rows;
+        }
+
+        public List<T> getRows() {
+            return rows;
+        }
+    }
+
+    private final Callable<Integer> counter;
+    private final WindowLoader<T> loader;
+    private final int windowSize;
+    private final int maxWindows;
+    private final T placeholder;
+
+    // Access order: iteration starts at the least recently read window
+    private final LinkedHashMap<Integer, List<T>> windows = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, T> lastRows = new HashMap<>();
+    private final Map<Integer, Task<List<T>>> pending = new HashMap<>();
+    // Bumped by cancelLoads; a load that finishes after a reset belongs to an older generation
+    private int generation;
+    private int size;
+
+    /**
+     * List with the window size and cache configured by -Dhms.ui.pageSize and -Dhms.ui.cachedPages
+     */
+    public LazyPagedList(Callable<Integer> counter, WindowLoader<T> loader, T placeholder) {
+        this(counter, loader, WINDOW_SIZE, MAX_WINDOWS, placeholder);
+    }
+
+    /**
+     * @param counter Counts all rows, run in the background
+     * @param loader Loads one window, run in the background
+     * @param windowSize Rows per window
+     * @param maxWindows Windows kept in memory
+     * @param placeholder Shown for rows that are still loading
+     */
+    public LazyPagedList(Callable<Integer> counter, WindowLoader<T> loader, int windowSize, int maxWindows, T placeholder) {
+        this.counter = counter;
+        this.loader = loader;
+        this.windowSize = Math.max(1, windowSize);
+        this.maxWindows = Math.max(2, maxWindows);
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * Counts the rows and loads the first window. Blocking; call it off the FX thread.
+     */
+    public FirstWindow<T> fetchFirstWindow() throws Exception {
+        Integer count = counter.call();
+        List<T> rows = loader.load(null, 0, windowSize);
+        return new FirstWindow<>(Math.max(count != null ? count : 0, rows.size()), rows);
+    }
+
+    /**
+     * Reads changed rows with the finder, then recounts the rows. Blocking; call it off the FX thread.
+     */
+    public Changes<T> fetchChanges(Callable<List<T>> finder) throws Exception {
+        List<T> rows = finder.call();
+        Integer count = counter.call();
+        return new Changes<>(count != null ? count : -1, rows);
+    }
+
+    /**
+     * Drops every loaded window and starts over from a freshly fetched first window
+     */
+    public void reset(FirstWindow<T> first) {
+        cancelLoads();
+        List<T> removed = snapshot();
+        windows.clear();
+        lastRows.clear();
+        size = first.totalRows;
+        storeWindow(0, first.rows);
+
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    /**
+     * Cancels window loads in flight, e.g. when navigating away from the view
+     */
+    public void cancelLoads() {
+        for (Task<List<T>> task : pending.values()) {
+            task.cancel(true);
+        }
+        pending.clear();
+        generation++;
+    }
+
+    /**
+     * Replaces loaded rows with fresh copies of the same rows, e.g. after a status change.
+     * Rows are matched by key. This only works when no row entered or left the list:
+     * if the row count has changed, or a changed row is not loaded (it may have just
+     * started to match, or sit in a window that is not loaded), nothing is replaced and
+     * the list must be reloaded.
+     * @return true if the changes were patched in, false if the list must be reloaded
+     */
+    public boolean patch(Changes<T> changes, Function<? super T, ?> keyOf) {
+        if (changes.totalRows != size) {
+            return false;
+        }
+        Map<Object, T> fresh = new HashMap<>();
+        for (T row : changes.rows) {
+            fresh.put(keyOf.apply(row), row);
+        }
+        Set<Object> loaded = new HashSet<>();
+        for (List<T> rows : windows.values()) {
+            for (T row : rows) {
+                loaded.add(keyOf.apply(row));
+            }
+        }
+        if (!loaded.containsAll(fresh.keySet())) {
+            return false;
+        }
+
+        beginChange();
+        for (Map.Entry<Integer, List<T>> window : windows.entrySet()) {
+            List<T> rows = window.getValue();
+            int start = window.getKey() * windowSize;
+            for (int i = 0; i < rows.size(); i++) {
+                T row = fresh.get(keyOf.apply(rows.get(i)));
+                if (row != null) {
+                    T old = rows.set(i, row);
+                    if (start + i < size) {
+                        nextSet(start + i, old);
+                    }
+                }
+            }
+        }
+        endChange();
+        lastRows.replaceAll((window, row) -> fresh.getOrDefault(keyOf.apply(row), row));
+        return true;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int window = index / windowSize;
+        int position = index % windowSize;
+
+        if (position >= windowSize - windowSize / 4) {
+            prefetch(window + 1);
+        }
+        List<T> rows = windows.get(window);
+        if (rows == null) {
+            request(window);
+            return placeholder;
+        }
+        // A window can come back short if rows were deleted since the count
+        return position < rows.size() ? rows.get(position) : placeholder;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void prefetch(int window) {
+        if (window * (long) windowSize < size && !windows.containsKey(window)) {
+            request(window);
+        }
+    }
+
+    private void request(int window) {
+        if (pending.containsKey(window)) {
+            return;
+        }
+        T after = window > 0 ? lastRows.get(window - 1) : null;
+        int offset = window * windowSize;
+        // A cancelled task can still complete, if it had already returned its rows
+        int requested = generation;
+        Task<List<T>> task = BackgroundExecutor.submit(() -> loader.load(after, offset, windowSize),
+            rows -> windowLoaded(requested, window, rows),
+            error -> {
+                // Left unloaded; the window is requested again the next time one of its rows is read
+                if (requested == generation) {
+                    pending.remove(window);
+                }
+            });
+        pending.put(window, task);
+    }
+
+    private void windowLoaded(int requested, int window, List<T> rows) {
+        if (requested != generation) {
+            return; // Cancelled by a reset
+        }
+        pending.remove(window);
+        storeWindow(window, rows);
+
+        beginChange();
+        Iterator<Map.Entry<Integer, List<T>>> eldest = windows.entrySet().iterator();
+        while (windows.size() > maxWindows) {
+            Map.Entry<Integer, List<T>> evicted = eldest.next();
+            eldest.remove();
+            int start = evicted.getKey() * windowSize;
+            for (int i = 0; i < evicted.getValue().size() && start + i < size; i++) {
+                nextSet(start + i, evicted.getValue().get(i));
+            }
+        }
+        int start = window * windowSize;
+        for (int i = start; i < Math.min(start + windowSize, size); i++) {
+            nextSet(i, placeholder);
+        }
+        endChange();
+    }
+
+    private void storeWindow(int window, List<T> rows) {
+        rows = new ArrayList<>(rows);
+        windows.put(window, rows);
+        if (rows.size() == windowSize) {
+            lastRows.put(window, rows.get(rows.size() - 1));
+        }
+    }
+
+    /**
+     * Current contents as they read now, for the removal event of a reset
+     */
+    private List<T> snapshot() {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        Map<Integer, List<T>> loaded = new HashMap<>(windows);
+        int count = size;
+        return new AbstractList<T>() {
+            @Override
+            public T get(int index) {
+                List<T> rows = loaded.get(index / windowSize);
+                int position = index % windowSize;
+                return rows != null && position < rows.size() ? rows.get(position) : placeholder;
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+}
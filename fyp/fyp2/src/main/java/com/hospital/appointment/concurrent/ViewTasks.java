@@ -0,0 +1,125 @@
+package com.hospital.appointment.concurrent;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * ViewTasks - Per-view handle on BackgroundExecutor
+ * 
+ * Requests are keyed (e.g. "load", "details"). Submitting a new request for a key
+ * cancels the one still in flight, so fast clicking or typing only ever applies the
+ * latest result. All methods must be called on the FX thread.
+ */
+public class ViewTasks {
+    // Pause after the last keystroke before a search runs
+    private static final Duration DEBOUNCE_DELAY = Duration.millis(Integer.getInteger("hms.ui.searchDelayMillis", 250));
+
+    private final Map<String, Task<?>> inFlight = new HashMap<>();
+    private final Map<String, PauseTransition> debounced = new HashMap<>();
+    // Each table's own placeholder, shown again once a load completes
+    private final Map<TableView<?>, Node> placeholders = new HashMap<>();
+
+    /**
+     * Runs work in the background, replacing any request in flight for the same key.
+     * Failures are reported with an error alert.
+     */
+    public <T> Task<T> submit(String key, Callable<T> work, Consumer<T> onSuccess) {
+        return submit(key, work, onSuccess, this::showError);
+    }
+
+    /**
+     * Runs work in the background, replacing any request in flight for the same key.
+     */
+    public <T> Task<T> submit(String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        cancel(key);
+        AtomicReference<Task<T>> task = new AtomicReference<>();
+        task.set(BackgroundExecutor.submit(work,
+            result -> {
+                if (inFlight.remove(key, task.get()) && onSuccess != null) {
+                    onSuccess.accept(result);
+                }
+            },
+            error -> {
+                if (inFlight.remove(key, task.get()) && onFailure != null) {
+                    onFailure.accept(error);
+                }
+            }));
+        inFlight.put(key, task.get());
+        return task.get();
+    }
+
+    /**
+     * Loads table data in the background, showing a loading placeholder until it arrives.
+     */
+    public <T> Task<T> load(String key, TableView<?> table, Callable<T> work, Consumer<T> onSuccess) {
+        // Saved on the first load only: a load that replaces a cancelled one would see "Loading..."
+        if (!placeholders.containsKey(table)) {
+            placeholders.put(table, table.getPlaceholder()); // null for the default placeholder
+        }
+        Node placeholder = placeholders.get(table);
+        table.setPlaceholder(new Label("Loading..."));
+        return submit(key, work,
+            result -> {
+                table.setPlaceholder(placeholder);
+                onSuccess.accept(result);
+            },
+            error -> {
+                table.setPlaceholder(placeholder);
+                showError(error);
+            });
+    }
+
+    /**
+     * Runs an action once calls for the key have paused for -Dhms.ui.searchDelayMillis
+     * (default 250), e.g. a search while the user is still typing. Each call restarts the wait.
+     */
+    public void debounce(String key, Runnable action) {
+        PauseTransition pause = debounced.computeIfAbsent(key, k -> new PauseTransition(DEBOUNCE_DELAY));
+        pause.setOnFinished(e -> action.run());
+        pause.playFromStart();
+    }
+
+    /**
+     * Cancels the request in flight for a key, if any.
+     */
+    public void cancel(String key) {
+        Task<?> previous = inFlight.remove(key);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+    }
+
+    /**
+     * Cancels every request in flight, e.g. when navigating away from the view.
+     */
+    public void cancelAll() {
+        for (PauseTransition pause : debounced.values()) {
+            pause.stop();
+        }
+        debounced.clear();
+        for (Task<?> task : inFlight.values()) {
+            task.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    public boolean isRunning(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    private void showError(Throwable error) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setContentText("Operation failed: " + (error != null ? error.getMessage() : "unknown error"));
+        alert.show();
+    }
+}
@@ -0,0 +1,34 @@
+package com.hospital.appointment.dao;
+
+/**
+ * BlobDAO - Reference counts for files in the content-addressable BlobStore
+ */
+public interface BlobDAO {
+
+    /**
+     * Action run while the blob row is still locked, e.g. deleting the file
+     */
+    interface LastReferenceAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * Add one reference to a blob, creating its row on first use
+     * @return true if recorded
+     */
+    boolean acquire(String blobId, long sizeBytes);
+
+    /**
+     * Drop one reference to a blob. When it was the last one, the row is deleted and
+     * onLastReference runs before the transaction commits, so a concurrent acquire of
+     * the same blob waits and then starts again from an empty slot.
+     * @return Remaining references, or -1 if failed
+     */
+    int release(String blobId, LastReferenceAction onLastReference);
+
+    /**
+     * Current reference count of a blob
+     * @return Reference count, 0 if the blob is unknown, or -1 if failed
+     */
+    int getRefCount(String blobId);
+}
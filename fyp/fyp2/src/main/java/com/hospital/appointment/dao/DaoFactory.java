@@ -0,0 +1,173 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.dao.remote.ApiClient;
+import com.hospital.appointment.dao.remote.RemoteAIReportDAO;
+import com.hospital.appointment.dao.remote.RemoteAppointmentDAO;
+import com.hospital.appointment.dao.remote.RemoteBlobDAO;
+import com.hospital.appointment.dao.remote.RemoteDoctorDAO;
+import com.hospital.appointment.dao.remote.RemoteDoctorDiagnosisDAO;
+import com.hospital.appointment.dao.remote.RemoteInvalidationLogDAO;
+import com.hospital.appointment.dao.remote.RemoteNotificationDAO;
+import com.hospital.appointment.dao.remote.RemoteNurseDAO;
+import com.hospital.appointment.dao.remote.RemotePatientDAO;
+import com.hospital.appointment.dao.remote.RemoteReportSummaryDAO;
+import com.hospital.appointment.dao.remote.RemoteUserDAO;
+import com.hospital.appointment.dao.remote.RemoteWorklistDAO;
+import com.hospital.appointment.dao.remote.RemoteXrayImageDAO;
+import com.hospital.appointment.models.CacheInvalidation;
+
+/**
+ * DaoFactory - Picks the DAO implementations for this app instance
+ *
+ * Every DAO is an interface; the JDBC implementations run against whichever database
+ * -Dhms.db.backend selects (see DatabaseBackend). With -Dhms.server.url set, every DAO
+ * goes to the application server (see ApiServer) instead, and the workstation never
+ * connects to the database: polling, worklist scans and connections no longer grow with
+ * the number of workstations. The inference queue is only worked where the database is
+ * (see InferenceWorker), so it has no remote implementation. The implementations are
+ * stateless and shared.
+ */
+public class DaoFactory {
+    private static DaoFactory instance;
+
+    private final boolean remote;
+    private final UserDAO userDAO;
+    private final PatientDAO patientDAO;
+    private final DoctorDAO doctorDAO;
+    private final NurseDAO nurseDAO;
+    private final AppointmentDAO appointmentDAO;
+    private final XrayImageDAO xrayImageDAO;
+    private final InferenceJobDAO inferenceJobDAO;
+    private final AIReportDAO aiReportDAO;
+    private final DoctorDiagnosisDAO doctorDiagnosisDAO;
+    private final ReportSummaryDAO reportSummaryDAO;
+    private final BlobDAO blobDAO;
+    private final WorklistDAO worklistDAO;
+    private final NotificationDAO notificationDAO;
+    private final InvalidationLogDAO invalidationLogDAO;
+
+    private DaoFactory() {
+        this.remote = ApiClient.isConfigured();
+        if (remote) {
+            this.userDAO = new RemoteUserDAO();
+            this.patientDAO = new RemotePatientDAO();
+            this.doctorDAO = new RemoteDoctorDAO();
+            this.nurseDAO = new RemoteNurseDAO();
+            this.appointmentDAO = new RemoteAppointmentDAO();
+            this.xrayImageDAO = new RemoteXrayImageDAO();
+            this.inferenceJobDAO = null;
+            this.aiReportDAO = new RemoteAIReportDAO();
+            this.doctorDiagnosisDAO = new RemoteDoctorDiagnosisDAO();
+            this.reportSummaryDAO = new RemoteReportSummaryDAO();
+            this.blobDAO = new RemoteBlobDAO();
+            this.worklistDAO = new RemoteWorklistDAO();
+            this.notificationDAO = new RemoteNotificationDAO();
+            this.invalidationLogDAO = new RemoteInvalidationLogDAO();
+        } else {
+            this.userDAO = new JdbcUserDAO();
+            this.patientDAO = new JdbcPatientDAO();
+            this.doctorDAO = new JdbcDoctorDAO();
+            this.nurseDAO = new JdbcNurseDAO();
+            this.appointmentDAO = new JdbcAppointmentDAO();
+            this.xrayImageDAO = new JdbcXrayImageDAO();
+            this.inferenceJobDAO = new JdbcInferenceJobDAO();
+            this.aiReportDAO = new JdbcAIReportDAO();
+            this.doctorDiagnosisDAO = new JdbcDoctorDiagnosisDAO();
+            this.reportSummaryDAO = new JdbcReportSummaryDAO();
+            this.blobDAO = new JdbcBlobDAO();
+            this.worklistDAO = new JdbcWorklistDAO();
+            this.notificationDAO = new JdbcNotificationDAO();
+            this.invalidationLogDAO = new JdbcInvalidationLogDAO();
+        }
+    }
+
+    public static synchronized DaoFactory getInstance() {
+        if (instance == null) {
+            instance = new DaoFactory();
+        }
+        return instance;
+    }
+
+    /**
+     * Keeps the entity caches of the profile DAOs in step with profiles written by other
+     * app instances. Called once at startup; not from a DAO, since InvalidationPoller itself
+     * needs the DaoFactory. A client of an application server has no entity caches; the
+     * server keeps them.
+     */
+    public void subscribeCaches() {
+        if (remote) {
+            return;
+        }
+        InvalidationPoller poller = InvalidationPoller.getInstance();
+        poller.subscribe(CacheInvalidation.ENTITY_PATIENT, JdbcPatientDAO::invalidate);
+        poller.subscribe(CacheInvalidation.ENTITY_DOCTOR, JdbcDoctorDAO::invalidate);
+        poller.subscribe(CacheInvalidation.ENTITY_NURSE, JdbcNurseDAO::invalidate);
+    }
+
+    /**
+     * Whether this instance is a client of an application server
+     */
+    public boolean isRemote() {
+        return remote;
+    }
+
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    public PatientDAO getPatientDAO() {
+        return patientDAO;
+    }
+
+    public DoctorDAO getDoctorDAO() {
+        return doctorDAO;
+    }
+
+    public NurseDAO getNurseDAO() {
+        return nurseDAO;
+    }
+
+    public AppointmentDAO getAppointmentDAO() {
+        return appointmentDAO;
+    }
+
+    public XrayImageDAO getXrayImageDAO() {
+        return xrayImageDAO;
+    }
+
+    /**
+     * @return The inference queue, or null on an application server client
+     */
+    public InferenceJobDAO getInferenceJobDAO() {
+        return inferenceJobDAO;
+    }
+
+    public AIReportDAO getAIReportDAO() {
+        return aiReportDAO;
+    }
+
+    public DoctorDiagnosisDAO getDoctorDiagnosisDAO() {
+        return doctorDiagnosisDAO;
+    }
+
+    public ReportSummaryDAO getReportSummaryDAO() {
+        return reportSummaryDAO;
+    }
+
+    public BlobDAO getBlobDAO() {
+        return blobDAO;
+    }
+
+    public WorklistDAO getWorklistDAO() {
+        return worklistDAO;
+    }
+
+    public NotificationDAO getNotificationDAO() {
+        return notificationDAO;
+    }
+
+    public InvalidationLogDAO getInvalidationLogDAO() {
+        return invalidationLogDAO;
+    }
+}
@@ -0,0 +1,158 @@
+package com.hospital.appointment.dao;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * EntityCache - Read-through cache for DAO lookups by id
+ *
+ * Looked-up rows are kept in least-recently-used order, bounded by -Dhms.cache.entitySize
+ * (default 1000) entries per cache, and reloaded once older than -Dhms.cache.ttlSeconds
+ * (default 300). DAO writes in this instance invalidate the affected keys straight away;
+ * writes by other app instances arrive through the invalidation log (see
+ * DaoFactory.subscribeCaches), and the TTL bounds anything the log misses.
+ * Missing rows (null) are not cached, so a record created later is found immediately.
+ *
+ * Cached values are shared between callers and must be treated as read-only.
+ * Thread-safe; the loader runs outside the lock.
+ */
+public class EntityCache<K, V> {
+    private static final Logger logger = Logger.getLogger(EntityCache.class.getName());
+    private static final int MAX_ENTRIES = Math.max(1, Integer.getInteger("hms.cache.entitySize", 1000));
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(Math.max(0, Long.getLong("hms.cache.ttlSeconds", 300)));
+    private static final List<EntityCache<?, ?>> ALL = new ArrayList<>();
+
+    private final String name;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Bumped by every invalidation, so a load that raced one is not cached
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Creates a cache configured by system properties
+     * @param name Shown in statistics, e.g. "patients by user_id"
+     */
+    public EntityCache(String name) {
+        this.name = name;
+        // Access order makes iteration order least-recently-used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > MAX_ENTRIES) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        synchronized (ALL) {
+            ALL.add(this);
+        }
+    }
+
+    /**
+     * Returns the cached value for a key, or loads and caches it
+     * @param loader Reads the value from the database; may return null if there is none
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt < TTL_NANOS) {
+                hits++;
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        long loadedAt = System.nanoTime();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, loadedAt));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops a key, e.g. after the row it caches was written
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        generation++;
+    }
+
+    /**
+     * Drops every entry whose value matches, e.g. the rows of changed ids in a cache keyed otherwise
+     */
+    public synchronized void invalidateIf(Predicate<V> stale) {
+        entries.values().removeIf(entry -> stale.test(entry.value));
+        generation++;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("%s: %d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+            name, entries.size(), hits, misses, lookups > 0 ? 100.0 * hits / lookups : 0.0, evictions);
+    }
+
+    /**
+     * Logs the statistics of every entity cache, e.g. on shutdown
+     */
+    public static void logStatistics() {
+        synchronized (ALL) {
+            for (EntityCache<?, ?> cache : ALL) {
+                logger.info(cache.toString());
+            }
+        }
+    }
+}
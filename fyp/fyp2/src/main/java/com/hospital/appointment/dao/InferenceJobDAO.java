@@ -0,0 +1,59 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.models.InferenceJob;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * InferenceJobDAO - Persistent queue of X-ray images waiting for AI analysis
+ */
+public interface InferenceJobDAO {
+
+    /**
+     * Queue an image for analysis
+     * @return Generated job_id, or -1 if failed
+     */
+    int create(int imageId);
+
+    /**
+     * Claim up to limit jobs that are due, oldest first, leasing them to a worker
+     * @param claimedBy Worker that will process the jobs
+     * @param leaseUntil When the jobs may be requeued if the worker has not finished them
+     * @return Claimed jobs, now in RUNNING status
+     */
+    List<InferenceJob> claimDue(int limit, String claimedBy, LocalDateTime leaseUntil);
+
+    /**
+     * Mark a job as finished, if it is still RUNNING under claimedBy's lease
+     */
+    boolean markDone(int jobId, String claimedBy);
+
+    /**
+     * Complete analyzed jobs in one transaction: each job still RUNNING under claimedBy's
+     * lease is marked done, its report is saved and its appointment moves to UPLOADED.
+     * Jobs requeued and claimed by another worker meanwhile are left to that worker.
+     * @param reports Report of each job, in the order of jobIds
+     * @param appointmentIds Appointment of each job's image, in the order of jobIds
+     * @return Ids of the jobs completed, or null if failed
+     */
+    List<Integer> complete(List<Integer> jobIds, String claimedBy, List<AIReport> reports, List<Integer> appointmentIds);
+
+    /**
+     * Put a failed job back in the queue to be retried at nextAttemptAt, if it is still
+     * RUNNING under claimedBy's lease
+     */
+    boolean scheduleRetry(int jobId, String claimedBy, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Give up on a job after its last attempt, if it is still RUNNING under claimedBy's lease
+     */
+    boolean markFailed(int jobId, String claimedBy, String error);
+
+    /**
+     * Return RUNNING jobs whose lease has expired (e.g. their worker's app was closed
+     * mid-analysis) to the queue
+     * @return Number of jobs requeued
+     */
+    int requeueExpired();
+}
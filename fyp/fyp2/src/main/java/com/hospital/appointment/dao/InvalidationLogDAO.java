@@ -0,0 +1,30 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.models.CacheInvalidation;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * InvalidationLogDAO - Reading the cache_invalidations log (see JdbcInvalidationLogDAO,
+ * which also appends to it)
+ */
+public interface InvalidationLogDAO {
+
+    /**
+     * Find the newest version in the log
+     * @return Latest version, 0 if the log is empty, or -1 on error
+     */
+    long findLatestVersion();
+
+    /**
+     * Find entries after a version, oldest first
+     * @return Up to limit entries, or null on error
+     */
+    List<CacheInvalidation> findAfter(long version, int limit);
+
+    /**
+     * Delete entries written before a cutoff
+     * @return Number of entries deleted, or -1 on error
+     */
+    int deleteOlderThan(LocalDateTime cutoff);
+}
@@ -0,0 +1,243 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.models.CacheInvalidation;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcAIReportDAO implements AIReportDAO {
+    private static final Logger logger = Logger.getLogger(JdbcAIReportDAO.class.getName());
+
+    private final JdbcNotificationDAO notificationDAO = new JdbcNotificationDAO();
+    private final JdbcInvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+
+    /**
+     * Create new AI report, logging it to the invalidation log in the same transaction
+     * @return Generated report_id, or -1 if failed
+     */
+    @Override
+    public int create(AIReport report) {
+        String sql = "INSERT INTO ai_reports (image_id, prediction, confidence_score, generated_at) VALUES (?, ?, ?, ?)";
+
+        try {
+            return UnitOfWork.run(conn -> {
+                int reportId;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, report.getImageId());
+                    pstmt.setString(2, report.getPrediction());
+                    pstmt.setObject(3, report.getConfidenceScore());
+                    pstmt.setTimestamp(4, Timestamp.valueOf(report.getGeneratedAt()));
+
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for AI report");
+                        }
+                        reportId = generatedKeys.getInt(1);
+                    }
+                }
+                invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_REPORT, reportId);
+                return reportId;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating AI report", e);
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Create several AI reports as one batch on a caller's transaction, logging them
+     * to the invalidation log on the same transaction
+     * @throws SQLException if any insert fails
+     */
+    public void createAll(Connection conn, List<AIReport> reports) throws SQLException {
+        String sql = "INSERT INTO ai_reports (image_id, prediction, confidence_score, generated_at) VALUES (?, ?, ?, ?)";
+
+        List<Integer> reportIds = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (AIReport report : reports) {
+                pstmt.setInt(1, report.getImageId());
+                pstmt.setString(2, report.getPrediction());
+                pstmt.setObject(3, report.getConfidenceScore());
+                pstmt.setTimestamp(4, Timestamp.valueOf(report.getGeneratedAt()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    reportIds.add(generatedKeys.getInt(1));
+                }
+            }
+        }
+        invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_REPORT, reportIds);
+    }
+
+    /**
+     * Find AI report by image_id
+     */
+    @Override
+    public AIReport findByImageId(int imageId) {
+        String sql = "SELECT * FROM ai_reports WHERE image_id = ? ORDER BY generated_at DESC LIMIT 1";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, imageId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToAIReport(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding AI report by image id", e);
+        }
+        return null;
+    }
+
+    /**
+     * Find AI report by report_id
+     */
+    @Override
+    public AIReport findById(int reportId) {
+        String sql = "SELECT * FROM ai_reports WHERE report_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, reportId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToAIReport(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding AI report by id", e);
+        }
+        return null;
+    }
+
+    /**
+     * Find all AI reports for appointments
+     */
+    @Override
+    public List<AIReport> findByAppointmentId(int appointmentId) {
+        List<AIReport> reports = new ArrayList<>();
+        String sql = "SELECT ar.* FROM ai_reports ar " +
+                     "INNER JOIN xray_images xi ON ar.image_id = xi.image_id " +
+                     "WHERE xi.appointment_id = ? " +
+                     "ORDER BY ar.generated_at DESC";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, appointmentId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    reports.add(mapResultSetToAIReport(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding AI reports by appointment id", e);
+        }
+        return reports;
+    }
+
+    /**
+     * Find all visible AI reports for appointments (for patients)
+     */
+    @Override
+    public List<AIReport> findVisibleByAppointmentId(int appointmentId) {
+        List<AIReport> reports = new ArrayList<>();
+        String sql = "SELECT ar.* FROM ai_reports ar " +
+                     "INNER JOIN xray_images xi ON ar.image_id = xi.image_id " +
+                     "WHERE xi.appointment_id = ? AND ar.is_visible = 1 " +
+                     "ORDER BY ar.generated_at DESC";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, appointmentId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    reports.add(mapResultSetToAIReport(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding visible AI reports by appointment id", e);
+        }
+        return reports;
+    }
+
+    /**
+     * Update is_visible status for a report. Releasing a hidden report to the patient
+     * also notifies them, in the same transaction.
+     */
+    @Override
+    public boolean updateIsVisible(int reportId, boolean isVisible) {
+        String select = "SELECT is_visible FROM ai_reports WHERE report_id = ? FOR UPDATE";
+        String sql = "UPDATE ai_reports SET is_visible = ? WHERE report_id = ?";
+        
+        try {
+            return UnitOfWork.run(conn -> {
+                boolean wasVisible;
+                try (PreparedStatement query = conn.prepareStatement(select)) {
+                    query.setInt(1, reportId);
+                    try (ResultSet rs = query.executeQuery()) {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        wasVisible = rs.getBoolean(1);
+                    }
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setBoolean(1, isVisible);
+                    pstmt.setInt(2, reportId);
+                    pstmt.executeUpdate();
+                }
+                if (isVisible && !wasVisible) {
+                    notificationDAO.notifyReportReleased(conn, reportId);
+                }
+                invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_REPORT, reportId);
+                return true;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error updating is_visible status", e);
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Map ResultSet to AIReport object
+     */
+    private AIReport mapResultSetToAIReport(ResultSet rs) throws SQLException {
+        AIReport report = new AIReport();
+        report.setReportId(rs.getInt("report_id"));
+        report.setImageId(rs.getInt("image_id"));
+        report.setPrediction(rs.getString("prediction"));
+        Double confidence = rs.getObject("confidence_score") != null ? rs.getDouble("confidence_score") : null;
+        report.setConfidenceScore(confidence);
+        Timestamp generatedAt = rs.getTimestamp("generated_at");
+        if (generatedAt != null) {
+            report.setGeneratedAt(generatedAt.toLocalDateTime());
+        }
+        // Handle is_visible field - use getBoolean and default to false if column doesn't exist
+        try {
+            report.setVisible(rs.getBoolean("is_visible"));
+        } catch (SQLException e) {
+            // Column might not exist in older database schemas, default to false
+            report.setVisible(false);
+        }
+        return report;
+    }
+}
+
@@ -0,0 +1,186 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.CacheInvalidation;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcAppointmentDAO implements AppointmentDAO {
+    private static final Logger logger = Logger.getLogger(JdbcAppointmentDAO.class.getName());
+
+    private final JdbcNotificationDAO notificationDAO = new JdbcNotificationDAO();
+    private final JdbcInvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+
+    /**
+     * Create new appointment, logged for other workstations on the same transaction
+     * @return Generated appointment_id, or -1 if failed
+     */
+    @Override
+    public int create(Appointment appointment) {
+        String sql = "INSERT INTO appointments (patient_id, appointment_date, appointment_time, status) VALUES (?, ?, ?, ?)";
+
+        try {
+            return UnitOfWork.run(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, appointment.getPatientId());
+                    pstmt.setDate(2, Date.valueOf(appointment.getAppointmentDate()));
+                    pstmt.setTime(3, Time.valueOf(appointment.getAppointmentTime()));
+                    pstmt.setString(4, appointment.getStatus().name());
+
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for appointment");
+                        }
+                        int appointmentId = generatedKeys.getInt(1);
+                        invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_APPOINTMENT, appointmentId);
+                        return appointmentId;
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating appointment", e);
+        }
+        return -1;
+    }
+
+    /**
+     * Condition selecting the rows after a keyset position in newest-first order.
+     * Written out rather than as a row comparison so the index range is used on every database.
+     * @param alias Table alias with its dot (e.g. "a."), or "" for none
+     */
+    static String keysetCondition(String alias) {
+        return "(" + alias + "appointment_date < ? OR (" + alias + "appointment_date = ? AND (" +
+               alias + "appointment_time < ? OR (" + alias + "appointment_time = ? AND " +
+               alias + "appointment_id < ?))))";
+    }
+
+    /**
+     * Binds the parameters of keysetCondition, if after is set
+     * @return Index of the next parameter
+     */
+    static int bindKeyset(PreparedStatement pstmt, int index, Appointment after) throws SQLException {
+        if (after == null) {
+            return index;
+        }
+        Date date = Date.valueOf(after.getAppointmentDate());
+        Time time = Time.valueOf(after.getAppointmentTime());
+        pstmt.setDate(index++, date);
+        pstmt.setDate(index++, date);
+        pstmt.setTime(index++, time);
+        pstmt.setTime(index++, time);
+        pstmt.setInt(index++, after.getAppointmentId());
+        return index;
+    }
+
+    /**
+     * Find appointments by patient_id
+     */
+    @Override
+    public List<Appointment> findByPatientId(int patientId) {
+        List<Appointment> appointments = new ArrayList<>();
+        String sql = "SELECT * FROM appointments WHERE patient_id = ? ORDER BY appointment_date DESC, appointment_time DESC";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, patientId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapResultSetToAppointment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding appointments by patient id", e);
+        }
+        return appointments;
+    }
+
+    /**
+     * Find appointment by appointment_id
+     */
+    @Override
+    public Appointment findById(int appointmentId) {
+        String sql = "SELECT * FROM appointments WHERE appointment_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, appointmentId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToAppointment(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding appointment by id", e);
+        }
+        return null;
+    }
+
+    /**
+     * Update appointment status and notify the patient, in one transaction
+     */
+    @Override
+    public void updateStatus(int appointmentId, Appointment.Status status) {
+        try {
+            UnitOfWork.run(conn -> {
+                updateStatus(conn, Collections.singletonList(appointmentId), status);
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error updating appointment status", e);
+        }
+    }
+
+    /**
+     * Update the status of several appointments as one batch on a caller's transaction.
+     * Patients are notified of the change and other workstations are told which rows
+     * changed on the same transaction (see JdbcNotificationDAO and JdbcInvalidationLogDAO).
+     * @throws SQLException if any update fails
+     */
+    public void updateStatus(Connection conn, Collection<Integer> appointmentIds, Appointment.Status status) throws SQLException {
+        String sql = "UPDATE appointments SET status = ? WHERE appointment_id = ?";
+
+        notificationDAO.notifyAppointmentStatus(conn, appointmentIds, status);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int appointmentId : appointmentIds) {
+                pstmt.setString(1, status.name());
+                pstmt.setInt(2, appointmentId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_APPOINTMENT, appointmentIds);
+    }
+
+    /**
+     * Map ResultSet to Appointment object
+     */
+    static Appointment mapResultSetToAppointment(ResultSet rs) throws SQLException {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(rs.getInt("appointment_id"));
+        appointment.setPatientId(rs.getInt("patient_id"));
+        appointment.setAppointmentDate(rs.getDate("appointment_date").toLocalDate());
+        appointment.setAppointmentTime(rs.getTime("appointment_time").toLocalTime());
+        appointment.setStatus(Appointment.Status.valueOf(rs.getString("status")));
+        try {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            appointment.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        } catch (SQLException e) {
+            // Column might not exist in older database schemas
+            appointment.setUpdatedAt(null);
+        }
+        return appointment;
+    }
+}
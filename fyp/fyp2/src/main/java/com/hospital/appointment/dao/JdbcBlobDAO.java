@@ -0,0 +1,108 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import java.sql.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JdbcBlobDAO - Reference counts for files in the content-addressable BlobStore
+ */
+public class JdbcBlobDAO implements BlobDAO {
+    private static final Logger logger = Logger.getLogger(JdbcBlobDAO.class.getName());
+
+    /**
+     * Add one reference to a blob, creating its row on first use
+     * @return true if recorded
+     */
+    @Override
+    public boolean acquire(String blobId, long sizeBytes) {
+        String sql = "INSERT INTO blobs (blob_id, size_bytes, ref_count) VALUES (?, ?, 1) " +
+                     "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, blobId);
+            pstmt.setLong(2, sizeBytes);
+            pstmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error acquiring blob reference", e);
+        }
+        return false;
+    }
+
+    /**
+     * Drop one reference to a blob. When it was the last one, the row is deleted and
+     * onLastReference runs before the transaction commits, so a concurrent acquire of
+     * the same blob waits and then starts again from an empty slot.
+     * @return Remaining references, or -1 if failed
+     */
+    @Override
+    public int release(String blobId, LastReferenceAction onLastReference) {
+        String selectSql = "SELECT ref_count FROM blobs WHERE blob_id = ? FOR UPDATE";
+        String decrementSql = "UPDATE blobs SET ref_count = ref_count - 1 WHERE blob_id = ?";
+        String deleteSql = "DELETE FROM blobs WHERE blob_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
+                selectStmt.setString(1, blobId);
+                int refCount;
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return 0;
+                    }
+                    refCount = rs.getInt("ref_count");
+                }
+
+                if (refCount > 1) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(decrementSql)) {
+                        pstmt.setString(1, blobId);
+                        pstmt.executeUpdate();
+                    }
+                    conn.commit();
+                    return refCount - 1;
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(deleteSql)) {
+                    pstmt.setString(1, blobId);
+                    pstmt.executeUpdate();
+                }
+                if (onLastReference != null) {
+                    onLastReference.run();
+                }
+                conn.commit();
+                return 0;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error releasing blob reference", e);
+        }
+        return -1;
+    }
+
+    /**
+     * Current reference count of a blob
+     * @return Reference count, 0 if the blob is unknown, or -1 if failed
+     */
+    @Override
+    public int getRefCount(String blobId) {
+        String sql = "SELECT ref_count FROM blobs WHERE blob_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, blobId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt("ref_count") : 0;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error reading blob reference count", e);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.CacheInvalidation;
+import com.hospital.appointment.models.Doctor;
+import java.sql.*;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcDoctorDAO implements DoctorDAO {
+    private static final Logger logger = Logger.getLogger(JdbcDoctorDAO.class.getName());
+
+    // Shared by every instance, not only the one DaoFactory hands out
+    private static final EntityCache<Integer, Integer> doctorIdByUserId = new EntityCache<>("doctor_id by user_id");
+
+    private final JdbcInvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+
+    /**
+     * Create new doctor record, logged for other workstations on the same transaction
+     * @return Generated doctor_id, or -1 if failed
+     */
+    @Override
+    public int createDoctor(Doctor doctor) {
+        String sql = "INSERT INTO doctors (user_id, specialization, license_number, department) VALUES (?, ?, ?, ?)";
+        
+        try {
+            int doctorId = UnitOfWork.run(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, doctor.getUserId());
+                    pstmt.setString(2, doctor.getSpecialization());
+                    pstmt.setString(3, doctor.getLicenseNumber());
+                    pstmt.setString(4, doctor.getDepartment());
+
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for doctor");
+                        }
+                        int id = generatedKeys.getInt(1);
+                        invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_DOCTOR, id);
+                        return id;
+                    }
+                }
+            });
+            doctorIdByUserId.invalidate(doctor.getUserId());
+            return doctorId;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating doctor", e);
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Find doctor_id by user_id (cached)
+     */
+    @Override
+    public Integer findDoctorIdByUserId(int userId) {
+        return doctorIdByUserId.get(userId, this::loadDoctorIdByUserId);
+    }
+
+    /**
+     * Drops cached doctor_ids written by any app instance (see InvalidationPoller)
+     */
+    static void invalidate(Set<Integer> doctorIds) {
+        doctorIdByUserId.invalidateIf(doctorIds::contains);
+    }
+
+    private Integer loadDoctorIdByUserId(int userId) {
+        String sql = "SELECT doctor_id FROM doctors WHERE user_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("doctor_id");
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding doctor_id by user_id", e);
+        }
+        return null;
+    }
+}
+
@@ -0,0 +1,283 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.InferenceJob;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JdbcInferenceJobDAO - Persistent queue of X-ray images waiting for AI analysis
+ *
+ * Jobs are claimed with a conditional UPDATE (PENDING -> RUNNING), so a job is only
+ * ever processed by one worker even when several workers or app instances poll the table.
+ * A claim is a lease: it records the worker in claimed_by and expires at lease_until, after
+ * which requeueExpired() hands the job to another worker. A worker can only complete, retry
+ * or fail a job while it still holds the lease.
+ */
+public class JdbcInferenceJobDAO implements InferenceJobDAO {
+    private static final Logger logger = Logger.getLogger(JdbcInferenceJobDAO.class.getName());
+
+    // Appended to the WHERE clause of every update a worker makes to a job it claimed
+    private static final String HELD_BY = " AND status = 'RUNNING' AND claimed_by = ?";
+
+    private final JdbcAIReportDAO aiReportDAO = new JdbcAIReportDAO();
+    private final JdbcAppointmentDAO appointmentDAO = new JdbcAppointmentDAO();
+
+    /**
+     * Queue an image for analysis
+     * @return Generated job_id, or -1 if failed
+     */
+    @Override
+    public int create(int imageId) {
+        String sql = "INSERT INTO inference_jobs (image_id, status, attempts, next_attempt_at) VALUES (?, 'PENDING', 0, ?)";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, imageId);
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating inference job", e);
+        }
+        return -1;
+    }
+
+    /**
+     * Queue several images as one batch on a caller's transaction
+     * @throws SQLException if any insert fails
+     */
+    public static void createAll(Connection conn, int[] imageIds) throws SQLException {
+        String sql = "INSERT INTO inference_jobs (image_id, status, attempts, next_attempt_at) VALUES (?, 'PENDING', 0, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int imageId : imageIds) {
+                pstmt.setInt(1, imageId);
+                pstmt.setTimestamp(2, now);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Claim up to limit jobs that are due, oldest first, leasing them to a worker
+     * @param claimedBy Worker that will process the jobs
+     * @param leaseUntil When the jobs may be requeued if the worker has not finished them
+     * @return Claimed jobs, now in RUNNING status
+     */
+    @Override
+    public List<InferenceJob> claimDue(int limit, String claimedBy, LocalDateTime leaseUntil) {
+        List<InferenceJob> claimed = new ArrayList<>();
+        String selectSql = "SELECT * FROM inference_jobs WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+                           "ORDER BY next_attempt_at, job_id LIMIT ?";
+        String claimSql = "UPDATE inference_jobs SET status = 'RUNNING', claimed_by = ?, lease_until = ? " +
+                          "WHERE job_id = ? AND status = 'PENDING'";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement selectStmt = conn.prepareStatement(selectSql);
+             PreparedStatement claimStmt = conn.prepareStatement(claimSql)) {
+            selectStmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            selectStmt.setInt(2, limit);
+
+            List<InferenceJob> due = new ArrayList<>();
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                while (rs.next()) {
+                    due.add(mapResultSetToInferenceJob(rs));
+                }
+            }
+
+            claimStmt.setString(1, claimedBy);
+            claimStmt.setTimestamp(2, Timestamp.valueOf(leaseUntil));
+            for (InferenceJob job : due) {
+                claimStmt.setInt(3, job.getJobId());
+                // Another worker may have claimed it between the SELECT and this UPDATE
+                if (claimStmt.executeUpdate() > 0) {
+                    job.setStatus(InferenceJob.Status.RUNNING);
+                    job.setClaimedBy(claimedBy);
+                    job.setLeaseUntil(leaseUntil);
+                    claimed.add(job);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error claiming inference jobs", e);
+        }
+        return claimed;
+    }
+
+    /**
+     * Mark a job as finished, if it is still RUNNING under claimedBy's lease
+     */
+    @Override
+    public boolean markDone(int jobId, String claimedBy) {
+        String sql = "UPDATE inference_jobs SET status = 'DONE', attempts = attempts + 1, last_error = NULL, lease_until = NULL " +
+                     "WHERE job_id = ?" + HELD_BY;
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, jobId);
+            pstmt.setString(2, claimedBy);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error marking inference job done", e);
+        }
+        return false;
+    }
+
+    /**
+     * Complete analyzed jobs in one transaction, so a crash can never leave a report
+     * without its finished job, and a job that lost its lease never gets a second report
+     * @return Ids of the jobs completed, or null if failed
+     */
+    @Override
+    public List<Integer> complete(List<Integer> jobIds, String claimedBy, List<AIReport> reports, List<Integer> appointmentIds) {
+        try {
+            return UnitOfWork.run(conn -> {
+                List<Integer> done = markDone(conn, jobIds, claimedBy);
+                List<AIReport> doneReports = new ArrayList<>();
+                Set<Integer> doneAppointmentIds = new LinkedHashSet<>();
+                for (int i = 0; i < jobIds.size(); i++) {
+                    if (done.contains(jobIds.get(i))) {
+                        doneReports.add(reports.get(i));
+                        doneAppointmentIds.add(appointmentIds.get(i));
+                    }
+                }
+                aiReportDAO.createAll(conn, doneReports);
+                appointmentDAO.updateStatus(conn, doneAppointmentIds, Appointment.Status.UPLOADED);
+                return done;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error completing inference jobs", e);
+        }
+        return null;
+    }
+
+    /**
+     * Mark several jobs as done on a caller's transaction. Jobs that are no longer RUNNING
+     * under claimedBy's lease (requeued and claimed by another worker) are left alone.
+     * @return Ids of the jobs marked done
+     * @throws SQLException if any update fails
+     */
+    private List<Integer> markDone(Connection conn, List<Integer> jobIds, String claimedBy) throws SQLException {
+        String sql = "UPDATE inference_jobs SET status = 'DONE', attempts = attempts + 1, last_error = NULL, lease_until = NULL " +
+                     "WHERE job_id = ?" + HELD_BY;
+
+        List<Integer> done = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(2, claimedBy);
+            // One update per job rather than a batch: each job's own row count says whether it was still held
+            for (int jobId : jobIds) {
+                pstmt.setInt(1, jobId);
+                if (pstmt.executeUpdate() > 0) {
+                    done.add(jobId);
+                }
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Put a failed job back in the queue to be retried at nextAttemptAt, if it is still
+     * RUNNING under claimedBy's lease
+     */
+    @Override
+    public boolean scheduleRetry(int jobId, String claimedBy, LocalDateTime nextAttemptAt, String error) {
+        String sql = "UPDATE inference_jobs SET status = 'PENDING', attempts = attempts + 1, next_attempt_at = ?, last_error = ?, " +
+                     "claimed_by = NULL, lease_until = NULL WHERE job_id = ?" + HELD_BY;
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(nextAttemptAt));
+            pstmt.setString(2, error);
+            pstmt.setInt(3, jobId);
+            pstmt.setString(4, claimedBy);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error scheduling inference job retry", e);
+        }
+        return false;
+    }
+
+    /**
+     * Give up on a job after its last attempt, if it is still RUNNING under claimedBy's lease
+     */
+    @Override
+    public boolean markFailed(int jobId, String claimedBy, String error) {
+        String sql = "UPDATE inference_jobs SET status = 'FAILED', attempts = attempts + 1, last_error = ?, lease_until = NULL " +
+                     "WHERE job_id = ?" + HELD_BY;
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, error);
+            pstmt.setInt(2, jobId);
+            pstmt.setString(3, claimedBy);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error marking inference job failed", e);
+        }
+        return false;
+    }
+
+    /**
+     * Return RUNNING jobs whose lease has expired (e.g. their worker's app was closed
+     * mid-analysis) to the queue. Jobs claimed before leases existed have no lease_until
+     * and count as expired.
+     * @return Number of jobs requeued
+     */
+    @Override
+    public int requeueExpired() {
+        String sql = "UPDATE inference_jobs SET status = 'PENDING', claimed_by = NULL, lease_until = NULL " +
+                     "WHERE status = 'RUNNING' AND (lease_until IS NULL OR lease_until < ?)";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            return pstmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error requeueing running inference jobs", e);
+        }
+        return 0;
+    }
+
+    /**
+     * Map ResultSet to InferenceJob object
+     */
+    private InferenceJob mapResultSetToInferenceJob(ResultSet rs) throws SQLException {
+        InferenceJob job = new InferenceJob();
+        job.setJobId(rs.getInt("job_id"));
+        job.setImageId(rs.getInt("image_id"));
+        job.setStatus(InferenceJob.Status.valueOf(rs.getString("status")));
+        job.setAttempts(rs.getInt("attempts"));
+        Timestamp nextAttemptAt = rs.getTimestamp("next_attempt_at");
+        if (nextAttemptAt != null) {
+            job.setNextAttemptAt(nextAttemptAt.toLocalDateTime());
+        }
+        job.setLastError(rs.getString("last_error"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            job.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        job.setClaimedBy(rs.getString("claimed_by"));
+        Timestamp leaseUntil = rs.getTimestamp("lease_until");
+        if (leaseUntil != null) {
+            job.setLeaseUntil(leaseUntil.toLocalDateTime());
+        }
+        return job;
+    }
+}
@@ -0,0 +1,117 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.models.CacheInvalidation;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JdbcInvalidationLogDAO - Append-only log of changed rows, tailed by every app instance
+ *
+ * Each entry names an entity type and id; its version is the log's auto-increment key,
+ * so entries are read back in the order they were written. Writers append on their own
+ * transaction so an entry becomes visible exactly when the change it announces does.
+ */
+public class JdbcInvalidationLogDAO implements InvalidationLogDAO {
+    private static final Logger logger = Logger.getLogger(JdbcInvalidationLogDAO.class.getName());
+
+    /**
+     * Record that rows of an entity type changed, on the caller's transaction
+     * @throws SQLException if the insert fails
+     */
+    public void append(Connection conn, String entityType, Collection<Integer> entityIds) throws SQLException {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO cache_invalidations (entity_type, entity_id) VALUES (?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int entityId : entityIds) {
+                pstmt.setString(1, entityType);
+                pstmt.setInt(2, entityId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Record that one row changed, on the caller's transaction
+     * @throws SQLException if the insert fails
+     */
+    public void append(Connection conn, String entityType, int entityId) throws SQLException {
+        append(conn, entityType, Collections.singletonList(entityId));
+    }
+
+    /**
+     * Find the newest version in the log
+     * @return Latest version, 0 if the log is empty, or -1 on error
+     */
+    @Override
+    public long findLatestVersion() {
+        String sql = "SELECT COALESCE(MAX(version), 0) FROM cache_invalidations";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding latest invalidation version", e);
+        }
+        return -1;
+    }
+
+    /**
+     * Find entries after a version, oldest first
+     * @return Up to limit entries, or null on error
+     */
+    @Override
+    public List<CacheInvalidation> findAfter(long version, int limit) {
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        String sql = "SELECT version, entity_type, entity_id FROM cache_invalidations " +
+                     "WHERE version > ? ORDER BY version LIMIT ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, version);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    invalidations.add(new CacheInvalidation(rs.getLong("version"),
+                        rs.getString("entity_type"), rs.getInt("entity_id")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding invalidations", e);
+            return null;
+        }
+        return invalidations;
+    }
+
+    /**
+     * Delete entries written before a cutoff
+     * @return Number of entries deleted, or -1 on error
+     */
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        String sql = "DELETE FROM cache_invalidations WHERE created_at < ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return pstmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error deleting old invalidations", e);
+        }
+        return -1;
+    }
+}
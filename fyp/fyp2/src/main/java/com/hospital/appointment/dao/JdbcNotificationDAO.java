@@ -0,0 +1,241 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.Notification;
+import java.sql.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JdbcNotificationDAO - Messages for patients, written alongside the change they announce
+ *
+ * The notify methods take the caller's connection so a notification commits or rolls
+ * back together with the status change or report release that caused it.
+ */
+public class JdbcNotificationDAO implements NotificationDAO {
+    private static final Logger logger = Logger.getLogger(JdbcNotificationDAO.class.getName());
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (user_id, message, notification_type, status) VALUES (?, ?, ?, 'SENT')";
+
+    /**
+     * Notify the patients of appointments that are about to change to a new status.
+     * Call before the update: appointments already in that status are skipped, so
+     * repeating a status change does not notify twice.
+     * @throws SQLException if a query fails
+     */
+    public void notifyAppointmentStatus(Connection conn, Collection<Integer> appointmentIds, Appointment.Status status) throws SQLException {
+        String outcome = outcomeOf(status);
+        if (outcome == null || appointmentIds.isEmpty()) {
+            return;
+        }
+        String select = "SELECT p.user_id, a.appointment_date, a.appointment_time FROM appointments a " +
+                        "INNER JOIN patients p ON a.patient_id = p.patient_id " +
+                        "WHERE a.appointment_id = ? AND a.status <> ?";
+
+        try (PreparedStatement query = conn.prepareStatement(select);
+             PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+            for (int appointmentId : appointmentIds) {
+                query.setInt(1, appointmentId);
+                query.setString(2, status.name());
+                try (ResultSet rs = query.executeQuery()) {
+                    if (rs.next()) {
+                        String message = "Your appointment on " + rs.getDate("appointment_date").toLocalDate() +
+                                         " at " + rs.getTime("appointment_time").toLocalTime().format(TIME_FORMAT) +
+                                         " has been " + outcome + ".";
+                        addInsert(insert, rs.getInt("user_id"), message, Notification.TYPE_APPOINTMENT_STATUS);
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Notify the patient that an AI report has been released to them
+     * @throws SQLException if a query fails
+     */
+    public void notifyReportReleased(Connection conn, int reportId) throws SQLException {
+        String select = "SELECT p.user_id, a.appointment_date FROM ai_reports ar " +
+                        "INNER JOIN xray_images xi ON ar.image_id = xi.image_id " +
+                        "INNER JOIN appointments a ON xi.appointment_id = a.appointment_id " +
+                        "INNER JOIN patients p ON a.patient_id = p.patient_id " +
+                        "WHERE ar.report_id = ?";
+
+        try (PreparedStatement query = conn.prepareStatement(select);
+             PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+            query.setInt(1, reportId);
+            try (ResultSet rs = query.executeQuery()) {
+                if (rs.next()) {
+                    String message = "Your X-ray report for the appointment on " +
+                                     rs.getDate("appointment_date").toLocalDate() + " is ready.";
+                    addInsert(insert, rs.getInt("user_id"), message, Notification.TYPE_REPORT_READY);
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * Find a user's unread notifications, newest first
+     */
+    @Override
+    public List<Notification> findUnreadByUserId(int userId) {
+        List<Notification> notifications = new ArrayList<>();
+        String sql = "SELECT * FROM notifications WHERE user_id = ? AND status = 'SENT' ORDER BY sent_at DESC, notification_id DESC";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notifications.add(mapResultSetToNotification(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding unread notifications by user id", e);
+        }
+        return notifications;
+    }
+
+    /**
+     * Count unread notifications for several users in one query (reads only the
+     * idx_notifications_unread index)
+     * @return Unread count per user id; users without unread notifications are absent.
+     *         Null on error.
+     */
+    @Override
+    public Map<Integer, Integer> countUnread(Collection<Integer> userIds) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return counts;
+        }
+        String sql = "SELECT user_id, COUNT(*) FROM notifications WHERE status = 'SENT' AND user_id IN (" +
+                     placeholders(userIds.size()) + ") GROUP BY user_id";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int userId : userIds) {
+                pstmt.setInt(index++, userId);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error counting unread notifications", e);
+            return null;
+        }
+        return counts;
+    }
+
+    /**
+     * Mark notifications as read
+     */
+    @Override
+    public void markRead(List<Integer> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return;
+        }
+
+        String sql = "UPDATE notifications SET status = 'READ' WHERE notification_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Integer notificationId : notificationIds) {
+                pstmt.setInt(1, notificationId);
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error marking notifications as read", e);
+        }
+    }
+
+    /**
+     * Mark notifications as read, leaving alone any that do not belong to one of userIds,
+     * e.g. when the application server acts for the users signed in at a workstation
+     */
+    public void markRead(List<Integer> notificationIds, Collection<Integer> userIds) {
+        if (notificationIds == null || notificationIds.isEmpty() || userIds.isEmpty()) {
+            return;
+        }
+
+        String sql = "UPDATE notifications SET status = 'READ' WHERE notification_id = ? AND user_id IN (" +
+                     placeholders(userIds.size()) + ")";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Integer notificationId : notificationIds) {
+                int index = 1;
+                pstmt.setInt(index++, notificationId);
+                for (int userId : userIds) {
+                    pstmt.setInt(index++, userId);
+                }
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error marking notifications as read", e);
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
+    /**
+     * Wording for a status change, or null if patients are not notified of it
+     */
+    private static String outcomeOf(Appointment.Status status) {
+        switch (status) {
+            case APPROVED:
+                return "approved";
+            case REJECTED:
+                return "rejected";
+            case COMPLETED:
+                return "completed";
+            default:
+                return null;
+        }
+    }
+
+    private static void addInsert(PreparedStatement insert, int userId, String message, String type) throws SQLException {
+        insert.setInt(1, userId);
+        insert.setString(2, message);
+        insert.setString(3, type);
+        insert.addBatch();
+    }
+
+    /**
+     * Map ResultSet to Notification object
+     */
+    private Notification mapResultSetToNotification(ResultSet rs) throws SQLException {
+        Notification notification = new Notification();
+        notification.setNotificationId(rs.getInt("notification_id"));
+        notification.setUserId(rs.getInt("user_id"));
+        notification.setMessage(rs.getString("message"));
+        notification.setNotificationType(rs.getString("notification_type"));
+        Timestamp sentAt = rs.getTimestamp("sent_at");
+        notification.setSentAt(sentAt != null ? sentAt.toLocalDateTime() : null);
+        notification.setStatus(Notification.Status.valueOf(rs.getString("status")));
+        return notification;
+    }
+}
@@ -0,0 +1,88 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.CacheInvalidation;
+import com.hospital.appointment.models.Nurse;
+import java.sql.*;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcNurseDAO implements NurseDAO {
+    private static final Logger logger = Logger.getLogger(JdbcNurseDAO.class.getName());
+
+    // Shared by every instance, not only the one DaoFactory hands out
+    private static final EntityCache<Integer, Integer> nurseIdByUserId = new EntityCache<>("nurse_id by user_id");
+
+    private final JdbcInvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+
+    /**
+     * Create new nurse record, logged for other workstations on the same transaction
+     * @return Generated nurse_id, or -1 if failed
+     */
+    @Override
+    public int createNurse(Nurse nurse) {
+        String sql = "INSERT INTO nurses (user_id, department) VALUES (?, ?)";
+        
+        try {
+            int nurseId = UnitOfWork.run(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, nurse.getUserId());
+                    pstmt.setString(2, nurse.getDepartment());
+
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for nurse");
+                        }
+                        int id = generatedKeys.getInt(1);
+                        invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_NURSE, id);
+                        return id;
+                    }
+                }
+            });
+            nurseIdByUserId.invalidate(nurse.getUserId());
+            return nurseId;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating nurse", e);
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Find nurse_id by user_id (cached)
+     */
+    @Override
+    public Integer findNurseIdByUserId(int userId) {
+        return nurseIdByUserId.get(userId, this::loadNurseIdByUserId);
+    }
+
+    /**
+     * Drops cached nurse_ids written by any app instance (see InvalidationPoller)
+     */
+    static void invalidate(Set<Integer> nurseIds) {
+        nurseIdByUserId.invalidateIf(nurseIds::contains);
+    }
+
+    private Integer loadNurseIdByUserId(int userId) {
+        String sql = "SELECT nurse_id FROM nurses WHERE user_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("nurse_id");
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding nurse_id by user_id", e);
+        }
+        return null;
+    }
+}
+
@@ -0,0 +1,158 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.CacheInvalidation;
+import com.hospital.appointment.models.Patient;
+import java.sql.*;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcPatientDAO implements PatientDAO {
+    private static final Logger logger = Logger.getLogger(JdbcPatientDAO.class.getName());
+
+    // Shared by every instance, not only the one DaoFactory hands out
+    private static final EntityCache<Integer, Patient> byUserId = new EntityCache<>("patients by user_id");
+    private static final EntityCache<Integer, Patient> byPatientId = new EntityCache<>("patients by patient_id");
+
+    private final JdbcInvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+
+    /**
+     * Create new patient record, logged for other workstations on the same transaction
+     * @return Generated patient_id, or -1 if failed
+     */
+    @Override
+    public int createPatient(Patient patient) {
+        String sql = "INSERT INTO patients (user_id, full_name, ic_number, date_of_birth, gender, address) VALUES (?, ?, ?, ?, ?, ?)";
+        
+        try {
+            int patientId = UnitOfWork.run(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, patient.getUserId());
+                    pstmt.setString(2, patient.getFullName());
+                    pstmt.setString(3, patient.getIcNumber());
+                    if (patient.getDateOfBirth() != null) {
+                        pstmt.setDate(4, Date.valueOf(patient.getDateOfBirth()));
+                    } else {
+                        pstmt.setDate(4, null);
+                    }
+                    if (patient.getGender() != null) {
+                        pstmt.setString(5, patient.getGender().name());
+                    } else {
+                        pstmt.setString(5, null);
+                    }
+                    pstmt.setString(6, patient.getAddress());
+
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for patient");
+                        }
+                        int id = generatedKeys.getInt(1);
+                        invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_PATIENT, id);
+                        return id;
+                    }
+                }
+            });
+            byUserId.invalidate(patient.getUserId());
+            return patientId;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating patient", e);
+            e.printStackTrace(); // Print stack trace for debugging
+        }
+        return -1;
+    }
+
+    /**
+     * Find patient by user_id (cached)
+     */
+    @Override
+    public Patient findByUserId(int userId) {
+        return byUserId.get(userId, this::loadByUserId);
+    }
+
+    /**
+     * Find patient by patient_id (cached)
+     */
+    @Override
+    public Patient findByPatientId(int patientId) {
+        return byPatientId.get(patientId, this::loadByPatientId);
+    }
+
+    /**
+     * Drops cached patients written by any app instance (see InvalidationPoller)
+     */
+    static void invalidate(Set<Integer> patientIds) {
+        for (int patientId : patientIds) {
+            byPatientId.invalidate(patientId);
+        }
+        byUserId.invalidateIf(patient -> patientIds.contains(patient.getPatientId()));
+    }
+
+    private Patient loadByUserId(int userId) {
+        String sql = "SELECT * FROM patients WHERE user_id = ?";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    Patient patient = new Patient();
+                    patient.setPatientId(rs.getInt("patient_id"));
+                    patient.setUserId(rs.getInt("user_id"));
+                    patient.setFullName(rs.getString("full_name"));
+                    patient.setIcNumber(rs.getString("ic_number"));
+                    Date dob = rs.getDate("date_of_birth");
+                    if (dob != null) {
+                        patient.setDateOfBirth(dob.toLocalDate());
+                    }
+                    String genderStr = rs.getString("gender");
+                    if (genderStr != null) {
+                        patient.setGender(Patient.Gender.valueOf(genderStr));
+                    }
+                    patient.setAddress(rs.getString("address"));
+                    return patient;
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding patient by user_id", e);
+        }
+        return null;
+    }
+
+    private Patient loadByPatientId(int patientId) {
+        String sql = "SELECT * FROM patients WHERE patient_id = ?";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, patientId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    Patient patient = new Patient();
+                    patient.setPatientId(rs.getInt("patient_id"));
+                    patient.setUserId(rs.getInt("user_id"));
+                    patient.setFullName(rs.getString("full_name"));
+                    patient.setIcNumber(rs.getString("ic_number"));
+                    Date dob = rs.getDate("date_of_birth");
+                    if (dob != null) {
+                        patient.setDateOfBirth(dob.toLocalDate());
+                    }
+                    String genderStr = rs.getString("gender");
+                    if (genderStr != null) {
+                        patient.setGender(Patient.Gender.valueOf(genderStr));
+                    }
+                    patient.setAddress(rs.getString("address"));
+                    return patient;
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding patient by patient_id", e);
+        }
+        return null;
+    }
+}
+
@@ -0,0 +1,186 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.DoctorDiagnosis;
+import com.hospital.appointment.models.ReportSummary;
+import com.hospital.appointment.models.XrayImage;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JdbcReportSummaryDAO - Read-only queries that return AI reports joined with their
+ * X-ray image, appointment, patient name and latest doctor diagnosis in one round trip.
+ */
+public class JdbcReportSummaryDAO implements ReportSummaryDAO {
+    private static final Logger logger = Logger.getLogger(JdbcReportSummaryDAO.class.getName());
+
+    private static final String SELECT_SUMMARY =
+        "SELECT ar.report_id, ar.image_id, ar.prediction, ar.confidence_score, ar.generated_at, ar.is_visible, " +
+        "xi.appointment_id, xi.uploaded_by, xi.image_path, xi.upload_date, " +
+        "a.patient_id, a.appointment_date, a.appointment_time, a.status, " +
+        "p.full_name, " +
+        "dd.diagnosis_id, dd.doctor_id, dd.diagnosis_result, dd.comments, dd.diagnosis_date, dd.report_file_path " +
+        "FROM ai_reports ar " +
+        "INNER JOIN xray_images xi ON ar.image_id = xi.image_id " +
+        "INNER JOIN appointments a ON xi.appointment_id = a.appointment_id " +
+        "LEFT JOIN patients p ON a.patient_id = p.patient_id " +
+        // Only the latest diagnosis per report, matching DoctorDiagnosisDAO.findByReportId
+        "LEFT JOIN doctor_diagnosis dd ON dd.diagnosis_id = (" +
+        "SELECT dd2.diagnosis_id FROM doctor_diagnosis dd2 WHERE dd2.report_id = ar.report_id " +
+        "ORDER BY dd2.diagnosis_date DESC LIMIT 1) ";
+
+    /**
+     * Find one page of report summaries, newest appointment first.
+     * @param fromDate Earliest appointment date to include, or null for no lower bound
+     * @param toDate Latest appointment date to include, or null for no upper bound
+     * @param prediction AI prediction to match (e.g. "PNEUMONIA"), or null for all
+     * @param limit Maximum number of rows to return
+     * @param offset Number of rows to skip
+     */
+    @Override
+    public List<ReportSummary> findSummaries(LocalDate fromDate, LocalDate toDate, String prediction,
+                                             int limit, int offset) {
+        List<ReportSummary> summaries = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = SELECT_SUMMARY + buildWhereClause(fromDate, toDate, prediction, params) +
+                     "ORDER BY a.appointment_date DESC, a.appointment_time DESC, ar.generated_at DESC, ar.report_id DESC " +
+                     "LIMIT ? OFFSET ?";
+        params.add(limit);
+        params.add(offset);
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindParameters(pstmt, params);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(mapResultSetToReportSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding report summaries", e);
+        }
+        return summaries;
+    }
+
+    /**
+     * Find the summaries of specific reports, e.g. to refresh rows that changed
+     */
+    @Override
+    public List<ReportSummary> findByReportIds(Collection<Integer> reportIds) {
+        List<ReportSummary> summaries = new ArrayList<>();
+        if (reportIds.isEmpty()) {
+            return summaries;
+        }
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < reportIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = SELECT_SUMMARY + "WHERE ar.report_id IN (" + placeholders + ")";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int reportId : reportIds) {
+                pstmt.setInt(index++, reportId);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(mapResultSetToReportSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding report summaries by report id", e);
+        }
+        return summaries;
+    }
+
+    private String buildWhereClause(LocalDate fromDate, LocalDate toDate, String prediction, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (fromDate != null) {
+            conditions.add("a.appointment_date >= ?");
+            params.add(Date.valueOf(fromDate));
+        }
+        if (toDate != null) {
+            conditions.add("a.appointment_date <= ?");
+            params.add(Date.valueOf(toDate));
+        }
+        if (prediction != null && !prediction.isEmpty()) {
+            conditions.add("ar.prediction = ?");
+            params.add(prediction);
+        }
+        if (conditions.isEmpty()) {
+            return "";
+        }
+        return "WHERE " + String.join(" AND ", conditions) + " ";
+    }
+
+    private void bindParameters(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Map one joined row to ReportSummary
+     */
+    private ReportSummary mapResultSetToReportSummary(ResultSet rs) throws SQLException {
+        AIReport report = new AIReport();
+        report.setReportId(rs.getInt("report_id"));
+        report.setImageId(rs.getInt("image_id"));
+        report.setPrediction(rs.getString("prediction"));
+        Double confidence = rs.getObject("confidence_score") != null ? rs.getDouble("confidence_score") : null;
+        report.setConfidenceScore(confidence);
+        Timestamp generatedAt = rs.getTimestamp("generated_at");
+        if (generatedAt != null) {
+            report.setGeneratedAt(generatedAt.toLocalDateTime());
+        }
+        report.setVisible(rs.getBoolean("is_visible"));
+
+        XrayImage xrayImage = new XrayImage();
+        xrayImage.setImageId(report.getImageId());
+        xrayImage.setAppointmentId(rs.getInt("appointment_id"));
+        xrayImage.setUploadedBy(rs.getInt("uploaded_by"));
+        xrayImage.setImagePath(rs.getString("image_path"));
+        Timestamp uploadDate = rs.getTimestamp("upload_date");
+        if (uploadDate != null) {
+            xrayImage.setUploadDate(uploadDate.toLocalDateTime());
+        }
+
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(xrayImage.getAppointmentId());
+        appointment.setPatientId(rs.getInt("patient_id"));
+        appointment.setAppointmentDate(rs.getDate("appointment_date").toLocalDate());
+        appointment.setAppointmentTime(rs.getTime("appointment_time").toLocalTime());
+        appointment.setStatus(Appointment.Status.valueOf(rs.getString("status")));
+
+        String patientName = rs.getString("full_name");
+
+        DoctorDiagnosis diagnosis = null;
+        rs.getInt("diagnosis_id");
+        if (!rs.wasNull()) {
+            diagnosis = new DoctorDiagnosis();
+            diagnosis.setDiagnosisId(rs.getInt("diagnosis_id"));
+            diagnosis.setReportId(report.getReportId());
+            diagnosis.setDoctorId(rs.getInt("doctor_id"));
+            diagnosis.setDiagnosisResult(rs.getString("diagnosis_result"));
+            diagnosis.setComments(rs.getString("comments"));
+            Timestamp diagnosisDate = rs.getTimestamp("diagnosis_date");
+            if (diagnosisDate != null) {
+                diagnosis.setDiagnosisDate(diagnosisDate.toLocalDateTime());
+            }
+            diagnosis.setReportFilePath(rs.getString("report_file_path"));
+        }
+
+        return new ReportSummary(report, xrayImage, appointment,
+                                 patientName != null ? patientName : "Unknown", diagnosis);
+    }
+}
@@ -0,0 +1,168 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.models.WorklistRow;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JdbcWorklistDAO - Bulk queries that load complete worklist rows (appointment,
+ * patient name, latest report id) in a single round trip.
+ */
+public class JdbcWorklistDAO implements WorklistDAO {
+    private static final Logger logger = Logger.getLogger(JdbcWorklistDAO.class.getName());
+
+    private static final String SELECT_COLUMNS =
+        "SELECT a.*, p.full_name, " +
+        "(SELECT ar.report_id FROM ai_reports ar " +
+        "INNER JOIN xray_images xi ON ar.image_id = xi.image_id " +
+        "WHERE xi.appointment_id = a.appointment_id " +
+        "ORDER BY ar.generated_at DESC LIMIT 1) AS latest_report_id ";
+
+    private static final String JOIN_PATIENTS = "LEFT JOIN patients p ON a.patient_id = p.patient_id ";
+
+    private static final String SELECT_ROW = SELECT_COLUMNS + "FROM appointments a " + JOIN_PATIENTS;
+
+    // A row is stamped when it is written but only seen once its transaction commits, so change
+    // queries look back this far to catch late commits. Reading a row twice is harmless.
+    private static final int LATE_COMMIT_MARGIN_SECONDS = 5;
+
+    private static final String ORDER_BY = "ORDER BY a.appointment_date DESC, a.appointment_time DESC, a.appointment_id DESC";
+
+    /**
+     * Count the appointments a worklist shows
+     * @return Number of rows, or -1 on error
+     */
+    @Override
+    public int count(Filter filter) {
+        String sql = "SELECT COUNT(*) FROM appointments a " + filter.where(null);
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            filter.bind(pstmt, 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error counting appointment worklist", e);
+        }
+        return -1;
+    }
+
+    /**
+     * Find one window of a worklist, newest first.
+     *
+     * A window that follows one already loaded continues after its last row (keyset
+     * pagination, see JdbcAppointmentDAO.keysetCondition), so it costs the same at any
+     * depth. Without that row, e.g. when the scroll bar is dragged far down, the window is
+     * located by offset over the appointment keys alone and only its own rows are joined
+     * to patients and reports (deferred join).
+     * @param after Row just before the window, or null if it is not known
+     * @param offset Position of the window's first row; only used when after is null
+     * @param limit Maximum number of rows to return
+     */
+    @Override
+    public List<WorklistRow> findWindow(Filter filter, WorklistRow after, int offset, int limit) {
+        boolean seek = after == null && offset > 0;
+        String sql;
+        if (seek) {
+            sql = SELECT_COLUMNS +
+                  "FROM (SELECT a.appointment_id FROM appointments a " + filter.where(null) +
+                  ORDER_BY + " LIMIT ? OFFSET ?) page " +
+                  "INNER JOIN appointments a ON a.appointment_id = page.appointment_id " +
+                  JOIN_PATIENTS + ORDER_BY;
+        } else {
+            sql = SELECT_ROW + filter.where(after != null ? JdbcAppointmentDAO.keysetCondition("a.") : null) +
+                  ORDER_BY + " LIMIT ?";
+        }
+
+        List<WorklistRow> rows = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = filter.bind(pstmt, 1);
+            if (!seek) {
+                index = JdbcAppointmentDAO.bindKeyset(pstmt, index, after != null ? after.getAppointment() : null);
+            }
+            pstmt.setInt(index++, limit);
+            if (seek) {
+                pstmt.setInt(index, offset);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapResultSetToWorklistRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding appointment worklist window", e);
+        }
+        return rows;
+    }
+
+    /**
+     * Find the time of the latest change to any appointment, the starting watermark for findChangedSince
+     * @return Latest updated_at, or null if there are no appointments, the database has no
+     *         updated_at column, or on error
+     */
+    @Override
+    public LocalDateTime findLatestChange() {
+        String sql = "SELECT MAX(updated_at) FROM appointments";
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                Timestamp latest = rs.getTimestamp(1);
+                return latest != null ? latest.toLocalDateTime() : null;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding latest appointment change", e);
+        }
+        return null;
+    }
+
+    /**
+     * Find the appointments of a worklist changed after a watermark, oldest change first.
+     * MySQL stamps updated_at on every write, and idx_appointments_updated makes the cost
+     * depend on the number of changes rather than the size of the worklist.
+     * @param since Watermark: the latest updated_at already seen
+     * @param limit Maximum number of rows to return
+     */
+    @Override
+    public List<WorklistRow> findChangedSince(Filter filter, LocalDateTime since, int limit) {
+        String sql = SELECT_ROW + filter.where("a.updated_at > ?") + "ORDER BY a.updated_at LIMIT ?";
+
+        List<WorklistRow> rows = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = filter.bind(pstmt, 1);
+            pstmt.setTimestamp(index++, Timestamp.valueOf(since.minusSeconds(LATE_COMMIT_MARGIN_SECONDS)));
+            pstmt.setInt(index, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapResultSetToWorklistRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding changed appointments", e);
+        }
+        return rows;
+    }
+
+    /**
+     * Map ResultSet to WorklistRow object
+     */
+    private WorklistRow mapResultSetToWorklistRow(ResultSet rs) throws SQLException {
+        String patientName = rs.getString("full_name");
+        int reportId = rs.getInt("latest_report_id");
+        Integer latestReportId = rs.wasNull() ? null : reportId;
+        return new WorklistRow(JdbcAppointmentDAO.mapResultSetToAppointment(rs),
+                               patientName != null ? patientName : "Unknown", latestReportId);
+    }
+}
@@ -0,0 +1,189 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.database.UnitOfWork;
+import com.hospital.appointment.models.CacheInvalidation;
+import com.hospital.appointment.models.XrayImage;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcXrayImageDAO implements XrayImageDAO {
+    private static final Logger logger = Logger.getLogger(JdbcXrayImageDAO.class.getName());
+
+    private final JdbcInvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+
+    /**
+     * Create new X-ray image record. Its appointment is logged as changed for other
+     * workstations on the same transaction, since worklists show whether it has images.
+     * @return Generated image_id, or -1 if failed
+     */
+    @Override
+    public int create(XrayImage xrayImage) {
+        try {
+            return UnitOfWork.run(conn -> createAll(conn, List.of(xrayImage))[0]);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating xray image", e);
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Create the records of one upload and queue their images for AI analysis, in one
+     * transaction; InferenceWorker writes the reports and marks the appointments UPLOADED
+     * @return Generated image_ids, in the order of images (also set on each image), or null if failed
+     */
+    @Override
+    public int[] createAndQueue(List<XrayImage> images) {
+        try {
+            return UnitOfWork.run(conn -> {
+                int[] imageIds = createAll(conn, images);
+                JdbcInferenceJobDAO.createAll(conn, imageIds);
+                return imageIds;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error saving X-ray upload", e);
+        }
+        return null;
+    }
+
+    /**
+     * Create several X-ray image records as one batch on a caller's transaction, and log
+     * their appointments as changed on it
+     * @return Generated image_ids, in the order of images (also set on each image)
+     * @throws SQLException if any insert fails
+     */
+    public int[] createAll(Connection conn, List<XrayImage> images) throws SQLException {
+        String sql = "INSERT INTO xray_images (appointment_id, uploaded_by, image_path, upload_date) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (XrayImage xrayImage : images) {
+                pstmt.setInt(1, xrayImage.getAppointmentId());
+                pstmt.setInt(2, xrayImage.getUploadedBy());
+                pstmt.setString(3, xrayImage.getImagePath());
+                pstmt.setTimestamp(4, Timestamp.valueOf(xrayImage.getUploadDate()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            int[] imageIds = new int[images.size()];
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                for (int i = 0; i < imageIds.length; i++) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated key for X-ray image " + i);
+                    }
+                    imageIds[i] = generatedKeys.getInt(1);
+                    images.get(i).setImageId(imageIds[i]);
+                }
+            }
+
+            Set<Integer> appointmentIds = new LinkedHashSet<>();
+            for (XrayImage xrayImage : images) {
+                appointmentIds.add(xrayImage.getAppointmentId());
+            }
+            invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_APPOINTMENT, appointmentIds);
+            return imageIds;
+        }
+    }
+
+    /**
+     * Find X-ray images by appointment_id
+     */
+    @Override
+    public List<XrayImage> findByAppointmentId(int appointmentId) {
+        List<XrayImage> images = new ArrayList<>();
+        String sql = "SELECT * FROM xray_images WHERE appointment_id = ? ORDER BY upload_date DESC";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, appointmentId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    images.add(mapResultSetToXrayImage(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding xray images by appointment id", e);
+        }
+        return images;
+    }
+
+    /**
+     * Find X-ray image by image_id
+     */
+    @Override
+    public XrayImage findById(int imageId) {
+        String sql = "SELECT * FROM xray_images WHERE image_id = ?";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, imageId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToXrayImage(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding xray image by id", e);
+        }
+        return null;
+    }
+
+    /**
+     * Delete X-ray image by image_id, logging its appointment as changed on the same transaction
+     * @return true if deleted successfully, false otherwise
+     */
+    @Override
+    public boolean delete(int imageId) {
+        String selectSql = "SELECT appointment_id FROM xray_images WHERE image_id = ?";
+        String deleteSql = "DELETE FROM xray_images WHERE image_id = ?";
+
+        try {
+            return UnitOfWork.run(conn -> {
+                try (PreparedStatement select = conn.prepareStatement(selectSql);
+                     PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                    select.setInt(1, imageId);
+                    int appointmentId;
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        appointmentId = rs.getInt("appointment_id");
+                    }
+
+                    delete.setInt(1, imageId);
+                    int rowsAffected = delete.executeUpdate();
+                    invalidationLogDAO.append(conn, CacheInvalidation.ENTITY_APPOINTMENT, appointmentId);
+                    return rowsAffected > 0;
+                }
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error deleting xray image", e);
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Map ResultSet to XrayImage object
+     */
+    private XrayImage mapResultSetToXrayImage(ResultSet rs) throws SQLException {
+        XrayImage xrayImage = new XrayImage();
+        xrayImage.setImageId(rs.getInt("image_id"));
+        xrayImage.setAppointmentId(rs.getInt("appointment_id"));
+        xrayImage.setUploadedBy(rs.getInt("uploaded_by"));
+        xrayImage.setImagePath(rs.getString("image_path"));
+        Timestamp uploadDate = rs.getTimestamp("upload_date");
+        if (uploadDate != null) {
+            xrayImage.setUploadDate(uploadDate.toLocalDateTime());
+        }
+        return xrayImage;
+    }
+}
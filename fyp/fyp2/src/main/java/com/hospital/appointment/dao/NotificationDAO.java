@@ -0,0 +1,32 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.models.Notification;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NotificationDAO - Reading patients' notifications
+ *
+ * Notifications are written by JdbcNotificationDAO on the transaction of the change they
+ * announce; DaoFactory picks the JDBC or the application server implementation for reads.
+ */
+public interface NotificationDAO {
+
+    /**
+     * Find a user's unread notifications, newest first
+     */
+    List<Notification> findUnreadByUserId(int userId);
+
+    /**
+     * Count unread notifications for several users in one request
+     * @return Unread count per user id; users without unread notifications are absent.
+     *         Null on error.
+     */
+    Map<Integer, Integer> countUnread(Collection<Integer> userIds);
+
+    /**
+     * Mark notifications as read
+     */
+    void markRead(List<Integer> notificationIds);
+}
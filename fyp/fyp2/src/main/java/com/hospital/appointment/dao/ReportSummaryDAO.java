@@ -0,0 +1,29 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.models.ReportSummary;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ReportSummaryDAO - AI reports joined with their image, appointment, patient and
+ * latest diagnosis, for the report archive
+ */
+public interface ReportSummaryDAO {
+
+    /**
+     * Find one page of report summaries, newest appointment first.
+     * @param fromDate Earliest appointment date to include, or null for no lower bound
+     * @param toDate Latest appointment date to include, or null for no upper bound
+     * @param prediction AI prediction to match (e.g. "PNEUMONIA"), or null for all
+     * @param limit Maximum number of rows to return
+     * @param offset Number of rows to skip
+     */
+    List<ReportSummary> findSummaries(LocalDate fromDate, LocalDate toDate, String prediction,
+                                      int limit, int offset);
+
+    /**
+     * Find the summaries of specific reports, e.g. to refresh rows that changed
+     */
+    List<ReportSummary> findByReportIds(Collection<Integer> reportIds);
+}
@@ -0,0 +1,198 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.WorklistRow;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WorklistDAO - Worklist rows (appointment, patient name, latest report id) for the
+ * nurse and doctor tables
+ *
+ * Implemented over JDBC (JdbcWorklistDAO) and over the application server's HTTP API
+ * (RemoteWorklistDAO); DaoFactory picks one.
+ */
+public interface WorklistDAO {
+
+    /**
+     * Count the appointments a worklist shows
+     * @return Number of rows, or -1 on error
+     */
+    int count(Filter filter);
+
+    /**
+     * Find one window of a worklist, newest first
+     * @param after Row just before the window, or null if it is not known
+     * @param offset Position of the window's first row; only used when after is null
+     * @param limit Maximum number of rows to return
+     */
+    List<WorklistRow> findWindow(Filter filter, WorklistRow after, int offset, int limit);
+
+    /**
+     * Find the time of the latest change to any appointment, the starting watermark for findChangedSince
+     * @return Latest updated_at, or null if there are no appointments, the database has no
+     *         updated_at column, or on error
+     */
+    LocalDateTime findLatestChange();
+
+    /**
+     * Find the appointments of a worklist changed after a watermark, oldest change first.
+     * Rows that no longer match the filter are not returned.
+     * @param since Watermark: the latest updated_at already seen
+     * @param limit Maximum number of rows to return
+     */
+    List<WorklistRow> findChangedSince(Filter filter, LocalDateTime since, int limit);
+
+    /**
+     * Which appointments a worklist shows, as conditions on the appointments table (alias a)
+     */
+    public static final class Filter {
+        private final List<String> conditions = new ArrayList<>();
+        private final List<Object> params = new ArrayList<>();
+        // How the filter was built, so it can be sent to the application server and rebuilt there
+        private final Map<String, String> definition = new LinkedHashMap<>();
+
+        private Filter() {
+        }
+
+        /**
+         * Every appointment (nurse appointment management)
+         */
+        public static Filter all() {
+            return new Filter();
+        }
+
+        /**
+         * Appointments in any of the given statuses
+         */
+        public static Filter byStatuses(Appointment.Status... statuses) {
+            Filter filter = new Filter();
+            filter.conditions.add("a.status IN (" + placeholders(statuses.length) + ")");
+            filter.params.addAll(Arrays.asList(statusNames(statuses)));
+            filter.definition.put("statuses", String.join(",", statusNames(statuses)));
+            return filter;
+        }
+
+        /**
+         * Appointments with at least one X-ray image (doctor worklist)
+         */
+        public static Filter withImages() {
+            Filter filter = new Filter();
+            filter.conditions.add("EXISTS (SELECT 1 FROM xray_images xi WHERE xi.appointment_id = a.appointment_id)");
+            filter.definition.put("withImages", "true");
+            return filter;
+        }
+
+        /**
+         * Narrows the filter to a search box entry; blank text matches everything.
+         * Digits match appointment ids and IC numbers that start with them, any other text
+         * matches patient names that start with it. Each match is a range scan on an index
+         * (the primary key, patients.ic_number or idx_patients_full_name), so the search
+         * does not read every appointment.
+         */
+        public Filter matching(String text) {
+            String term = text != null ? text.trim() : "";
+            if (term.isEmpty()) {
+                return this;
+            }
+            definition.put("search", term);
+            String prefix = escapeLike(term) + "%";
+            if (term.matches("[0-9-]+")) {
+                List<String> alternatives = new ArrayList<>();
+                if (term.matches("[1-9][0-9]{0,9}")) {
+                    // Ids starting with 12 are 12, 120-129, 1200-1299, ... up to the largest int
+                    long low = Long.parseLong(term);
+                    long high = low;
+                    while (low <= Integer.MAX_VALUE) {
+                        alternatives.add("a.appointment_id BETWEEN ? AND ?");
+                        params.add((int) low);
+                        params.add((int) Math.min(high, Integer.MAX_VALUE));
+                        low = low * 10;
+                        high = high * 10 + 9;
+                    }
+                }
+                alternatives.add("a.patient_id IN (SELECT patient_id FROM patients WHERE ic_number LIKE ?)");
+                params.add(prefix);
+                conditions.add("(" + String.join(" OR ", alternatives) + ")");
+            } else {
+                conditions.add("a.patient_id IN (SELECT patient_id FROM patients WHERE full_name LIKE ?)");
+                params.add(prefix);
+            }
+            return this;
+        }
+
+        /**
+         * The factory and search calls that built this filter, as text
+         */
+        public Map<String, String> getDefinition() {
+            return Collections.unmodifiableMap(definition);
+        }
+
+        /**
+         * Rebuilds a filter from its getDefinition()
+         * @throws IllegalArgumentException if the definition names an unknown status
+         */
+        public static Filter fromDefinition(Map<String, String> definition) {
+            String statuses = definition.get("statuses");
+            Filter filter;
+            if (statuses != null && !statuses.isEmpty()) {
+                String[] names = statuses.split(",");
+                Appointment.Status[] values = new Appointment.Status[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    values[i] = Appointment.Status.valueOf(names[i]);
+                }
+                filter = byStatuses(values);
+            } else if ("true".equals(definition.get("withImages"))) {
+                filter = withImages();
+            } else {
+                filter = all();
+            }
+            return filter.matching(definition.get("search"));
+        }
+
+        String where(String extraCondition) {
+            List<String> all = new ArrayList<>(conditions);
+            if (extraCondition != null) {
+                all.add(extraCondition);
+            }
+            return all.isEmpty() ? "" : "WHERE " + String.join(" AND ", all) + " ";
+        }
+
+        /**
+         * @return Next parameter index
+         */
+        int bind(PreparedStatement pstmt, int index) throws SQLException {
+            for (Object param : params) {
+                pstmt.setObject(index++, param);
+            }
+            return index;
+        }
+
+        private static String escapeLike(String text) {
+            return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+
+        private static String placeholders(int count) {
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
+            }
+            return placeholders.toString();
+        }
+
+        private static String[] statusNames(Appointment.Status... statuses) {
+            String[] names = new String[statuses.length];
+            for (int i = 0; i < statuses.length; i++) {
+                names[i] = statuses[i].name();
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.hospital.appointment.dao.remote;
+
+import com.hospital.appointment.server.ApiJson;
+import com.hospital.appointment.server.ApiServer;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiClient - HTTP/JSON calls to the application server (see ApiServer)
+ *
+ * Enabled by -Dhms.server.url, e.g. http://records-host:8085. One OkHttpClient is shared
+ * by every remote DAO so keep-alive connections to the server are reused. Every request
+ * carries the server's -Dhms.server.secret and the session tokens of the users signed in
+ * here, which the server needs before it serves their notifications.
+ */
+public class ApiClient {
+    private static final String SERVER_URL = System.getProperty("hms.server.url", "").trim();
+    private static final String SECRET = System.getProperty("hms.server.secret", "");
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static ApiClient instance;
+
+    private final HttpUrl baseUrl;
+    private final OkHttpClient client;
+    // Session tokens of the users signed in at this workstation, by user id
+    private final Map<Integer, String> sessions = new ConcurrentHashMap<>();
+
+    private ApiClient() {
+        this.baseUrl = HttpUrl.get(SERVER_URL);
+        this.client = new OkHttpClient.Builder()
+            .connectTimeout(Long.getLong("hms.server.connectTimeoutMillis", 5_000), TimeUnit.MILLISECONDS)
+            .readTimeout(Long.getLong("hms.server.readTimeoutMillis", 30_000), TimeUnit.MILLISECONDS)
+            .addInterceptor(chain -> {
+                Request.Builder request = chain.request().newBuilder().header(ApiServer.SECRET_HEADER, SECRET);
+                if (!sessions.isEmpty()) {
+                    request.header(ApiServer.SESSION_HEADER, String.join(",", sessions.values()));
+                }
+                return chain.proceed(request.build());
+            })
+            .build();
+    }
+
+    public static synchronized ApiClient getInstance() {
+        if (instance == null) {
+            instance = new ApiClient();
+        }
+        return instance;
+    }
+
+    /**
+     * Whether -Dhms.server.url is set, i.e. DAOs should go through the application server
+     */
+    public static boolean isConfigured() {
+        return !SERVER_URL.isEmpty();
+    }
+
+    /**
+     * Remembers the session a user was given when signing in here, replacing an older one
+     */
+    public void addSession(int userId, String token) {
+        sessions.put(userId, token);
+    }
+
+    /**
+     * GET a path with query parameters; Iterable values are sent as repeated parameters
+     * @throws IOException on network errors and non-2xx responses
+     */
+    public <T> T get(String path, Map<String, ?> params, Type type) throws IOException {
+        return execute(new Request.Builder().url(url(path, params)).get().build(), type);
+    }
+
+    /**
+     * POST an object as JSON
+     * @throws IOException on network errors and non-2xx responses
+     */
+    public <T> T post(String path, Object body, Type type) throws IOException {
+        return post(path, Map.of(), body, type);
+    }
+
+    /**
+     * POST an object as JSON, with query parameters as for get()
+     * @throws IOException on network errors and non-2xx responses
+     */
+    public <T> T post(String path, Map<String, ?> params, Object body, Type type) throws IOException {
+        RequestBody json = RequestBody.create(ApiJson.GSON.toJson(body), JSON);
+        return execute(new Request.Builder().url(url(path, params)).post(json).build(), type);
+    }
+
+    /**
+     * Closes idle connections; called once when the application exits
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.client.dispatcher().executorService().shutdown();
+            instance.client.connectionPool().evictAll();
+        }
+    }
+
+    private HttpUrl url(String path, Map<String, ?> params) {
+        HttpUrl.Builder url = baseUrl.newBuilder().addPathSegments(path);
+        for (Map.Entry<String, ?> param : params.entrySet()) {
+            if (param.getValue() instanceof Iterable) {
+                for (Object value : (Iterable<?>) param.getValue()) {
+                    url.addQueryParameter(param.getKey(), String.valueOf(value));
+                }
+            } else if (param.getValue() != null) {
+                url.addQueryParameter(param.getKey(), String.valueOf(param.getValue()));
+            }
+        }
+        return url.build();
+    }
+
+    private <T> T execute(Request request, Type type) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            String text = body != null ? body.string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("Application server returned " + response.code() + " for " +
+                                      request.url().encodedPath() + ": " + text);
+            }
+            return ApiJson.GSON.fromJson(text, type);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.AIReportDAO;
+import com.hospital.appointment.models.AIReport;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteAIReportDAO - AI reports read and released through the application server
+ */
+public class RemoteAIReportDAO implements AIReportDAO {
+    private static final Logger logger = Logger.getLogger(RemoteAIReportDAO.class.getName());
+    private static final Type REPORTS = new TypeToken<List<AIReport>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int create(AIReport report) {
+        try {
+            Integer reportId = api.post("api/ai-reports", report, Integer.class);
+            return reportId != null ? reportId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating AI report", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public AIReport findByImageId(int imageId) {
+        try {
+            return api.get("api/ai-reports/by-image", Map.of("imageId", imageId), AIReport.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding AI report by image id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public AIReport findById(int reportId) {
+        try {
+            return api.get("api/ai-reports", Map.of("reportId", reportId), AIReport.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding AI report by id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public List<AIReport> findByAppointmentId(int appointmentId) {
+        return reports(appointmentId, false);
+    }
+
+    @Override
+    public List<AIReport> findVisibleByAppointmentId(int appointmentId) {
+        return reports(appointmentId, true);
+    }
+
+    @Override
+    public boolean updateIsVisible(int reportId, boolean isVisible) {
+        try {
+            return Boolean.TRUE.equals(api.post("api/ai-reports/visible", Map.of("reportId", reportId, "visible", isVisible),
+                                                null, Boolean.class));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error updating AI report visibility", e);
+        }
+        return false;
+    }
+
+    private List<AIReport> reports(int appointmentId, boolean visibleOnly) {
+        try {
+            List<AIReport> reports = api.get("api/ai-reports/by-appointment",
+                                             Map.of("appointmentId", appointmentId, "visibleOnly", visibleOnly), REPORTS);
+            if (reports != null) {
+                return reports;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding AI reports by appointment id", e);
+        }
+        return new ArrayList<>();
+    }
+}
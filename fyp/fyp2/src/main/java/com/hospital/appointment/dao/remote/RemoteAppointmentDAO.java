@@ -0,0 +1,65 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.models.Appointment;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteAppointmentDAO - Appointments read and written through the application server
+ */
+public class RemoteAppointmentDAO implements AppointmentDAO {
+    private static final Logger logger = Logger.getLogger(RemoteAppointmentDAO.class.getName());
+    private static final Type APPOINTMENTS = new TypeToken<List<Appointment>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int create(Appointment appointment) {
+        try {
+            Integer appointmentId = api.post("api/appointments", appointment, Integer.class);
+            return appointmentId != null ? appointmentId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating appointment", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public List<Appointment> findByPatientId(int patientId) {
+        try {
+            List<Appointment> appointments = api.get("api/appointments/by-patient", Map.of("patientId", patientId), APPOINTMENTS);
+            if (appointments != null) {
+                return appointments;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding appointments by patient id", e);
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public Appointment findById(int appointmentId) {
+        try {
+            return api.get("api/appointments", Map.of("appointmentId", appointmentId), Appointment.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding appointment by id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void updateStatus(int appointmentId, Appointment.Status status) {
+        try {
+            api.post("api/appointments/status", Map.of("appointmentId", appointmentId, "status", status), null, Void.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error updating appointment status", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hospital.appointment.dao.remote;
+
+import com.hospital.appointment.dao.BlobDAO;
+import java.io.IOException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteBlobDAO - BlobStore reference counts kept through the application server
+ *
+ * Clients write blob files into the same -Dhms.blobs.dir the server uses (a shared
+ * folder), so the server can delete a file with its last reference. That runs on the
+ * server while it holds the blob's row, in place of the caller's onLastReference.
+ */
+public class RemoteBlobDAO implements BlobDAO {
+    private static final Logger logger = Logger.getLogger(RemoteBlobDAO.class.getName());
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public boolean acquire(String blobId, long sizeBytes) {
+        try {
+            return Boolean.TRUE.equals(api.post("api/blobs/acquire", Map.of("blobId", blobId, "sizeBytes", sizeBytes),
+                                                null, Boolean.class));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error acquiring blob reference", e);
+        }
+        return false;
+    }
+
+    @Override
+    public int release(String blobId, LastReferenceAction onLastReference) {
+        try {
+            Integer remaining = api.post("api/blobs/release", Map.of("blobId", blobId), null, Integer.class);
+            return remaining != null ? remaining : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error releasing blob reference", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRefCount(String blobId) {
+        try {
+            Integer refCount = api.get("api/blobs/ref-count", Map.of("blobId", blobId), Integer.class);
+            return refCount != null ? refCount : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error reading blob reference count", e);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.appointment.dao.remote;
+
+import com.hospital.appointment.dao.DoctorDAO;
+import com.hospital.appointment.models.Doctor;
+import java.io.IOException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteDoctorDAO - Doctor profiles read and created through the application server
+ */
+public class RemoteDoctorDAO implements DoctorDAO {
+    private static final Logger logger = Logger.getLogger(RemoteDoctorDAO.class.getName());
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int createDoctor(Doctor doctor) {
+        try {
+            Integer doctorId = api.post("api/doctors", doctor, Integer.class);
+            return doctorId != null ? doctorId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating doctor", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public Integer findDoctorIdByUserId(int userId) {
+        try {
+            return api.get("api/doctors/id", Map.of("userId", userId), Integer.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding doctor id by user id", e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.DoctorDiagnosisDAO;
+import com.hospital.appointment.models.DoctorDiagnosis;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteDoctorDiagnosisDAO - Doctors' diagnoses and e-report references read and written
+ * through the application server
+ */
+public class RemoteDoctorDiagnosisDAO implements DoctorDiagnosisDAO {
+    private static final Logger logger = Logger.getLogger(RemoteDoctorDiagnosisDAO.class.getName());
+    private static final Type DIAGNOSES = new TypeToken<List<DoctorDiagnosis>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int create(DoctorDiagnosis diagnosis) {
+        try {
+            Integer diagnosisId = api.post("api/diagnoses", diagnosis, Integer.class);
+            return diagnosisId != null ? diagnosisId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating doctor diagnosis", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public DoctorDiagnosis findByReportId(int reportId) {
+        try {
+            return api.get("api/diagnoses", Map.of("reportId", reportId), DoctorDiagnosis.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding doctor diagnosis by report id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public List<DoctorDiagnosis> findAll() {
+        try {
+            List<DoctorDiagnosis> diagnoses = api.get("api/diagnoses/all", Map.of(), DIAGNOSES);
+            if (diagnoses != null) {
+                return diagnoses;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding all doctor diagnoses", e);
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public boolean updateReportFilePath(int reportId, String filePath) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("reportId", reportId);
+        params.put("filePath", filePath); // Omitted when null, which clears the path
+        return update("api/diagnoses/report-file", params);
+    }
+
+    @Override
+    public boolean updateOrInsertReportFilePath(int reportId, int doctorId, String filePath) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("reportId", reportId);
+        params.put("doctorId", doctorId);
+        params.put("filePath", filePath);
+        return update("api/diagnoses/report-file/upsert", params);
+    }
+
+    private boolean update(String path, Map<String, ?> params) {
+        try {
+            return Boolean.TRUE.equals(api.post(path, params, null, Boolean.class));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error updating report file path", e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.InvalidationLogDAO;
+import com.hospital.appointment.models.CacheInvalidation;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteInvalidationLogDAO - The cache_invalidations log read through the application server
+ */
+public class RemoteInvalidationLogDAO implements InvalidationLogDAO {
+    private static final Logger logger = Logger.getLogger(RemoteInvalidationLogDAO.class.getName());
+    private static final Type INVALIDATIONS = new TypeToken<List<CacheInvalidation>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public long findLatestVersion() {
+        try {
+            Long version = api.get("api/invalidations/latest", Map.of(), Long.class);
+            return version != null ? version : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding latest invalidation version", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public List<CacheInvalidation> findAfter(long version, int limit) {
+        try {
+            return api.get("api/invalidations", Map.of("after", version, "limit", limit), INVALIDATIONS);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding invalidations", e);
+        }
+        return null;
+    }
+
+    /**
+     * Does nothing: the server prunes the log it hosts
+     */
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        return 0;
+    }
+}
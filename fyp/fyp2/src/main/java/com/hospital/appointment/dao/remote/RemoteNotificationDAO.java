@@ -0,0 +1,63 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.NotificationDAO;
+import com.hospital.appointment.models.Notification;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteNotificationDAO - Patients' notifications read through the application server
+ */
+public class RemoteNotificationDAO implements NotificationDAO {
+    private static final Logger logger = Logger.getLogger(RemoteNotificationDAO.class.getName());
+    private static final Type NOTIFICATIONS = new TypeToken<List<Notification>>() { }.getType();
+    private static final Type COUNTS = new TypeToken<Map<Integer, Integer>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public List<Notification> findUnreadByUserId(int userId) {
+        try {
+            List<Notification> notifications = api.get("api/notifications", Map.of("userId", userId), NOTIFICATIONS);
+            if (notifications != null) {
+                return notifications;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding unread notifications by user id", e);
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public Map<Integer, Integer> countUnread(Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return api.get("api/notifications/unread-count", Map.of("userId", userIds), COUNTS);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error counting unread notifications", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void markRead(List<Integer> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return;
+        }
+        try {
+            api.post("api/notifications/read", notificationIds, Void.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error marking notifications as read", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.appointment.dao.remote;
+
+import com.hospital.appointment.dao.NurseDAO;
+import com.hospital.appointment.models.Nurse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteNurseDAO - Nurse profiles read and created through the application server
+ */
+public class RemoteNurseDAO implements NurseDAO {
+    private static final Logger logger = Logger.getLogger(RemoteNurseDAO.class.getName());
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int createNurse(Nurse nurse) {
+        try {
+            Integer nurseId = api.post("api/nurses", nurse, Integer.class);
+            return nurseId != null ? nurseId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating nurse", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public Integer findNurseIdByUserId(int userId) {
+        try {
+            return api.get("api/nurses/id", Map.of("userId", userId), Integer.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding nurse id by user id", e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hospital.appointment.dao.remote;
+
+import com.hospital.appointment.dao.PatientDAO;
+import com.hospital.appointment.models.Patient;
+import java.io.IOException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemotePatientDAO - Patient profiles read and created through the application server,
+ * which serves them from its patient cache
+ */
+public class RemotePatientDAO implements PatientDAO {
+    private static final Logger logger = Logger.getLogger(RemotePatientDAO.class.getName());
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int createPatient(Patient patient) {
+        try {
+            Integer patientId = api.post("api/patients", patient, Integer.class);
+            return patientId != null ? patientId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating patient", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public Patient findByUserId(int userId) {
+        try {
+            return api.get("api/patients/by-user", Map.of("userId", userId), Patient.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding patient by user id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public Patient findByPatientId(int patientId) {
+        try {
+            return api.get("api/patients", Map.of("patientId", patientId), Patient.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding patient by id", e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.ReportSummaryDAO;
+import com.hospital.appointment.models.ReportSummary;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteReportSummaryDAO - The report archive read through the application server
+ */
+public class RemoteReportSummaryDAO implements ReportSummaryDAO {
+    private static final Logger logger = Logger.getLogger(RemoteReportSummaryDAO.class.getName());
+    private static final Type SUMMARIES = new TypeToken<List<ReportSummary>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public List<ReportSummary> findSummaries(LocalDate fromDate, LocalDate toDate, String prediction,
+                                             int limit, int offset) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("fromDate", fromDate);
+        params.put("toDate", toDate);
+        params.put("prediction", prediction);
+        params.put("limit", limit);
+        params.put("offset", offset);
+        return summaries("api/report-summaries", params, "Error finding report summaries");
+    }
+
+    @Override
+    public List<ReportSummary> findByReportIds(Collection<Integer> reportIds) {
+        if (reportIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return summaries("api/report-summaries/by-id", Map.of("reportId", reportIds), "Error finding report summaries by id");
+    }
+
+    private List<ReportSummary> summaries(String path, Map<String, ?> params, String errorMessage) {
+        try {
+            List<ReportSummary> summaries = api.get(path, params, SUMMARIES);
+            if (summaries != null) {
+                return summaries;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, errorMessage, e);
+        }
+        return new ArrayList<>();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hospital.appointment.dao.remote;
+
+import com.hospital.appointment.dao.UserDAO;
+import com.hospital.appointment.models.User;
+import com.hospital.appointment.server.ApiJson;
+import java.io.IOException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteUserDAO - User accounts read and created through the application server
+ */
+public class RemoteUserDAO implements UserDAO {
+    private static final Logger logger = Logger.getLogger(RemoteUserDAO.class.getName());
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    /**
+     * Also keeps the user's session, which the server checks before acting for them
+     */
+    @Override
+    public User authenticate(String username, String password) {
+        try {
+            ApiJson.SignIn signIn = api.post("api/users/authenticate", Map.of("username", username, "password", password),
+                                             ApiJson.SignIn.class);
+            if (signIn != null) {
+                api.addSession(signIn.getUser().getUserId(), signIn.getToken());
+                return signIn.getUser();
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error authenticating user", e);
+        }
+        return null;
+    }
+
+    @Override
+    public User findById(int userId) {
+        try {
+            return api.get("api/users", Map.of("userId", userId), User.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding user by id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean usernameExists(String username) {
+        try {
+            return Boolean.TRUE.equals(api.get("api/users/exists", Map.of("username", username), Boolean.class));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error checking username", e);
+        }
+        return false;
+    }
+
+    /**
+     * A patient registering themself is also signed in, to go on to create their profile
+     */
+    @Override
+    public int createUser(User user) {
+        try {
+            ApiJson.Registration registration = api.post("api/users", user, ApiJson.Registration.class);
+            if (registration == null) {
+                return -1;
+            }
+            if (registration.getToken() != null) {
+                api.addSession(registration.getUserId(), registration.getToken());
+            }
+            return registration.getUserId();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating user", e);
+        }
+        return -1;
+    }
+}
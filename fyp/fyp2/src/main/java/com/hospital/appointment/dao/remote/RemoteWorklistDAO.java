@@ -0,0 +1,82 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.WorklistDAO;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.WorklistRow;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteWorklistDAO - Worklist rows read through the application server, which serves
+ * repeated windows from its cache
+ */
+public class RemoteWorklistDAO implements WorklistDAO {
+    private static final Logger logger = Logger.getLogger(RemoteWorklistDAO.class.getName());
+    private static final Type ROWS = new TypeToken<List<WorklistRow>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int count(Filter filter) {
+        try {
+            Integer count = api.get("api/worklist/count", filter.getDefinition(), Integer.class);
+            return count != null ? count : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error counting appointment worklist", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public List<WorklistRow> findWindow(Filter filter, WorklistRow after, int offset, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>(filter.getDefinition());
+        params.put("offset", offset);
+        params.put("limit", limit);
+        if (after != null) {
+            // The keyset is all the server needs of the previous row
+            Appointment appointment = after.getAppointment();
+            params.put("afterId", appointment.getAppointmentId());
+            params.put("afterDate", appointment.getAppointmentDate());
+            params.put("afterTime", appointment.getAppointmentTime());
+        }
+        return rows("api/worklist/window", params, "Error finding appointment worklist window");
+    }
+
+    @Override
+    public LocalDateTime findLatestChange() {
+        try {
+            return api.get("api/worklist/latest-change", Map.of(), LocalDateTime.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding latest appointment change", e);
+        }
+        return null;
+    }
+
+    @Override
+    public List<WorklistRow> findChangedSince(Filter filter, LocalDateTime since, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>(filter.getDefinition());
+        params.put("since", since);
+        params.put("limit", limit);
+        return rows("api/worklist/changes", params, "Error finding changed appointments");
+    }
+
+    private List<WorklistRow> rows(String path, Map<String, ?> params, String errorMessage) {
+        try {
+            List<WorklistRow> rows = api.get(path, params, ROWS);
+            if (rows != null) {
+                return rows;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, errorMessage, e);
+        }
+        return new ArrayList<>();
+    }
+}
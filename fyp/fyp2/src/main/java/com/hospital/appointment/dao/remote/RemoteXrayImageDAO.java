@@ -0,0 +1,83 @@
+package com.hospital.appointment.dao.remote;
+
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.dao.XrayImageDAO;
+import com.hospital.appointment.models.XrayImage;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RemoteXrayImageDAO - X-ray image records read and written through the application
+ * server. The files themselves are in the BlobStore directory shared with the server.
+ */
+public class RemoteXrayImageDAO implements XrayImageDAO {
+    private static final Logger logger = Logger.getLogger(RemoteXrayImageDAO.class.getName());
+    private static final Type IMAGES = new TypeToken<List<XrayImage>>() { }.getType();
+
+    private final ApiClient api = ApiClient.getInstance();
+
+    @Override
+    public int create(XrayImage xrayImage) {
+        try {
+            Integer imageId = api.post("api/xray-images", xrayImage, Integer.class);
+            return imageId != null ? imageId : -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error creating xray image", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public int[] createAndQueue(List<XrayImage> images) {
+        try {
+            int[] imageIds = api.post("api/xray-images/upload", images, int[].class);
+            if (imageIds != null && imageIds.length == images.size()) {
+                for (int i = 0; i < imageIds.length; i++) {
+                    images.get(i).setImageId(imageIds[i]);
+                }
+                return imageIds;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error saving X-ray upload", e);
+        }
+        return null;
+    }
+
+    @Override
+    public List<XrayImage> findByAppointmentId(int appointmentId) {
+        try {
+            List<XrayImage> images = api.get("api/xray-images/by-appointment", Map.of("appointmentId", appointmentId), IMAGES);
+            if (images != null) {
+                return images;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding xray images by appointment id", e);
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public XrayImage findById(int imageId) {
+        try {
+            return api.get("api/xray-images", Map.of("imageId", imageId), XrayImage.class);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error finding xray image by id", e);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean delete(int imageId) {
+        try {
+            return Boolean.TRUE.equals(api.post("api/xray-images/delete", Map.of("imageId", imageId), null, Boolean.class));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error deleting xray image", e);
+        }
+        return false;
+    }
+}
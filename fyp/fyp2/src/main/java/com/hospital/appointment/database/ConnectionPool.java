@@ -0,0 +1,347 @@
+package com.hospital.appointment.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ConnectionPool - Bounded pool of JDBC connections
+ *
+ * DAOs borrow a connection through DatabaseManager.getConnection() and give it back
+ * by calling close() on it (normally via try-with-resources). The physical connection
+ * stays open and is reused by the next caller, so queries no longer pay a MySQL
+ * reconnect and concurrent callers no longer share one socket.
+ *
+ * A daemon housekeeping thread evicts connections that have been idle too long,
+ * validates the remaining idle connections and tops the pool back up to its minimum size.
+ */
+public class ConnectionPool {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    // Idle connections, most recently returned first (LIFO keeps hot connections hot)
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    // One permit per connection that may be handed out; bounds the pool at maxSize
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, String user, String password, PoolConfig config) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+
+        fillToMinimum();
+        long interval = config.getValidationIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured borrow timeout when all
+     * connections are in use.
+     * @return Connection whose close() returns it to the pool
+     * @throws SQLException if the pool is exhausted or a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                    + " ms waiting for a database connection (pool size " + config.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    return wrap(entry);
+                }
+                discard(entry);
+            }
+            return wrap(openEntry());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the housekeeping thread.
+     * Connections still borrowed are closed as they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    private void release(PooledEntry entry) {
+        try {
+            if (shutdown || entry.broken || entry.connection.isClosed()) {
+                discard(entry);
+                return;
+            }
+            // Undo per-borrow state so the next caller gets a clean connection
+            if (!entry.connection.getAutoCommit()) {
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Discarding connection that failed to reset", e);
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        // Recently used connections are trusted; older ones get a cheap validity check
+        long idleFor = System.currentTimeMillis() - entry.lastUsed;
+        if (idleFor < config.getValidationIntervalMillis()) {
+            return true;
+        }
+        try {
+            return !entry.connection.isClosed() && entry.connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry openEntry() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PooledEntry(connection);
+    }
+
+    private void discard(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            // Ignore errors when closing a connection that is being thrown away
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!shutdown && totalConnections.get() < config.getMinSize()) {
+            try {
+                PooledEntry entry = openEntry();
+                idle.offerLast(entry);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to open pooled connection", e);
+                return;
+            }
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledEntry entry = it.next();
+                // Take the entry out before touching it so a borrower cannot grab it mid-check
+                if (!idle.remove(entry)) {
+                    continue;
+                }
+                boolean expired = now - entry.lastUsed > config.getIdleTimeoutMillis()
+                    && totalConnections.get() > config.getMinSize();
+                if (expired || !isUsable(entry)) {
+                    discard(entry);
+                } else {
+                    idle.offerLast(entry);
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    private Connection wrap(PooledEntry entry) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PooledConnectionHandler(entry));
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs for it.
+     */
+    private static class PooledEntry {
+        private final Connection connection;
+        private volatile long lastUsed;
+        private volatile boolean broken;
+
+        PooledEntry(Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Handle given to callers. close() returns the physical connection to the pool
+     * instead of closing it; any use after that fails like a closed connection would.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.connection.isClosed();
+                case "unwrap":
+                case "isWrapperFor":
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + entry.connection;
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                    entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        private boolean isFatal(SQLException e) {
+            // SQLState class 08 = connection exception
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+
+    /**
+     * PoolConfig - Sizing and timing settings for the pool.
+     *
+     * Defaults can be overridden with system properties, e.g. -Dhms.db.pool.maxSize=20
+     */
+    public static class PoolConfig {
+        private int minSize = 2;
+        private int maxSize = 10;
+        private long borrowTimeoutMillis = 10_000;
+        private long idleTimeoutMillis = 300_000;
+        private long validationIntervalMillis = 30_000;
+
+        public static PoolConfig fromSystemProperties() {
+            PoolConfig config = new PoolConfig();
+            config.setMinSize(Integer.getInteger("hms.db.pool.minSize", config.minSize));
+            config.setMaxSize(Integer.getInteger("hms.db.pool.maxSize", config.maxSize));
+            config.setBorrowTimeoutMillis(Long.getLong("hms.db.pool.borrowTimeoutMillis", config.borrowTimeoutMillis));
+            config.setIdleTimeoutMillis(Long.getLong("hms.db.pool.idleTimeoutMillis", config.idleTimeoutMillis));
+            config.setValidationIntervalMillis(Long.getLong("hms.db.pool.validationIntervalMillis", config.validationIntervalMillis));
+            if (config.minSize > config.maxSize) {
+                config.setMinSize(config.maxSize);
+            }
+            return config;
+        }
+
+        // Getters and Setters
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = Math.max(0, minSize);
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = Math.max(1, maxSize);
+        }
+
+        public long getBorrowTimeoutMillis() {
+            return borrowTimeoutMillis;
+        }
+
+        public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+            this.borrowTimeoutMillis = borrowTimeoutMillis;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+        }
+
+        public long getValidationIntervalMillis() {
+            return validationIntervalMillis;
+        }
+
+        public void setValidationIntervalMillis(long validationIntervalMillis) {
+            this.validationIntervalMillis = Math.max(1_000, validationIntervalMillis);
+        }
+    }
+}
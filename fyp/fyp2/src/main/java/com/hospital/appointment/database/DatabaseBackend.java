@@ -0,0 +1,77 @@
+package com.hospital.appointment.database;
+
+import java.util.Locale;
+
+/**
+ * DatabaseBackend - The database engine behind the DAOs, chosen with -Dhms.db.backend
+ *
+ * MYSQL (default) connects to the shared hms_fyp server. H2 runs an embedded database in
+ * this process, in a file under -Dhms.db.h2.path (default data/hms_fyp), for single
+ * workstations and for runs without a database server. H2 is opened in MySQL mode, so
+ * both backends share the JDBC DAOs; its tables are created from db/h2-schema.sql.
+ *
+ * -Dhms.db.url, -Dhms.db.user and -Dhms.db.password override the defaults of either.
+ */
+public enum DatabaseBackend {
+    MYSQL("com.mysql.cj.jdbc.Driver",
+          // Pooled connections are validated by ConnectionPool, so the driver does not need to auto-reconnect
+          "jdbc:mysql://localhost:3306/hms_fyp?useSSL=false&serverTimezone=UTC",
+          "root", "", null),
+    H2("org.h2.Driver",
+       // AUTO_SERVER lets a second process (e.g. the standalone folder ingest) open the same file
+       "jdbc:h2:file:" + System.getProperty("hms.db.h2.path", "data/hms_fyp") +
+       ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;AUTO_SERVER=TRUE",
+       "sa", "", "db/h2-schema.sql");
+
+    private final String driverClass;
+    private final String defaultUrl;
+    private final String defaultUser;
+    private final String defaultPassword;
+    private final String schemaResource;
+
+    DatabaseBackend(String driverClass, String defaultUrl, String defaultUser, String defaultPassword,
+                    String schemaResource) {
+        this.driverClass = driverClass;
+        this.defaultUrl = defaultUrl;
+        this.defaultUser = defaultUser;
+        this.defaultPassword = defaultPassword;
+        this.schemaResource = schemaResource;
+    }
+
+    /**
+     * The backend named by -Dhms.db.backend (mysql or h2)
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static DatabaseBackend fromSystemProperties() {
+        String name = System.getProperty("hms.db.backend", "mysql").trim();
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown hms.db.backend: " + name + " (use mysql or h2)");
+        }
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    public String getUrl() {
+        return System.getProperty("hms.db.url", defaultUrl);
+    }
+
+    public String getUser() {
+        return System.getProperty("hms.db.user", defaultUser);
+    }
+
+    public String getPassword() {
+        return System.getProperty("hms.db.password", defaultPassword);
+    }
+
+    /**
+     * Classpath script that creates missing tables on start, or null if the schema is
+     * managed outside the app (MySQL: hms_fyp.sql)
+     */
+    public String getSchemaResource() {
+        return schemaResource;
+    }
+}
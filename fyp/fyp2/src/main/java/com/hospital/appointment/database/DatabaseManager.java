@@ -1,25 +1,22 @@
 package com.hospital.appointment.database;
 
+import com.hospital.appointment.dao.remote.ApiClient;
 import java.sql.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * DatabaseManager - Manages MySQL database connections
+ * DatabaseManager - Manages the pool of database connections
  * 
- * Connects to MySQL database at jdbc:mysql://localhost:3306/hms_fyp
- * Assumes database and tables are already created.
+ * Connects to the backend chosen with -Dhms.db.backend (see DatabaseBackend): by default
+ * the MySQL database at jdbc:mysql://localhost:3306/hms_fyp, which must already have its
+ * tables, or an embedded H2 database whose tables are created on first start.
  */
 public class DatabaseManager {
     private static final Logger logger = Logger.getLogger(DatabaseManager.class.getName());
     private static DatabaseManager instance;
-    private Connection connection;
-    
-    // MySQL database connection URL
-    // Add connection parameters to prevent premature closing and timeout issues
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/hms_fyp?useSSL=false&serverTimezone=UTC&autoReconnect=true&failOverReadOnly=false&maxReconnects=10&initialTimeout=1";
-    private static final String DB_USER = "root";  // Update if your MySQL user is different
-    private static final String DB_PASSWORD = "";  // Update with your MySQL password
+    private volatile ConnectionPool pool;
+    private final DatabaseBackend backend = DatabaseBackend.fromSystemProperties();
 
     private DatabaseManager() {
     }
@@ -32,87 +29,84 @@ public class DatabaseManager {
     }
 
     /**
-     * Initializes database connection to MySQL.
-     * Assumes database and tables are already created.
+     * Initializes the connection pool, creating the tables first on an embedded backend.
+     * Does nothing on a client of an application server (-Dhms.server.url), whose DAOs
+     * all go through the server.
      */
-    public void initializeDatabase() {
+    public synchronized void initializeDatabase() {
+        if (pool != null) {
+            return;
+        }
+        if (ApiClient.isConfigured()) {
+            logger.info("hms.server.url is set: this instance reads through the application server and opens no database connections");
+            return;
+        }
         try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            Class.forName(backend.getDriverClass());
             
-            // Connect to MySQL database
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Successfully connected to MySQL database: " + DB_URL);
+            ConnectionPool created = new ConnectionPool(backend.getUrl(), backend.getUser(), backend.getPassword(),
+                                                        ConnectionPool.PoolConfig.fromSystemProperties());
+            if (backend.getSchemaResource() != null) {
+                createSchema(created);
+            }
+            pool = created;
+            logger.info("Connection pool ready for " + backend + " database: " + backend.getUrl()
+                + " (" + pool.getTotalConnections() + " connections open)");
         } catch (ClassNotFoundException e) {
-            logger.log(Level.SEVERE, "MySQL JDBC Driver not found", e);
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to connect to MySQL database", e);
-            logger.log(Level.SEVERE, "Please ensure MySQL is running and database 'hms_fyp' exists", e);
+            logger.log(Level.SEVERE, backend + " JDBC Driver not found", e);
         }
     }
 
     /**
-     * Gets a valid database connection, reconnecting if necessary.
+     * The backend this app instance runs against
+     */
+    public DatabaseBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Borrows a connection from the pool.
+     * Callers must close() the returned connection (try-with-resources) to give it back.
      * @return Connection object
      * @throws SQLException if connection cannot be established
      */
     public Connection getConnection() throws SQLException {
-        // Check if connection is null, closed, or invalid
-        try {
-            boolean needsReconnect = false;
-            if (connection == null) {
-                needsReconnect = true;
-            } else {
-                try {
-                    if (connection.isClosed() || !connection.isValid(1)) {
-                        needsReconnect = true;
-                    }
-                } catch (SQLException e) {
-                    // Connection is invalid, need to reconnect
-                    needsReconnect = true;
-                }
+        ConnectionPool current = pool;
+        if (current == null) {
+            initializeDatabase();
+            current = pool;
+            if (current == null) {
+                throw new SQLException(ApiClient.isConfigured() ? "No database connections on an application server client"
+                                                                : backend + " JDBC Driver not found");
             }
-            
-            if (needsReconnect) {
-                // Reconnect if connection is not valid
-                logger.info("Connection invalid or closed, reconnecting...");
-                try {
-                    // Close old connection if it exists
-                    if (connection != null) {
-                        try {
-                            connection.close();
-                        } catch (SQLException e) {
-                            // Ignore errors when closing old connection
-                        }
-                    }
-                } catch (Exception e) {
-                    // Ignore any errors when closing old connection
-                }
-                
-                // Create new connection
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                logger.info("Successfully reconnected to MySQL database: " + DB_URL);
-            }
-        } catch (ClassNotFoundException e) {
-            logger.log(Level.SEVERE, "MySQL JDBC Driver not found", e);
-            throw new SQLException("MySQL JDBC Driver not found", e);
+        }
+        try {
+            return current.borrow();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to get database connection", e);
+            if (backend == DatabaseBackend.MYSQL) {
+                logger.log(Level.SEVERE, "Please ensure MySQL is running and database 'hms_fyp' exists");
+            }
             throw e;
         }
-        return connection;
     }
 
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
+    /**
+     * Runs the backend's schema script; every statement in it is safe to repeat
+     */
+    private void createSchema(ConnectionPool created) {
+        try (Connection conn = created.borrow();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM 'classpath:/" + backend.getSchemaResource() + "'");
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error closing database connection", e);
+            logger.log(Level.SEVERE, "Error creating tables from " + backend.getSchemaResource(), e);
         }
     }
-}
-
 
+    public synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
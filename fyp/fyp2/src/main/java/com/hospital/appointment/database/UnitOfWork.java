@@ -0,0 +1,85 @@
+package com.hospital.appointment.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * UnitOfWork - Several DAO writes in one JDBC transaction
+ *
+ * Borrows one pooled connection with auto-commit off. DAO methods that take a Connection
+ * write through it and throw SQLException instead of logging it, so the first failure
+ * aborts the whole unit. Nothing is visible to other connections until commit(), and the
+ * unit costs a single commit (one log flush) however many rows it writes. Closing without
+ * committing rolls everything back.
+ *
+ *   try (UnitOfWork work = UnitOfWork.begin()) {
+ *       int[] imageIds = xrayImageDAO.createAll(work.getConnection(), images);
+ *       inferenceJobDAO.createAll(work.getConnection(), imageIds);
+ *       work.commit();
+ *   }
+ */
+public class UnitOfWork implements AutoCloseable {
+    private final Connection connection;
+    private boolean committed;
+
+    /**
+     * Steps of a unit of work, run on its connection
+     */
+    public interface Work<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private UnitOfWork(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Starts a transaction on a pooled connection
+     */
+    public static UnitOfWork begin() throws SQLException {
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new UnitOfWork(connection);
+    }
+
+    /**
+     * Runs work in one transaction and commits it
+     * @return Result of the work
+     * @throws SQLException if any step fails; nothing is committed then
+     */
+    public static <T> T run(Work<T> work) throws SQLException {
+        try (UnitOfWork unit = begin()) {
+            T result = work.execute(unit.connection);
+            unit.commit();
+            return result;
+        }
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+        committed = true;
+    }
+
+    /**
+     * Rolls back anything not committed and returns the connection to the pool
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+}
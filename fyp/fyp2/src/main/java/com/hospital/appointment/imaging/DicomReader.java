@@ -0,0 +1,684 @@
+package com.hospital.appointment.imaging;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * DicomReader - Decodes the image stored in a DICOM (.dcm) file
+ *
+ * The file is parsed as a stream: data elements before the pixel data are read one at a
+ * time, only the image attributes are kept, and everything else (including nested
+ * sequences such as private tags) is skipped without being loaded. Only the first frame
+ * of the pixel data is read, so large CR/DX studies are not pulled into memory whole.
+ *
+ * Supported transfer syntaxes: Implicit VR Little Endian, Explicit VR Little and Big
+ * Endian, Deflated Explicit VR Little Endian, RLE Lossless, and JPEG Baseline/Extended
+ * (8-bit, decoded by ImageIO). Other compressed syntaxes (JPEG Lossless, JPEG-LS,
+ * JPEG 2000) are rejected with an IOException.
+ *
+ * Grayscale films are rescaled (Rescale Slope/Intercept) and mapped to 8 bits with the
+ * file's Window Center/Width, or with the pixel value range when the file has no window.
+ * MONOCHROME1 films are inverted so bone is always bright.
+ */
+public final class DicomReader {
+    private static final String IMPLICIT_VR_LITTLE_ENDIAN = "1.2.840.10008.1.2";
+    private static final String EXPLICIT_VR_LITTLE_ENDIAN = "1.2.840.10008.1.2.1";
+    private static final String DEFLATED_EXPLICIT_VR_LITTLE_ENDIAN = "1.2.840.10008.1.2.1.99";
+    private static final String EXPLICIT_VR_BIG_ENDIAN = "1.2.840.10008.1.2.2";
+    private static final String JPEG_BASELINE = "1.2.840.10008.1.2.4.50";
+    private static final String JPEG_EXTENDED = "1.2.840.10008.1.2.4.51";
+    private static final String RLE_LOSSLESS = "1.2.840.10008.1.2.5";
+
+    private static final int TRANSFER_SYNTAX_UID = 0x00020010;
+    private static final int SAMPLES_PER_PIXEL = 0x00280002;
+    private static final int PHOTOMETRIC_INTERPRETATION = 0x00280004;
+    private static final int PLANAR_CONFIGURATION = 0x00280006;
+    private static final int NUMBER_OF_FRAMES = 0x00280008;
+    private static final int ROWS = 0x00280010;
+    private static final int COLUMNS = 0x00280011;
+    private static final int BITS_ALLOCATED = 0x00280100;
+    private static final int BITS_STORED = 0x00280101;
+    private static final int PIXEL_REPRESENTATION = 0x00280103;
+    private static final int WINDOW_CENTER = 0x00281050;
+    private static final int WINDOW_WIDTH = 0x00281051;
+    private static final int RESCALE_INTERCEPT = 0x00281052;
+    private static final int RESCALE_SLOPE = 0x00281053;
+    private static final int PIXEL_DATA = 0x7FE00010;
+    private static final int ITEM = 0xFFFEE000;
+    private static final int ITEM_DELIMITATION = 0xFFFEE00D;
+    private static final int SEQUENCE_DELIMITATION = 0xFFFEE0DD;
+
+    private static final long UNDEFINED_LENGTH = 0xFFFFFFFFL;
+    private static final int PREAMBLE_LENGTH = 128;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Largest frame decoded, far above a 4k x 4k 16-bit film; a header asking for more is
+    // malformed or hostile and must not make the reader allocate it
+    private static final long MAX_FRAME_BYTES = 256L * 1024 * 1024;
+    // Longest text value read (UIDs, codes, numbers)
+    private static final long MAX_STRING_LENGTH = 64 * 1024;
+
+    private DicomReader() {
+    }
+
+    /**
+     * True if the file starts with the DICOM preamble and "DICM" marker
+     */
+    public static boolean isDicom(File file) {
+        if (!file.isFile() || file.length() < PREAMBLE_LENGTH + 4) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] header = in.readNBytes(PREAMBLE_LENGTH + 4);
+            return header.length == PREAMBLE_LENGTH + 4
+                && header[128] == 'D' && header[129] == 'I' && header[130] == 'C' && header[131] == 'M';
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decodes the first frame of a DICOM file
+     * @return 8-bit grayscale image (or RGB for color files) ready for display
+     * @throws IOException if the file cannot be read, is not DICOM, or uses an unsupported encoding
+     */
+    public static BufferedImage read(File file) throws IOException {
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE)) {
+            byte[] header = fileIn.readNBytes(PREAMBLE_LENGTH + 4);
+            if (header.length < PREAMBLE_LENGTH + 4 || header[128] != 'D' || header[129] != 'I'
+                    || header[130] != 'C' || header[131] != 'M') {
+                throw new IOException("Not a DICOM file: " + file.getName());
+            }
+
+            // File meta information is always Explicit VR Little Endian
+            DicomInput meta = new DicomInput(fileIn, false, true);
+            String transferSyntax = readTransferSyntax(meta);
+
+            switch (transferSyntax) {
+                case IMPLICIT_VR_LITTLE_ENDIAN:
+                    return readDataset(new DicomInput(fileIn, false, false), transferSyntax);
+                case EXPLICIT_VR_LITTLE_ENDIAN:
+                case JPEG_BASELINE:
+                case JPEG_EXTENDED:
+                case RLE_LOSSLESS:
+                    return readDataset(new DicomInput(fileIn, false, true), transferSyntax);
+                case EXPLICIT_VR_BIG_ENDIAN:
+                    return readDataset(new DicomInput(fileIn, true, true), transferSyntax);
+                case DEFLATED_EXPLICIT_VR_LITTLE_ENDIAN:
+                    Inflater inflater = new Inflater(true);
+                    try {
+                        InputStream inflated = new BufferedInputStream(new InflaterInputStream(fileIn, inflater, BUFFER_SIZE), BUFFER_SIZE);
+                        return readDataset(new DicomInput(inflated, false, true), transferSyntax);
+                    } finally {
+                        inflater.end();
+                    }
+                default:
+                    throw new IOException("Unsupported DICOM transfer syntax " + transferSyntax);
+            }
+        }
+    }
+
+    private static String readTransferSyntax(DicomInput meta) throws IOException {
+        String transferSyntax = null;
+        while (meta.peekGroup() == 0x0002) {
+            ElementHeader element = meta.readHeader();
+            if (element.length == UNDEFINED_LENGTH) {
+                throw new IOException("Malformed DICOM file meta information");
+            }
+            if (element.tag == TRANSFER_SYNTAX_UID) {
+                transferSyntax = meta.readString(element.length);
+            } else {
+                meta.skipFully(element.length);
+            }
+        }
+        if (transferSyntax == null) {
+            throw new IOException("DICOM file has no transfer syntax");
+        }
+        return transferSyntax;
+    }
+
+    private static BufferedImage readDataset(DicomInput in, String transferSyntax) throws IOException {
+        ImageAttributes attributes = new ImageAttributes();
+        while (true) {
+            ElementHeader element;
+            try {
+                element = in.readHeader();
+            } catch (EOFException e) {
+                throw new IOException("DICOM file has no pixel data");
+            }
+
+            if (element.tag == PIXEL_DATA) {
+                return decodePixelData(in, element, attributes, transferSyntax);
+            }
+            if (element.length == UNDEFINED_LENGTH) {
+                skipSequence(in);
+                continue;
+            }
+
+            switch (element.tag) {
+                case SAMPLES_PER_PIXEL:
+                    attributes.samplesPerPixel = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case PLANAR_CONFIGURATION:
+                    attributes.planarConfiguration = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case ROWS:
+                    attributes.rows = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case COLUMNS:
+                    attributes.columns = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case BITS_ALLOCATED:
+                    attributes.bitsAllocated = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case BITS_STORED:
+                    attributes.bitsStored = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case PIXEL_REPRESENTATION:
+                    attributes.pixelRepresentation = in.readUInt16();
+                    in.skipFully(element.length - 2);
+                    break;
+                case PHOTOMETRIC_INTERPRETATION:
+                    attributes.photometricInterpretation = in.readString(element.length);
+                    break;
+                case NUMBER_OF_FRAMES:
+                    attributes.frames = (int) parseNumber(in.readString(element.length), 1);
+                    break;
+                case WINDOW_CENTER:
+                    attributes.windowCenter = parseNumber(in.readString(element.length), Double.NaN);
+                    break;
+                case WINDOW_WIDTH:
+                    attributes.windowWidth = parseNumber(in.readString(element.length), Double.NaN);
+                    break;
+                case RESCALE_INTERCEPT:
+                    attributes.rescaleIntercept = parseNumber(in.readString(element.length), 0);
+                    break;
+                case RESCALE_SLOPE:
+                    attributes.rescaleSlope = parseNumber(in.readString(element.length), 1);
+                    break;
+                default:
+                    in.skipFully(element.length);
+            }
+        }
+    }
+
+    /**
+     * Skips a sequence of undefined length, including any nested sequences
+     */
+    private static void skipSequence(DicomInput in) throws IOException {
+        while (true) {
+            ElementHeader item = in.readHeader();
+            if (item.tag == SEQUENCE_DELIMITATION) {
+                return;
+            }
+            if (item.tag != ITEM) {
+                throw new IOException("Malformed DICOM sequence");
+            }
+            if (item.length == UNDEFINED_LENGTH) {
+                skipItem(in);
+            } else {
+                in.skipFully(item.length);
+            }
+        }
+    }
+
+    private static void skipItem(DicomInput in) throws IOException {
+        while (true) {
+            ElementHeader element = in.readHeader();
+            if (element.tag == ITEM_DELIMITATION) {
+                return;
+            }
+            if (element.length == UNDEFINED_LENGTH) {
+                skipSequence(in);
+            } else {
+                in.skipFully(element.length);
+            }
+        }
+    }
+
+    private static BufferedImage decodePixelData(DicomInput in, ElementHeader element,
+                                                 ImageAttributes attributes, String transferSyntax) throws IOException {
+        if (attributes.rows <= 0 || attributes.columns <= 0) {
+            throw new IOException("DICOM image has no dimensions");
+        }
+        if (attributes.bitsAllocated != 8 && attributes.bitsAllocated != 16) {
+            throw new IOException("Unsupported DICOM bits allocated: " + attributes.bitsAllocated);
+        }
+        if (attributes.samplesPerPixel != 1 && attributes.samplesPerPixel != 3) {
+            throw new IOException("Unsupported DICOM samples per pixel: " + attributes.samplesPerPixel);
+        }
+        // Rows and columns are unsigned 16-bit, so the size is computed in long
+        long frameLength = (long) attributes.rows * attributes.columns * attributes.samplesPerPixel * (attributes.bitsAllocated / 8);
+        if (frameLength > MAX_FRAME_BYTES) {
+            throw new IOException("DICOM image too large: " + attributes.columns + "x" + attributes.rows);
+        }
+
+        if (element.length != UNDEFINED_LENGTH) {
+            // Native pixel data: read exactly one frame and leave the rest of the file unread
+            if (element.length < frameLength) {
+                throw new IOException("Truncated DICOM pixel data");
+            }
+            byte[] frame = new byte[(int) frameLength];
+            in.readFully(frame, 0, frame.length);
+            return decodeNative(attributes, frame, in.bigEndian);
+        }
+
+        byte[] frame = readFirstFragmentedFrame(in, attributes.frames);
+        switch (transferSyntax) {
+            case RLE_LOSSLESS:
+                // RLE frames decode to one plane per sample, least significant byte first
+                attributes.planarConfiguration = 1;
+                return decodeNative(attributes, decodeRle(frame, attributes), false);
+            case JPEG_BASELINE:
+            case JPEG_EXTENDED:
+                return decodeJpeg(attributes, frame);
+            default:
+                throw new IOException("Unsupported compressed DICOM transfer syntax " + transferSyntax);
+        }
+    }
+
+    /**
+     * Reads the fragments of the first frame of encapsulated pixel data
+     */
+    private static byte[] readFirstFragmentedFrame(DicomInput in, int frames) throws IOException {
+        ElementHeader offsetTable = in.readHeader();
+        if (offsetTable.tag != ITEM || offsetTable.length == UNDEFINED_LENGTH) {
+            throw new IOException("Malformed encapsulated DICOM pixel data");
+        }
+        // The second offset (if any) is where frame 2 starts, relative to the first fragment
+        long secondFrameOffset = -1;
+        if (offsetTable.length >= 8) {
+            in.readUInt32();
+            secondFrameOffset = in.readUInt32();
+            in.skipFully(offsetTable.length - 8);
+        } else {
+            in.skipFully(offsetTable.length);
+        }
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        long position = 0;
+        while (true) {
+            ElementHeader fragment = in.readHeader();
+            if (fragment.tag == SEQUENCE_DELIMITATION) {
+                break;
+            }
+            if (fragment.tag != ITEM || fragment.length == UNDEFINED_LENGTH) {
+                throw new IOException("Malformed encapsulated DICOM pixel data");
+            }
+            if (fragment.length > MAX_FRAME_BYTES - frame.size()) {
+                throw new IOException("DICOM pixel data too large");
+            }
+            byte[] data = new byte[(int) fragment.length];
+            in.readFully(data, 0, data.length);
+            frame.write(data, 0, data.length);
+            position += 8 + fragment.length;
+
+            // Multi-frame: stop at the end of frame 1 (one fragment per frame if there is no offset table)
+            if (frames > 1 && (secondFrameOffset < 0 || position >= secondFrameOffset)) {
+                break;
+            }
+        }
+        if (frame.size() == 0) {
+            throw new IOException("DICOM pixel data is empty");
+        }
+        return frame.toByteArray();
+    }
+
+    private static BufferedImage decodeNative(ImageAttributes attributes, byte[] data, boolean bigEndian) throws IOException {
+        if (attributes.samplesPerPixel == 3) {
+            return decodeRgb(attributes, data);
+        }
+        if (attributes.samplesPerPixel != 1 || !attributes.isMonochrome()) {
+            throw new IOException("Unsupported DICOM photometric interpretation " + attributes.photometricInterpretation);
+        }
+
+        int pixels = attributes.rows * attributes.columns;
+        boolean wide = attributes.bitsAllocated == 16;
+        int bitsStored = attributes.bitsStored > 0 ? Math.min(attributes.bitsStored, attributes.bitsAllocated) : attributes.bitsAllocated;
+        int mask = (1 << bitsStored) - 1;
+
+        int[] storedValues = null;
+        if (!attributes.hasWindow()) {
+            // No window in the file: stretch the values that actually occur
+            storedValues = new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE};
+            for (int p = 0; p < pixels; p++) {
+                int value = signed(storedValue(data, p, wide, bigEndian) & mask, bitsStored, attributes.pixelRepresentation);
+                storedValues[0] = Math.min(storedValues[0], value);
+                storedValues[1] = Math.max(storedValues[1], value);
+            }
+        }
+        byte[] lut = buildLut(attributes, bitsStored, storedValues);
+
+        BufferedImage image = new BufferedImage(attributes.columns, attributes.rows, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] out = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int p = 0; p < pixels; p++) {
+            out[p] = lut[storedValue(data, p, wide, bigEndian) & mask];
+        }
+        return image;
+    }
+
+    /**
+     * Maps every stored value to its display byte: sign, rescale, window, then MONOCHROME1 inversion
+     * @param range Minimum and maximum signed stored value, used when the file has no window
+     */
+    private static byte[] buildLut(ImageAttributes attributes, int bitsStored, int[] range) {
+        double center;
+        double width;
+        if (range == null) {
+            center = attributes.windowCenter;
+            width = attributes.windowWidth;
+        } else {
+            double low = range[0] * attributes.rescaleSlope + attributes.rescaleIntercept;
+            double high = range[1] * attributes.rescaleSlope + attributes.rescaleIntercept;
+            center = (low + high) / 2 + 0.5;
+            width = Math.abs(high - low) + 1;
+        }
+        boolean invert = "MONOCHROME1".equals(attributes.photometricInterpretation);
+
+        byte[] lut = new byte[1 << bitsStored];
+        for (int stored = 0; stored < lut.length; stored++) {
+            double value = signed(stored, bitsStored, attributes.pixelRepresentation) * attributes.rescaleSlope
+                + attributes.rescaleIntercept;
+            int display = applyWindow(value, center, width);
+            lut[stored] = (byte) (invert ? 255 - display : display);
+        }
+        return lut;
+    }
+
+    /**
+     * Linear VOI window as defined by DICOM PS3.3 C.11.2.1.2
+     */
+    private static int applyWindow(double value, double center, double width) {
+        if (width <= 1) {
+            return value < center - 0.5 ? 0 : 255;
+        }
+        double low = center - 0.5 - (width - 1) / 2;
+        double high = center - 0.5 + (width - 1) / 2;
+        if (value <= low) {
+            return 0;
+        }
+        if (value > high) {
+            return 255;
+        }
+        int display = (int) Math.round(((value - (center - 0.5)) / (width - 1) + 0.5) * 255);
+        return Math.max(0, Math.min(255, display));
+    }
+
+    private static int storedValue(byte[] data, int pixel, boolean wide, boolean bigEndian) {
+        if (!wide) {
+            return data[pixel] & 0xFF;
+        }
+        int first = data[2 * pixel] & 0xFF;
+        int second = data[2 * pixel + 1] & 0xFF;
+        return bigEndian ? (first << 8) | second : (second << 8) | first;
+    }
+
+    private static int signed(int stored, int bitsStored, int pixelRepresentation) {
+        if (pixelRepresentation == 1 && (stored & (1 << (bitsStored - 1))) != 0) {
+            return stored - (1 << bitsStored);
+        }
+        return stored;
+    }
+
+    private static BufferedImage decodeRgb(ImageAttributes attributes, byte[] data) throws IOException {
+        if (attributes.bitsAllocated != 8 || !"RGB".equals(attributes.photometricInterpretation)) {
+            throw new IOException("Unsupported DICOM color encoding " + attributes.photometricInterpretation);
+        }
+        int pixels = attributes.rows * attributes.columns;
+        BufferedImage image = new BufferedImage(attributes.columns, attributes.rows, BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        boolean planar = attributes.planarConfiguration == 1;
+        for (int p = 0; p < pixels; p++) {
+            int r = data[planar ? p : 3 * p] & 0xFF;
+            int g = data[planar ? pixels + p : 3 * p + 1] & 0xFF;
+            int b = data[planar ? 2 * pixels + p : 3 * p + 2] & 0xFF;
+            out[p] = (r << 16) | (g << 8) | b;
+        }
+        return image;
+    }
+
+    /**
+     * Decodes an RLE Lossless frame (DICOM PS3.5 Annex G) into planar little-endian samples
+     */
+    private static byte[] decodeRle(byte[] frame, ImageAttributes attributes) throws IOException {
+        int pixels = attributes.rows * attributes.columns;
+        int bytesPerSample = attributes.bitsAllocated / 8;
+        int segments = readInt32LittleEndian(frame, 0);
+        if (frame.length < 64 || segments != attributes.samplesPerPixel * bytesPerSample) {
+            throw new IOException("Malformed DICOM RLE frame");
+        }
+
+        byte[] out = new byte[pixels * bytesPerSample * attributes.samplesPerPixel];
+        for (int segment = 0; segment < segments; segment++) {
+            int start = readInt32LittleEndian(frame, 4 + 4 * segment);
+            int end = segment + 1 < segments ? readInt32LittleEndian(frame, 8 + 4 * segment) : frame.length;
+            if (start < 64 || end > frame.length || start > end) {
+                throw new IOException("Malformed DICOM RLE frame");
+            }
+            // Segments hold one byte of each sample, most significant byte first
+            int sample = segment / bytesPerSample;
+            int byteIndex = bytesPerSample - 1 - segment % bytesPerSample;
+            int planeOffset = sample * pixels * bytesPerSample;
+
+            int position = start;
+            int pixel = 0;
+            while (position < end && pixel < pixels) {
+                int header = frame[position++];
+                if (header >= 0) {
+                    int count = Math.min(header + 1, Math.min(pixels - pixel, end - position));
+                    for (int i = 0; i < count; i++) {
+                        out[planeOffset + (pixel++) * bytesPerSample + byteIndex] = frame[position++];
+                    }
+                } else if (header != -128 && position < end) {
+                    byte value = frame[position++];
+                    int count = Math.min(1 - header, pixels - pixel);
+                    for (int i = 0; i < count; i++) {
+                        out[planeOffset + (pixel++) * bytesPerSample + byteIndex] = value;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    private static BufferedImage decodeJpeg(ImageAttributes attributes, byte[] frame) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(frame));
+        if (decoded == null) {
+            throw new IOException("Unsupported DICOM JPEG encoding");
+        }
+        if (decoded.getRaster().getNumBands() != 1) {
+            // Color JPEG: ImageIO has already converted it to RGB
+            return decoded;
+        }
+
+        // Grayscale JPEG: run the 8-bit samples through the same window as native pixel data
+        Raster raster = decoded.getRaster();
+        int[] samples = raster.getSamples(0, 0, raster.getWidth(), raster.getHeight(), 0, (int[]) null);
+        byte[] data = new byte[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            data[i] = (byte) samples[i];
+        }
+        attributes.rows = raster.getHeight();
+        attributes.columns = raster.getWidth();
+        attributes.bitsAllocated = 8;
+        attributes.bitsStored = 8;
+        attributes.samplesPerPixel = 1;
+        attributes.pixelRepresentation = 0;
+        if (!attributes.isMonochrome()) {
+            attributes.photometricInterpretation = "MONOCHROME2";
+        }
+        return decodeNative(attributes, data, false);
+    }
+
+    private static int readInt32LittleEndian(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8
+            | (data[offset + 2] & 0xFF) << 16 | (data[offset + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * Parses the first value of a decimal or integer string attribute (values are separated by '\')
+     */
+    private static double parseNumber(String value, double defaultValue) {
+        String first = value.split("\\\\", 2)[0].trim();
+        try {
+            return first.isEmpty() ? defaultValue : Double.parseDouble(first);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Image attributes collected while streaming through the dataset
+     */
+    private static class ImageAttributes {
+        private int rows;
+        private int columns;
+        private int samplesPerPixel = 1;
+        private int bitsAllocated = 16;
+        private int bitsStored;
+        private int pixelRepresentation;
+        private int planarConfiguration;
+        private int frames = 1;
+        private String photometricInterpretation = "MONOCHROME2";
+        private double windowCenter = Double.NaN;
+        private double windowWidth = Double.NaN;
+        private double rescaleIntercept = 0;
+        private double rescaleSlope = 1;
+
+        boolean isMonochrome() {
+            return "MONOCHROME1".equals(photometricInterpretation) || "MONOCHROME2".equals(photometricInterpretation);
+        }
+
+        boolean hasWindow() {
+            return !Double.isNaN(windowCenter) && !Double.isNaN(windowWidth) && windowWidth > 0;
+        }
+    }
+
+    private static class ElementHeader {
+        private final int tag;
+        private final long length;
+
+        ElementHeader(int tag, long length) {
+            this.tag = tag;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Reads data element headers and values in the byte order and VR encoding of the dataset
+     */
+    private static class DicomInput {
+        private final InputStream in;
+        private final boolean bigEndian;
+        private final boolean explicitVr;
+        private final byte[] scratch = new byte[4];
+
+        DicomInput(InputStream in, boolean bigEndian, boolean explicitVr) {
+            this.in = in;
+            this.bigEndian = bigEndian;
+            this.explicitVr = explicitVr;
+        }
+
+        /**
+         * Group number of the next element, without consuming it
+         */
+        int peekGroup() throws IOException {
+            in.mark(2);
+            int first = in.read();
+            int second = in.read();
+            in.reset();
+            if (second < 0) {
+                return -1;
+            }
+            return bigEndian ? (first << 8) | second : (second << 8) | first;
+        }
+
+        ElementHeader readHeader() throws IOException {
+            int group = readUInt16();
+            int tag = (group << 16) | readUInt16();
+            // Items and delimiters never carry a VR
+            if (!explicitVr || group == 0xFFFE) {
+                return new ElementHeader(tag, readUInt32());
+            }
+            readFully(scratch, 0, 2);
+            String vr = new String(scratch, 0, 2, StandardCharsets.US_ASCII);
+            switch (vr) {
+                case "OB": case "OD": case "OF": case "OL": case "OV": case "OW":
+                case "SQ": case "SV": case "UC": case "UN": case "UR": case "UT": case "UV":
+                    skipFully(2);
+                    return new ElementHeader(tag, readUInt32());
+                default:
+                    return new ElementHeader(tag, readUInt16());
+            }
+        }
+
+        int readUInt16() throws IOException {
+            readFully(scratch, 0, 2);
+            int first = scratch[0] & 0xFF;
+            int second = scratch[1] & 0xFF;
+            return bigEndian ? (first << 8) | second : (second << 8) | first;
+        }
+
+        long readUInt32() throws IOException {
+            readFully(scratch, 0, 4);
+            long value = 0;
+            for (int i = 0; i < 4; i++) {
+                int b = scratch[bigEndian ? i : 3 - i] & 0xFF;
+                value = (value << 8) | b;
+            }
+            return value;
+        }
+
+        String readString(long length) throws IOException {
+            if (length > MAX_STRING_LENGTH) {
+                throw new IOException("Malformed DICOM text value of " + length + " bytes");
+            }
+            byte[] value = new byte[(int) length];
+            readFully(value, 0, value.length);
+            return new String(value, StandardCharsets.US_ASCII).replace('\0', ' ').trim();
+        }
+
+        void readFully(byte[] buffer, int offset, int length) throws IOException {
+            while (length > 0) {
+                int read = in.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of DICOM file");
+                }
+                offset += read;
+                length -= read;
+            }
+        }
+
+        void skipFully(long length) throws IOException {
+            while (length > 0) {
+                long skipped = in.skip(length);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException("Unexpected end of DICOM file");
+                    }
+                    skipped = 1;
+                }
+                length -= skipped;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.hospital.appointment.imaging;
+
+import javafx.scene.image.Image;
+import java.io.File;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ImageCache - Decoded X-ray images shared by the views
+ *
+ * Images are loaded in the background (JavaFX background loading) from the best-fitting
+ * rendition, so selecting a row never decodes a full-resolution film on the FX thread.
+ * Decoded images are kept in least-recently-used order and evicted once their pixel data
+ * exceeds -Dhms.ui.imageCacheMB (default 256). Originals uploaded before renditions
+ * existed (or DICOM films still being converted) get their renditions generated the
+ * first time they are shown.
+ *
+ * Must be used from the FX thread.
+ */
+public class ImageCache {
+    private static ImageCache instance;
+
+    private final long maxBytes;
+    private long currentBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Originals we already tried to generate renditions for in this session
+    private final Set<String> renditionRequests = new HashSet<>();
+
+    private ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static synchronized ImageCache getInstance() {
+        if (instance == null) {
+            instance = new ImageCache(Math.max(1, Long.getLong("hms.ui.imageCacheMB", 256)) * 1024 * 1024);
+        }
+        return instance;
+    }
+
+    /**
+     * Get an image for display
+     * @param original Uploaded image file
+     * @param width Display width in pixels, or 0 for full resolution
+     * @return Image that may still be loading in the background
+     */
+    public synchronized Image get(File original, int width) {
+        File source = ImageRenditions.renditionFor(original, width);
+        // A full-resolution image is decoded straight to the display width; renditions are already small
+        boolean fullResolution = source.equals(ImageRenditions.renditionFor(original, 0));
+        int requestedWidth = fullResolution ? width : 0;
+        String key = source.getAbsolutePath() + "#" + requestedWidth;
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry.image;
+        }
+
+        if (fullResolution) {
+            requestRenditions(original);
+        }
+
+        Image image = new Image(source.toURI().toString(), requestedWidth, 0, true, true, true);
+        Entry newEntry = new Entry(image, estimateBytes(requestedWidth));
+        entries.put(key, newEntry);
+        currentBytes += newEntry.bytes;
+
+        // Replace the estimate with the real size once decoding finishes
+        image.progressProperty().addListener((obs, oldValue, progress) -> {
+            if (progress.doubleValue() >= 1.0) {
+                onLoaded(key, newEntry);
+            }
+        });
+        evict();
+        return image;
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void onLoaded(String key, Entry entry) {
+        if (entries.get(key) != entry) {
+            return;
+        }
+        if (entry.image.isError()) {
+            entries.remove(key);
+            currentBytes -= entry.bytes;
+            return;
+        }
+        long actual = (long) entry.image.getWidth() * (long) entry.image.getHeight() * 4;
+        currentBytes += actual - entry.bytes;
+        entry.bytes = actual;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        // Always keep the most recent image, even if it alone exceeds the budget
+        while (currentBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            currentBytes -= eldest.bytes;
+        }
+    }
+
+    private void requestRenditions(File original) {
+        if (ImageRenditions.isMissing(original) && renditionRequests.add(original.getAbsolutePath())) {
+            ImageRenditions.generateAsync(original);
+        }
+    }
+
+    private long estimateBytes(int requestedWidth) {
+        // Until decoding finishes, assume a square image of the largest rendition size
+        int side = requestedWidth > 0 ? requestedWidth : ImageRenditions.SIZES[ImageRenditions.SIZES.length - 1];
+        return (long) side * side * 4;
+    }
+
+    private static class Entry {
+        private final Image image;
+        private long bytes;
+
+        Entry(Image image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+}
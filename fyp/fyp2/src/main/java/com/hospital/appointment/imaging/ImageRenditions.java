@@ -0,0 +1,221 @@
+package com.hospital.appointment.imaging;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * ImageRenditions - Downscaled copies of uploaded X-ray images for display
+ *
+ * For uploads/123_..._chest.jpg the renditions are stored as
+ * uploads/renditions/123_..._chest_128.png, _400.png and _1024.png (longest side in pixels).
+ * Views show the smallest rendition that is at least as wide as the control, so the full
+ * film is only decoded when the user zooms in.
+ *
+ * DICOM originals cannot be shown by JavaFX, so they also get a full-resolution PNG
+ * (_full.png) that is used in place of the original.
+ *
+ * Decoding is CPU-bound, so generateAsync runs on its own pool of
+ * -Dhms.imaging.threads (default: number of processors) threads.
+ */
+public final class ImageRenditions {
+    private static final Logger logger = Logger.getLogger(ImageRenditions.class.getName());
+
+    // Longest side of each rendition, smallest first
+    public static final int[] SIZES = {128, 400, 1024};
+
+    private static final String RENDITIONS_DIR = "renditions";
+    private static final String FULL_SUFFIX = "full";
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService DECODE_POOL = Executors.newFixedThreadPool(
+        Math.max(1, Integer.getInteger("hms.imaging.threads", Runtime.getRuntime().availableProcessors())), r -> {
+            Thread t = new Thread(r, "imaging-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+    private ImageRenditions() {
+    }
+
+    /**
+     * Decodes an X-ray for display or inference: DICOM through DicomReader, anything else through ImageIO
+     * @return Decoded image, or null if the format is not supported
+     * @throws IOException if the file cannot be read or its DICOM encoding is unsupported
+     */
+    public static BufferedImage decode(File imageFile) throws IOException {
+        if (DicomReader.isDicom(imageFile)) {
+            return DicomReader.read(imageFile);
+        }
+        return ImageIO.read(imageFile);
+    }
+
+    /**
+     * Generates renditions on the imaging pool
+     */
+    public static void generateAsync(File original) {
+        DECODE_POOL.execute(() -> generate(original));
+    }
+
+    /**
+     * Creates every rendition smaller than the original. Existing renditions are kept.
+     * @return true if the original could be decoded
+     */
+    public static boolean generate(File original) {
+        BufferedImage source;
+        try {
+            source = decode(original);
+        } catch (IOException e) {
+            logger.warning("Cannot read " + original + " for renditions: " + e.getMessage());
+            return false;
+        }
+        if (source == null) {
+            // No reader for this format
+            return false;
+        }
+
+        if (DicomReader.isDicom(original)) {
+            File full = fullRenditionFile(original);
+            if (!full.exists()) {
+                try {
+                    write(source, full);
+                } catch (IOException e) {
+                    logger.warning("Failed to write rendition " + full + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // Work from the largest rendition down, so each step starts from a smaller image
+        BufferedImage current = source;
+        for (int i = SIZES.length - 1; i >= 0; i--) {
+            int size = SIZES[i];
+            int longest = Math.max(source.getWidth(), source.getHeight());
+            if (longest <= size) {
+                continue;
+            }
+            File target = renditionFile(original, size);
+            if (target.exists()) {
+                continue;
+            }
+            current = scaleToLongestSide(current, size);
+            try {
+                write(current, target);
+            } catch (IOException e) {
+                logger.warning("Failed to write rendition " + target + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks the file to display an image at the given width
+     * @param width Display width in pixels, or 0 for full resolution
+     * @return Smallest existing rendition at least that wide, or the full-resolution image
+     */
+    public static File renditionFor(File original, int width) {
+        if (width > 0) {
+            for (int size : SIZES) {
+                if (size >= width) {
+                    File rendition = renditionFile(original, size);
+                    if (rendition.exists()) {
+                        return rendition;
+                    }
+                }
+            }
+        }
+        File full = fullRenditionFile(original);
+        return full.exists() ? full : original;
+    }
+
+    /**
+     * True if the original is large enough to need renditions but none exist yet
+     */
+    public static boolean isMissing(File original) {
+        if (isDicomName(original) && !fullRenditionFile(original).exists()) {
+            return true;
+        }
+        return !renditionFile(original, SIZES[0]).exists() && !renditionFile(original, SIZES[SIZES.length - 1]).exists();
+    }
+
+    /**
+     * Every rendition file an original may have, whether or not it exists
+     */
+    public static List<File> renditionFiles(File original) {
+        List<File> files = new ArrayList<>();
+        for (int size : SIZES) {
+            files.add(renditionFile(original, size));
+        }
+        files.add(fullRenditionFile(original));
+        return files;
+    }
+
+    public static File renditionFile(File original, int size) {
+        return renditionFile(original, String.valueOf(size));
+    }
+
+    private static File fullRenditionFile(File original) {
+        return renditionFile(original, FULL_SUFFIX);
+    }
+
+    private static File renditionFile(File original, String suffix) {
+        String baseName = original.getName().replaceFirst("\\.[^.]*$", "");
+        File dir = new File(original.getAbsoluteFile().getParentFile(), RENDITIONS_DIR);
+        return new File(dir, baseName + "_" + suffix + ".png");
+    }
+
+    private static boolean isDicomName(File file) {
+        return file.getName().toLowerCase().endsWith(".dcm");
+    }
+
+    private static BufferedImage scaleToLongestSide(BufferedImage image, int size) {
+        double scale = (double) size / Math.max(image.getWidth(), image.getHeight());
+        if (scale >= 1.0) {
+            return image;
+        }
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // Halve first so bilinear filtering does not skip source pixels
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return resize(current, width, height);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        int type = image.getType() == BufferedImage.TYPE_BYTE_GRAY ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+
+    private static void write(BufferedImage image, File target) throws IOException {
+        File dir = target.getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        // Write next to the target and rename, so a reader never sees a half-written file
+        File temp = File.createTempFile("rendition", ".tmp", dir);
+        try {
+            ImageIO.write(image, "png", temp);
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.hospital.appointment.ingest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.hospital.appointment.api.PneumoniaDetectionAPI;
+import com.hospital.appointment.concurrent.InferenceWorker;
+import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.XrayImageDAO;
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.imaging.ImageRenditions;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.XrayImage;
+import com.hospital.appointment.storage.BlobStore;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * FolderIngestService - Imports X-ray films dropped into a shared folder
+ *
+ * Radiology copies films into -Dhms.ingest.dir. A watcher thread (java.nio WatchService)
+ * puts each new file on a bounded queue, and a pool of ingest workers stores it in the
+ * BlobStore, records the xray_images row and queues its inference job. InferenceWorker then
+ * writes the AI report and moves the appointment to UPLOADED, exactly as for a nurse upload.
+ * When the queue is full the watcher blocks, so a burst of films is taken in at the pace
+ * the workers and the database pool can sustain.
+ *
+ * A film is matched to its appointment by a sidecar manifest next to it, &lt;film&gt;.json
+ * (e.g. {"appointmentId": 42, "nurseId": 3}), or else by a file name that starts with the
+ * appointment id (42_chest.dcm, 42-pa.png). Imported films are moved to processed/; films
+ * that cannot be imported are moved to failed/ with a .error.txt note. A film that could
+ * not be stored or saved (blob store or database unavailable) stays in the folder and is
+ * tried again with exponential backoff. Files already in the folder when the service
+ * starts are imported too. Only one service may watch a given folder.
+ *
+ * Settings (system properties):
+ *   hms.ingest.dir           folder to watch; the service stays off when unset
+ *   hms.ingest.nurseId       nurse recorded as uploader when the manifest names none
+ *   hms.ingest.workers       ingest threads (default: number of processors)
+ *   hms.ingest.queueSize     films waiting for a worker before the watcher blocks (default 64)
+ *   hms.ingest.settleMillis  how long a file must stay unchanged before import (default 2000)
+ *   hms.ingest.retryMillis   delay before the first retry of a film that could not be saved,
+ *                            doubled each attempt (default 30000)
+ *   hms.ingest.maxRetryMillis  upper bound on the retry delay (default 1800000)
+ *
+ * Runs inside the desktop app, or on its own through main().
+ */
+public class FolderIngestService {
+    private static final Logger logger = Logger.getLogger(FolderIngestService.class.getName());
+    private static final Pattern APPOINTMENT_PREFIX = Pattern.compile("^(\\d+)(?:[_\\-. ].*)?$");
+    private static final String MANIFEST_SUFFIX = ".json";
+    private static FolderIngestService instance;
+
+    private final String directory = System.getProperty("hms.ingest.dir");
+    private final Integer defaultNurseId = Integer.getInteger("hms.ingest.nurseId");
+    private final int workers = Math.max(1, Integer.getInteger("hms.ingest.workers", Runtime.getRuntime().availableProcessors()));
+    private final int queueSize = Math.max(1, Integer.getInteger("hms.ingest.queueSize", 64));
+    private final long settleMillis = Math.max(0, Long.getLong("hms.ingest.settleMillis", 2_000));
+    private final long retryMillis = Math.max(1, Long.getLong("hms.ingest.retryMillis", 30_000));
+    private final long maxRetryMillis = Math.max(retryMillis, Long.getLong("hms.ingest.maxRetryMillis", 1_800_000));
+
+    private final XrayImageDAO xrayImageDAO = DaoFactory.getInstance().getXrayImageDAO();
+    private final AppointmentDAO appointmentDAO = DaoFactory.getInstance().getAppointmentDAO();
+    private final Gson gson = new Gson();
+
+    // Files queued or being imported, so repeated watch events do not import a film twice
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    // Failed attempts of films waiting to be retried
+    private final Map<Path, Integer> attempts = new ConcurrentHashMap<>();
+    private BlockingQueue<Path> queue;
+    private Path root;
+    private Path processedDir;
+    private Path failedDir;
+    private WatchService watchService;
+    private Thread watcher;
+    private ExecutorService executor;
+    private volatile ScheduledExecutorService retryScheduler;
+
+    /**
+     * Sidecar manifest naming the appointment (and optionally the uploader) of a film
+     */
+    private static class Manifest {
+        private Integer appointmentId;
+        private Integer nurseId;
+    }
+
+    private FolderIngestService() {
+    }
+
+    public static synchronized FolderIngestService getInstance() {
+        if (instance == null) {
+            instance = new FolderIngestService();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts watching the ingest folder
+     * @return true if the service is running, false if hms.ingest.dir is not set or cannot be watched
+     */
+    public synchronized boolean start() {
+        if (executor != null) {
+            return true;
+        }
+        if (directory == null || directory.trim().isEmpty()) {
+            return false;
+        }
+        try {
+            root = Paths.get(directory).toAbsolutePath();
+            processedDir = root.resolve("processed");
+            failedDir = root.resolve("failed");
+            Files.createDirectories(processedDir);
+            Files.createDirectories(failedDir);
+            watchService = root.getFileSystem().newWatchService();
+            root.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Cannot watch ingest folder " + directory, e);
+            return false;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueSize);
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "ingest-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ingest-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        watcher = new Thread(this::watch, "ingest-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching " + root + " for X-ray films with " + workers + " ingest worker(s)");
+        return true;
+    }
+
+    public synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        watcher.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.fine("Failed to close watch service: " + e.getMessage());
+        }
+        executor.shutdownNow();
+        executor = null;
+        // Films waiting for a retry are still in the folder; the next start picks them up
+        retryScheduler.shutdownNow();
+        pending.clear();
+        attempts.clear();
+    }
+
+    /**
+     * Blocks until the service is shut down
+     */
+    public void awaitShutdown() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            current = watcher;
+        }
+        if (current != null) {
+            current.join();
+        }
+    }
+
+    private void watch() {
+        try {
+            // Films copied in while the service was not running
+            scan();
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were dropped; look at the whole folder again
+                        scan();
+                    } else {
+                        submit(root.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Ingest folder watcher stopped", e);
+        }
+    }
+
+    private void scan() throws IOException, InterruptedException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                submit(file);
+            }
+        }
+    }
+
+    /**
+     * Queues a film for import, waiting while the queue is full
+     */
+    private void submit(Path file) throws InterruptedException {
+        String name = file.getFileName().toString();
+        if (name.startsWith(".") || name.endsWith(MANIFEST_SUFFIX) || name.endsWith(".tmp") || name.endsWith(".part")
+                || !Files.isRegularFile(file)) {
+            return;
+        }
+        if (pending.add(file)) {
+            queue.put(file);
+        }
+    }
+
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Path file = queue.take();
+                boolean finished = true;
+                try {
+                    if (awaitSettled(file)) {
+                        finished = ingest(file);
+                    }
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Failed to ingest " + file, e);
+                } finally {
+                    // A film waiting for a retry stays pending, so watch events do not queue it twice
+                    if (finished) {
+                        attempts.remove(file);
+                        pending.remove(file);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until a file has not been modified for settleMillis, so a film still being copied is not imported
+     * @return false if the file disappeared
+     */
+    private boolean awaitSettled(Path file) throws InterruptedException {
+        while (true) {
+            try {
+                long age = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+                if (age >= settleMillis) {
+                    return true;
+                }
+                Thread.sleep(settleMillis - age);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return false if the film was left in the folder to be retried
+     */
+    private boolean ingest(Path file) {
+        Path manifestFile = file.resolveSibling(file.getFileName() + MANIFEST_SUFFIX);
+        Manifest manifest;
+        try {
+            manifest = readManifest(manifestFile);
+        } catch (IOException | JsonParseException e) {
+            moveToFailed(file, manifestFile, "Unreadable manifest: " + e.getMessage());
+            return true;
+        }
+
+        Integer appointmentId = manifest != null && manifest.appointmentId != null
+            ? manifest.appointmentId : appointmentIdFromName(file.getFileName().toString());
+        if (appointmentId == null) {
+            moveToFailed(file, manifestFile, "No appointment id in the file name or a manifest");
+            return true;
+        }
+        Integer nurseId = manifest != null && manifest.nurseId != null ? manifest.nurseId : defaultNurseId;
+        if (nurseId == null) {
+            moveToFailed(file, manifestFile, "No uploader: set hms.ingest.nurseId or nurseId in the manifest");
+            return true;
+        }
+
+        Appointment appointment = appointmentDAO.findById(appointmentId);
+        if (appointment == null) {
+            moveToFailed(file, manifestFile, "Appointment " + appointmentId + " not found");
+            return true;
+        }
+        // Same rule as the nurse upload screen: only completed appointments take X-rays
+        if (appointment.getStatus() != Appointment.Status.COMPLETED && appointment.getStatus() != Appointment.Status.UPLOADED) {
+            moveToFailed(file, manifestFile, "Appointment " + appointmentId + " is " + appointment.getStatus());
+            return true;
+        }
+
+        BlobStore blobStore = BlobStore.getInstance();
+        String reference;
+        try {
+            reference = blobStore.put(file.toFile());
+        } catch (IOException e) {
+            return retryLater(file, "Failed to store film: " + e.getMessage());
+        }
+
+        XrayImage xrayImage = new XrayImage();
+        xrayImage.setAppointmentId(appointmentId);
+        xrayImage.setUploadedBy(nurseId);
+        xrayImage.setImagePath(reference);
+        xrayImage.setUploadDate(LocalDateTime.now());
+        // The image row and its inference job are committed together
+        if (xrayImageDAO.createAndQueue(List.of(xrayImage)) == null) {
+            blobStore.release(reference);
+            return retryLater(file, "Failed to save X-ray image to database");
+        }
+
+        InferenceWorker.getInstance().wakeUp();
+        ImageRenditions.generateAsync(blobStore.resolve(reference));
+        move(file, processedDir);
+        move(manifestFile, processedDir);
+        logger.info("Imported " + file.getFileName() + " for appointment " + appointmentId);
+        return true;
+    }
+
+    /**
+     * Leaves a film that could not be stored or saved in the folder, and queues it again
+     * after an exponential backoff
+     * @return false, the film is not finished
+     */
+    private boolean retryLater(Path file, String reason) {
+        int attempt = attempts.merge(file, 1, Integer::sum);
+        long delay = Math.min(maxRetryMillis, retryMillis << Math.min(attempt - 1, 30));
+        logger.warning("Could not ingest " + file.getFileName() + " (attempt " + attempt + "), retrying in "
+            + delay / 1000 + "s: " + reason);
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    queue.put(file);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the film is still in the folder for the next start
+        }
+        return false;
+    }
+
+    private Manifest readManifest(Path manifestFile) throws IOException {
+        if (!Files.exists(manifestFile)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Manifest.class);
+        }
+    }
+
+    private static Integer appointmentIdFromName(String name) {
+        Matcher matcher = APPOINTMENT_PREFIX.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void moveToFailed(Path file, Path manifestFile, String reason) {
+        logger.warning("Could not ingest " + file.getFileName() + ": " + reason);
+        move(file, failedDir);
+        move(manifestFile, failedDir);
+        try {
+            Files.writeString(failedDir.resolve(file.getFileName() + ".error.txt"), reason + System.lineSeparator(),
+                StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warning("Failed to write error note for " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private void move(Path file, Path targetDir) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.move(file, targetDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warning("Failed to move " + file + " to " + targetDir + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the ingest service without the desktop UI, until the process is stopped
+     */
+    public static void main(String[] args) throws InterruptedException {
+        DatabaseManager.getInstance().initializeDatabase();
+        InferenceWorker.getInstance().start();
+        FolderIngestService service = getInstance();
+        if (!service.start()) {
+            logger.severe("Set -Dhms.ingest.dir to a folder that can be watched");
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            service.shutdown();
+            InferenceWorker.getInstance().shutdown();
+            PneumoniaDetectionAPI.shutdown();
+            DatabaseManager.getInstance().closeConnection();
+        }));
+        service.awaitShutdown();
+    }
+}
@@ -1,6 +1,7 @@
 package com.hospital.appointment.models;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 public class Appointment {
@@ -9,7 +10,7 @@ public class Appointment {
     private LocalDate appointmentDate;
     private LocalTime appointmentTime;
     private Status status;
-    private boolean isSeen;
+    private LocalDateTime updatedAt; // Last change, maintained by the database; null on older schemas
 
     public enum Status {
         PENDING, APPROVED, REJECTED, COMPLETED, UPLOADED
@@ -25,7 +26,6 @@ public class Appointment {
         this.appointmentDate = appointmentDate;
         this.appointmentTime = appointmentTime;
         this.status = status;
-        this.isSeen = false;
     }
 
     // Getters and Setters
@@ -69,11 +69,11 @@ public class Appointment {
         this.status = status;
     }
 
-    public boolean isSeen() {
-        return isSeen;
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
     }
 
-    public void setSeen(boolean isSeen) {
-        this.isSeen = isSeen;
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
     }
 }
@@ -0,0 +1,48 @@
+package com.hospital.appointment.models;
+
+public class CacheInvalidation {
+    public static final String ENTITY_APPOINTMENT = "APPOINTMENT";
+    public static final String ENTITY_REPORT = "REPORT";
+    public static final String ENTITY_PATIENT = "PATIENT";
+    public static final String ENTITY_DOCTOR = "DOCTOR";
+    public static final String ENTITY_NURSE = "NURSE";
+    public static final String ENTITY_USER = "USER";
+
+    private long version;
+    private String entityType;
+    private int entityId;
+
+    public CacheInvalidation() {
+    }
+
+    public CacheInvalidation(long version, String entityType, int entityId) {
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    // Getters and Setters
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(int entityId) {
+        this.entityId = entityId;
+    }
+}
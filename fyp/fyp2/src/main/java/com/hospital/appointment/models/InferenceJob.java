@@ -0,0 +1,102 @@
+package com.hospital.appointment.models;
+
+import java.time.LocalDateTime;
+
+public class InferenceJob {
+    private int jobId;
+    private int imageId;
+    private Status status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private String claimedBy;
+    private LocalDateTime leaseUntil;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    public InferenceJob() {
+    }
+
+    public InferenceJob(int jobId, int imageId, Status status, int attempts) {
+        this.jobId = jobId;
+        this.imageId = imageId;
+        this.status = status;
+        this.attempts = attempts;
+    }
+
+    // Getters and Setters
+    public int getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(int jobId) {
+        this.jobId = jobId;
+    }
+
+    public int getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(int imageId) {
+        this.imageId = imageId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hospital.appointment.models;
+
+import java.time.LocalDateTime;
+
+public class Notification {
+    public static final String TYPE_APPOINTMENT_STATUS = "APPOINTMENT_STATUS";
+    public static final String TYPE_REPORT_READY = "REPORT_READY";
+
+    private int notificationId;
+    private int userId;
+    private String message;
+    private String notificationType;
+    private LocalDateTime sentAt;
+    private Status status;
+
+    public enum Status {
+        SENT, READ
+    }
+
+    public Notification() {
+    }
+
+    public Notification(int notificationId, int userId, String message, String notificationType, Status status) {
+        this.notificationId = notificationId;
+        this.userId = userId;
+        this.message = message;
+        this.notificationType = notificationType;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public int getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(int notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getNotificationType() {
+        return notificationType;
+    }
+
+    public void setNotificationType(String notificationType) {
+        this.notificationType = notificationType;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
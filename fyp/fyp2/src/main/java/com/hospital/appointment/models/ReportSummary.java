@@ -0,0 +1,66 @@
+package com.hospital.appointment.models;
+
+/**
+ * Read model for one AI report together with the image, appointment, patient name
+ * and latest doctor diagnosis it belongs to. Loaded in bulk by ReportSummaryDAO.
+ */
+public class ReportSummary {
+    private AIReport aiReport;
+    private XrayImage xrayImage;
+    private Appointment appointment;
+    private String patientName;
+    private DoctorDiagnosis doctorDiagnosis; // null if the doctor has not reviewed the report yet
+
+    public ReportSummary() {
+    }
+
+    public ReportSummary(AIReport aiReport, XrayImage xrayImage, Appointment appointment,
+                         String patientName, DoctorDiagnosis doctorDiagnosis) {
+        this.aiReport = aiReport;
+        this.xrayImage = xrayImage;
+        this.appointment = appointment;
+        this.patientName = patientName;
+        this.doctorDiagnosis = doctorDiagnosis;
+    }
+
+    // Getters and Setters
+    public AIReport getAiReport() {
+        return aiReport;
+    }
+
+    public void setAiReport(AIReport aiReport) {
+        this.aiReport = aiReport;
+    }
+
+    public XrayImage getXrayImage() {
+        return xrayImage;
+    }
+
+    public void setXrayImage(XrayImage xrayImage) {
+        this.xrayImage = xrayImage;
+    }
+
+    public Appointment getAppointment() {
+        return appointment;
+    }
+
+    public void setAppointment(Appointment appointment) {
+        this.appointment = appointment;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public void setPatientName(String patientName) {
+        this.patientName = patientName;
+    }
+
+    public DoctorDiagnosis getDoctorDiagnosis() {
+        return doctorDiagnosis;
+    }
+
+    public void setDoctorDiagnosis(DoctorDiagnosis doctorDiagnosis) {
+        this.doctorDiagnosis = doctorDiagnosis;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hospital.appointment.models;
+
+/**
+ * One row of a staff worklist: the appointment plus the display values that would
+ * otherwise need a DAO call per row (patient name, latest AI report id).
+ * Loaded in bulk by WorklistDAO so table cells only read in-memory data.
+ */
+public class WorklistRow {
+    private Appointment appointment;
+    private String patientName;
+    private Integer latestReportId; // null if no AI report exists yet
+
+    public WorklistRow() {
+    }
+
+    public WorklistRow(Appointment appointment, String patientName, Integer latestReportId) {
+        this.appointment = appointment;
+        this.patientName = patientName;
+        this.latestReportId = latestReportId;
+    }
+
+    /**
+     * Stand-in row shown by a lazily loaded table until its window arrives
+     */
+    public static WorklistRow placeholder() {
+        return new WorklistRow(new Appointment(), "Loading...", null);
+    }
+
+    public boolean isPlaceholder() {
+        return appointment == null || appointment.getAppointmentId() == 0;
+    }
+
+    // Getters and Setters
+    public Appointment getAppointment() {
+        return appointment;
+    }
+
+    public void setAppointment(Appointment appointment) {
+        this.appointment = appointment;
+    }
+
+    public int getAppointmentId() {
+        return appointment.getAppointmentId();
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public void setPatientName(String patientName) {
+        this.patientName = patientName;
+    }
+
+    public Integer getLatestReportId() {
+        return latestReportId;
+    }
+
+    public void setLatestReportId(Integer latestReportId) {
+        this.latestReportId = latestReportId;
+    }
+}
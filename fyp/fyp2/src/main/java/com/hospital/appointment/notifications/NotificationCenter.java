@@ -0,0 +1,168 @@
+package com.hospital.appointment.notifications;
+
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.NotificationDAO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * NotificationCenter - Live unread notification counts per user
+ *
+ * Views subscribe to a user's unread count instead of querying it themselves. One
+ * background thread counts the unread notifications of every subscribed user with a
+ * single grouped query each -Dhms.notifications.pollMillis (default 5000), and pushes a
+ * count to the user's subscribers only when it changes. Notifications may be written by
+ * other app instances, so the database is the source of truth. refresh() polls at once,
+ * e.g. after notifications were marked read. Clients that cannot take callbacks long-poll
+ * with awaitChange(). The thread stops while nobody is subscribed.
+ */
+public class NotificationCenter {
+    private static final Logger logger = Logger.getLogger(NotificationCenter.class.getName());
+    private static final long POLL_MILLIS = Math.max(100, Long.getLong("hms.notifications.pollMillis", 5000));
+    private static NotificationCenter instance;
+
+    private final NotificationDAO notificationDAO;
+    // Guarded by this
+    private final Map<Integer, List<IntConsumer>> subscribers = new HashMap<>();
+    private final Map<Integer, Integer> counts = new HashMap<>();
+    private Thread poller;
+    private boolean refreshRequested;
+
+    private NotificationCenter() {
+        this.notificationDAO = DaoFactory.getInstance().getNotificationDAO();
+    }
+
+    public static synchronized NotificationCenter getInstance() {
+        if (instance == null) {
+            instance = new NotificationCenter();
+        }
+        return instance;
+    }
+
+    /**
+     * Listens to a user's unread count. The listener is called on the polling thread with
+     * the current count soon after subscribing, then whenever the count changes.
+     * @return Call to stop listening
+     */
+    public synchronized Runnable subscribe(int userId, IntConsumer listener) {
+        subscribers.computeIfAbsent(userId, id -> new ArrayList<>()).add(listener);
+        // Forget the known count so the next poll delivers it to the new listener
+        counts.remove(userId);
+        refreshRequested = true;
+        if (poller == null) {
+            poller = new Thread(this::pollLoop, "notification-poller");
+            poller.setDaemon(true);
+            poller.start();
+        }
+        notifyAll();
+        return () -> unsubscribe(userId, listener);
+    }
+
+    /**
+     * Long poll: waits until a user's unread count differs from the count the caller last saw
+     * @param lastCount Count the caller already has, or -1 to return as soon as it is known
+     * @return Current unread count, or lastCount if it did not change before the timeout
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public int awaitChange(int userId, int lastCount, long timeoutMillis) throws InterruptedException {
+        Runnable unsubscribe = subscribe(userId, count -> { });
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            synchronized (this) {
+                while (true) {
+                    Integer count = counts.get(userId);
+                    if (count != null && count != lastCount) {
+                        return count;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return lastCount;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    /**
+     * Polls now instead of waiting for the next interval
+     */
+    public synchronized void refresh() {
+        refreshRequested = true;
+        notifyAll();
+    }
+
+    private synchronized void unsubscribe(int userId, IntConsumer listener) {
+        List<IntConsumer> listeners = subscribers.get(userId);
+        if (listeners != null && listeners.remove(listener) && listeners.isEmpty()) {
+            subscribers.remove(userId);
+            counts.remove(userId);
+        }
+    }
+
+    private void pollLoop() {
+        try {
+            while (true) {
+                Set<Integer> userIds;
+                synchronized (this) {
+                    if (subscribers.isEmpty()) {
+                        poller = null;
+                        return;
+                    }
+                    userIds = new HashSet<>(subscribers.keySet());
+                    refreshRequested = false;
+                }
+
+                Map<Integer, Integer> unread = notificationDAO.countUnread(userIds);
+                List<Runnable> deliveries = new ArrayList<>();
+                synchronized (this) {
+                    if (unread != null) {
+                        for (int userId : userIds) {
+                            List<IntConsumer> listeners = subscribers.get(userId);
+                            if (listeners == null) {
+                                continue; // Unsubscribed during the query
+                            }
+                            int count = unread.getOrDefault(userId, 0);
+                            Integer previous = counts.put(userId, count);
+                            if (previous == null || previous != count) {
+                                for (IntConsumer listener : listeners) {
+                                    deliveries.add(() -> listener.accept(count));
+                                }
+                            }
+                        }
+                    }
+                    notifyAll();
+                }
+
+                for (Runnable delivery : deliveries) {
+                    try {
+                        delivery.run();
+                    } catch (RuntimeException e) {
+                        logger.log(Level.WARNING, "Notification listener failed", e);
+                    }
+                }
+
+                synchronized (this) {
+                    if (!refreshRequested) {
+                        wait(POLL_MILLIS);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                poller = null;
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hospital.appointment.server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.hospital.appointment.models.User;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Function;
+
+/**
+ * ApiJson - JSON mapping shared by the application server and its clients
+ *
+ * Models are written field by field; dates and times as ISO-8601 strings.
+ */
+public final class ApiJson {
+    public static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapter(LocalDate.class, isoAdapter(LocalDate::parse))
+        .registerTypeAdapter(LocalTime.class, isoAdapter(LocalTime::parse))
+        .registerTypeAdapter(LocalDateTime.class, isoAdapter(LocalDateTime::parse))
+        .create();
+
+    /**
+     * Response of /api/users/authenticate: the user, and the session token that lets the
+     * workstation act for that user
+     */
+    public static final class SignIn {
+        private final User user;
+        private final String token;
+
+        public SignIn(User user, String token) {
+            this.user = user;
+            this.token = token;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    /**
+     * Response of POST /api/users: the new user's id (or -1), and for a patient registering
+     * themself a session token, so they can go on to create their profile
+     */
+    public static final class Registration {
+        private final int userId;
+        private final String token;
+
+        public Registration(int userId, String token) {
+            this.userId = userId;
+            this.token = token;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    private ApiJson() {
+    }
+
+    private static <T> TypeAdapter<T> isoAdapter(Function<String, T> parser) {
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                out.value(value.toString());
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                return parser.apply(in.nextString());
+            }
+        }.nullSafe();
+    }
+}
@@ -0,0 +1,780 @@
+package com.hospital.appointment.server;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.hospital.appointment.concurrent.InferenceWorker;
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.dao.AIReportDAO;
+import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.dao.BlobDAO;
+import com.hospital.appointment.dao.DoctorDAO;
+import com.hospital.appointment.dao.DoctorDiagnosisDAO;
+import com.hospital.appointment.dao.EntityCache;
+import com.hospital.appointment.dao.InvalidationLogDAO;
+import com.hospital.appointment.dao.JdbcAIReportDAO;
+import com.hospital.appointment.dao.JdbcAppointmentDAO;
+import com.hospital.appointment.dao.JdbcBlobDAO;
+import com.hospital.appointment.dao.JdbcDoctorDAO;
+import com.hospital.appointment.dao.JdbcDoctorDiagnosisDAO;
+import com.hospital.appointment.dao.JdbcInvalidationLogDAO;
+import com.hospital.appointment.dao.JdbcNotificationDAO;
+import com.hospital.appointment.dao.JdbcNurseDAO;
+import com.hospital.appointment.dao.JdbcPatientDAO;
+import com.hospital.appointment.dao.JdbcReportSummaryDAO;
+import com.hospital.appointment.dao.JdbcUserDAO;
+import com.hospital.appointment.dao.JdbcWorklistDAO;
+import com.hospital.appointment.dao.JdbcXrayImageDAO;
+import com.hospital.appointment.dao.NurseDAO;
+import com.hospital.appointment.dao.PatientDAO;
+import com.hospital.appointment.dao.ReportSummaryDAO;
+import com.hospital.appointment.dao.UserDAO;
+import com.hospital.appointment.dao.WorklistDAO;
+import com.hospital.appointment.dao.XrayImageDAO;
+import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.CacheInvalidation;
+import com.hospital.appointment.models.Doctor;
+import com.hospital.appointment.models.DoctorDiagnosis;
+import com.hospital.appointment.models.Nurse;
+import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.User;
+import com.hospital.appointment.models.WorklistRow;
+import com.hospital.appointment.models.XrayImage;
+import com.hospital.appointment.storage.BlobStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ApiServer - Headless application server exposing the DAOs over HTTP/JSON
+ *
+ * Started with `--server` instead of the JavaFX client. Workstations started with
+ * -Dhms.server.url pointing here read and write through it (see DaoFactory) and never
+ * connect to the database, so it serves one set of connections, one notification poll
+ * and one invalidation tail however many workstations are open. Worklist counts and
+ * windows are cached here and dropped on every worklist write made through the server,
+ * and as soon as the invalidation log reports an appointment or report change made
+ * elsewhere, so identical scans from several workstations hit the database once.
+ *
+ * Requests run on -Dhms.server.threads (default 32) threads; listens on
+ * -Dhms.server.bindAddress (default 127.0.0.1, this machine only) and -Dhms.server.port
+ * (default 8085). Every endpoint answers with the DAO's own result, including its error
+ * values (-1, null), so remote DAOs behave like local ones.
+ *
+ * Every request must carry -Dhms.server.secret in the X-HMS-Secret header (401 otherwise);
+ * the server does not start without one. Signing in through /api/users/authenticate
+ * opens a session for the user, and the request carries the tokens of the users signed
+ * in at its workstation in X-HMS-Session. Everything but signing in, patient
+ * self-registration and the invalidation log (ids only) needs a session (403 otherwise):
+ * worklists, images, reports and diagnoses need a nurse or doctor, writes to them the
+ * role whose view makes them, staff accounts an administrator, and a patient only sees
+ * their own record, appointments, notifications and released reports. Sessions expire
+ * after -Dhms.server.sessionMillis (default 12 hours) unused.
+ *
+ *   GET  /api/worklist/count?statuses=&withImages=&search=
+ *   GET  /api/worklist/window?(filter)&offset=&limit=&afterId=&afterDate=&afterTime=
+ *   GET  /api/worklist/latest-change
+ *   GET  /api/worklist/changes?(filter)&since=&limit=
+ *   GET  /api/notifications?userId=
+ *   GET  /api/notifications/unread-count?userId=&userId=...
+ *   POST /api/notifications/read            body: [notificationId, ...]
+ *   GET  /api/invalidations/latest
+ *   GET  /api/invalidations?after=&limit=
+ *   GET  /api/users?userId=                 POST /api/users                  body: User
+ *   GET  /api/users/exists?username=        POST /api/users/authenticate     body: {username, password}
+ *   GET  /api/patients?patientId=           POST /api/patients               body: Patient
+ *   GET  /api/patients/by-user?userId=
+ *   GET  /api/doctors/id?userId=            POST /api/doctors                body: Doctor
+ *   GET  /api/nurses/id?userId=             POST /api/nurses                 body: Nurse
+ *   GET  /api/appointments?appointmentId=   POST /api/appointments           body: Appointment
+ *   GET  /api/appointments/by-patient?patientId=
+ *   POST /api/appointments/status?appointmentId=&status=
+ *   GET  /api/xray-images?imageId=          POST /api/xray-images            body: XrayImage
+ *   GET  /api/xray-images/by-appointment?appointmentId=
+ *   POST /api/xray-images/upload            body: [XrayImage, ...]
+ *   POST /api/xray-images/delete?imageId=
+ *   GET  /api/ai-reports?reportId=          POST /api/ai-reports             body: AIReport
+ *   GET  /api/ai-reports/by-image?imageId=
+ *   GET  /api/ai-reports/by-appointment?appointmentId=&visibleOnly=
+ *   POST /api/ai-reports/visible?reportId=&visible=
+ *   GET  /api/diagnoses?reportId=           POST /api/diagnoses              body: DoctorDiagnosis
+ *   GET  /api/diagnoses/all
+ *   POST /api/diagnoses/report-file?reportId=&filePath=
+ *   POST /api/diagnoses/report-file/upsert?reportId=&doctorId=&filePath=
+ *   GET  /api/report-summaries?fromDate=&toDate=&prediction=&limit=&offset=
+ *   GET  /api/report-summaries/by-id?reportId=&reportId=...
+ *   POST /api/blobs/acquire?blobId=&sizeBytes=
+ *   POST /api/blobs/release?blobId=         deletes the file with the last reference
+ *   GET  /api/blobs/ref-count?blobId=
+ */
+public class ApiServer {
+    private static final Logger logger = Logger.getLogger(ApiServer.class.getName());
+    public static final String SECRET_HEADER = "X-HMS-Secret";
+    public static final String SESSION_HEADER = "X-HMS-Session";
+    private static final String BIND_ADDRESS = System.getProperty("hms.server.bindAddress", "127.0.0.1");
+    private static final int PORT = Integer.getInteger("hms.server.port", 8085);
+    private static final byte[] SECRET = System.getProperty("hms.server.secret", "").getBytes(StandardCharsets.UTF_8);
+    private static final long SESSION_MILLIS = Math.max(60_000, Long.getLong("hms.server.sessionMillis", 12 * 60 * 60 * 1000L));
+    private static final int THREADS = Math.max(1, Integer.getInteger("hms.server.threads", 32));
+    private static final int MAX_LIMIT = 1000;
+    // Roles that work with every patient's records
+    private static final User.Role[] STAFF = {User.Role.NURSE, User.Role.DOCTOR};
+    private static final Type IDS = new TypeToken<List<Integer>>() { }.getType();
+    private static final Type STRINGS = new TypeToken<Map<String, String>>() { }.getType();
+    private static final Type XRAY_IMAGES = new TypeToken<List<XrayImage>>() { }.getType();
+    private static ApiServer instance;
+
+    private final UserDAO userDAO = new JdbcUserDAO();
+    private final PatientDAO patientDAO = new JdbcPatientDAO();
+    private final DoctorDAO doctorDAO = new JdbcDoctorDAO();
+    private final NurseDAO nurseDAO = new JdbcNurseDAO();
+    private final AppointmentDAO appointmentDAO = new JdbcAppointmentDAO();
+    private final XrayImageDAO xrayImageDAO = new JdbcXrayImageDAO();
+    private final AIReportDAO aiReportDAO = new JdbcAIReportDAO();
+    private final DoctorDiagnosisDAO doctorDiagnosisDAO = new JdbcDoctorDiagnosisDAO();
+    private final ReportSummaryDAO reportSummaryDAO = new JdbcReportSummaryDAO();
+    private final BlobDAO blobDAO = new JdbcBlobDAO();
+    private final WorklistDAO worklistDAO = new JdbcWorklistDAO();
+    private final JdbcNotificationDAO notificationDAO = new JdbcNotificationDAO();
+    private final InvalidationLogDAO invalidationLogDAO = new JdbcInvalidationLogDAO();
+    // Serialized worklist responses by request query
+    private final EntityCache<String, String> worklistResponses = new EntityCache<>("worklist responses");
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final List<Runnable> unsubscribes = new ArrayList<>();
+    // Endpoints by path, then by method
+    private final Map<String, Map<String, Endpoint>> routes = new HashMap<>();
+    // Signed-in users by session token
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Handles one request
+     */
+    private interface Endpoint {
+        /**
+         * @return Response body as JSON
+         * @throws IllegalArgumentException if a parameter is missing or malformed
+         */
+        String handle(Map<String, List<String>> query, HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * A user signed in at a workstation
+     */
+    private static final class Session {
+        private final int userId;
+        private final User.Role role;
+        private volatile long expiresAt;
+
+        private Session(int userId, User.Role role, long expiresAt) {
+            this.userId = userId;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private ApiServer() {
+    }
+
+    public static synchronized ApiServer getInstance() {
+        if (instance == null) {
+            instance = new ApiServer();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts listening. Needs the InvalidationPoller running to keep its cache current.
+     * @throws IllegalStateException if -Dhms.server.secret is not set
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        if (SECRET.length == 0) {
+            throw new IllegalStateException("Set -Dhms.server.secret; workstations send it with every request");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, r -> new Thread(r, "api-server-" + counter.incrementAndGet()));
+        server = HttpServer.create(new InetSocketAddress(BIND_ADDRESS, PORT), 0);
+        server.setExecutor(executor);
+
+        route("/api/worklist/count", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            WorklistDAO.Filter filter = filter(query);
+            return cached("count?" + filter.getDefinition(), () -> {
+                int count = worklistDAO.count(filter);
+                return count >= 0 ? json(count) : null;
+            }, json(-1));
+        });
+        route("/api/worklist/window", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            WorklistDAO.Filter filter = filter(query);
+            WorklistRow after = after(query);
+            int offset = intParam(query, "offset", 0);
+            int limit = limit(query);
+            String key = "window?" + filter.getDefinition() + "&" + offset + "&" + limit + "&" +
+                         (after != null ? param(query, "afterId") + "," + param(query, "afterDate") + "," + param(query, "afterTime") : "");
+            return cached(key, () -> {
+                List<WorklistRow> rows = worklistDAO.findWindow(filter, after, offset, limit);
+                // An empty window may be an error; read it again next time
+                return rows.isEmpty() ? null : json(rows);
+            }, json(List.of()));
+        });
+        route("/api/worklist/latest-change", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(worklistDAO.findLatestChange());
+        });
+        route("/api/worklist/changes", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(worklistDAO.findChangedSince(filter(query), LocalDateTime.parse(requireParam(query, "since")), limit(query)));
+        });
+
+        route("/api/notifications", "GET", (query, exchange) -> {
+            int userId = intParam(query, "userId", -1);
+            requireSignedIn(exchange, List.of(userId));
+            return json(notificationDAO.findUnreadByUserId(userId));
+        });
+        route("/api/notifications/unread-count", "GET", (query, exchange) -> {
+            List<Integer> userIds = new ArrayList<>();
+            for (String userId : query.getOrDefault("userId", List.of())) {
+                userIds.add(Integer.parseInt(userId));
+            }
+            requireSignedIn(exchange, userIds);
+            return json(notificationDAO.countUnread(userIds));
+        });
+        route("/api/notifications/read", "POST", (query, exchange) -> {
+            List<Integer> notificationIds = ApiJson.GSON.fromJson(readBody(exchange), IDS);
+            // Other users' notifications in the list are left unread
+            notificationDAO.markRead(notificationIds, signedInUsers(exchange));
+            return json(null);
+        });
+
+        route("/api/invalidations/latest", "GET", (query, exchange) -> json(invalidationLogDAO.findLatestVersion()));
+        route("/api/invalidations", "GET", (query, exchange) ->
+            json(invalidationLogDAO.findAfter(Long.parseLong(requireParam(query, "after")), limit(query))));
+
+        route("/api/users", "GET", (query, exchange) -> {
+            int userId = intParam(query, "userId", -1);
+            requireUserOrRole(exchange, userId, User.Role.ADMIN);
+            return json(withoutPassword(userDAO.findById(userId)));
+        });
+        route("/api/users", "POST", (query, exchange) -> {
+            User user = body(exchange, User.class);
+            if (user.getRole() != User.Role.PATIENT) {
+                // Staff accounts are created by an administrator
+                requireRole(exchange, User.Role.ADMIN);
+                return json(new ApiJson.Registration(userDAO.createUser(user), null));
+            }
+            // Patients register themselves, and are signed in to complete their profile
+            int userId = userDAO.createUser(user);
+            return json(new ApiJson.Registration(userId, userId > 0 ? openSession(userId, User.Role.PATIENT) : null));
+        });
+        route("/api/users/exists", "GET", (query, exchange) -> json(userDAO.usernameExists(requireParam(query, "username"))));
+        route("/api/users/authenticate", "POST", (query, exchange) -> {
+            Map<String, String> credentials = body(exchange, STRINGS);
+            User user = withoutPassword(userDAO.authenticate(credentials.get("username"), credentials.get("password")));
+            return json(user != null ? new ApiJson.SignIn(user, openSession(user.getUserId(), user.getRole())) : null);
+        });
+
+        route("/api/patients", "GET", (query, exchange) -> {
+            int patientId = intParam(query, "patientId", -1);
+            requirePatientOrStaff(exchange, patientId);
+            return json(patientDAO.findByPatientId(patientId));
+        });
+        route("/api/patients", "POST", (query, exchange) -> {
+            Patient patient = body(exchange, Patient.class);
+            requireUserOrRole(exchange, patient.getUserId(), User.Role.ADMIN);
+            return json(patientDAO.createPatient(patient));
+        });
+        route("/api/patients/by-user", "GET", (query, exchange) -> {
+            int userId = intParam(query, "userId", -1);
+            requireUserOrRole(exchange, userId, STAFF);
+            return json(patientDAO.findByUserId(userId));
+        });
+        route("/api/doctors", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.ADMIN);
+            return json(doctorDAO.createDoctor(body(exchange, Doctor.class)));
+        });
+        route("/api/doctors/id", "GET", (query, exchange) -> {
+            int userId = intParam(query, "userId", -1);
+            requireUserOrRole(exchange, userId, User.Role.ADMIN);
+            return json(doctorDAO.findDoctorIdByUserId(userId));
+        });
+        route("/api/nurses", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.ADMIN);
+            return json(nurseDAO.createNurse(body(exchange, Nurse.class)));
+        });
+        route("/api/nurses/id", "GET", (query, exchange) -> {
+            int userId = intParam(query, "userId", -1);
+            requireUserOrRole(exchange, userId, User.Role.ADMIN);
+            return json(nurseDAO.findNurseIdByUserId(userId));
+        });
+
+        route("/api/appointments", "GET", (query, exchange) -> {
+            Appointment appointment = appointmentDAO.findById(intParam(query, "appointmentId", -1));
+            requirePatientOrStaff(exchange, appointment != null ? appointment.getPatientId() : -1);
+            return json(appointment);
+        });
+        route("/api/appointments", "POST", (query, exchange) -> {
+            Appointment appointment = body(exchange, Appointment.class);
+            requirePatientOrStaff(exchange, appointment.getPatientId());
+            return worklistWrite(json(appointmentDAO.create(appointment)));
+        });
+        route("/api/appointments/by-patient", "GET", (query, exchange) -> {
+            int patientId = intParam(query, "patientId", -1);
+            requirePatientOrStaff(exchange, patientId);
+            return json(appointmentDAO.findByPatientId(patientId));
+        });
+        route("/api/appointments/status", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.NURSE);
+            appointmentDAO.updateStatus(intParam(query, "appointmentId", -1),
+                                        Appointment.Status.valueOf(requireParam(query, "status")));
+            return worklistWrite(json(null));
+        });
+
+        route("/api/xray-images", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(xrayImageDAO.findById(intParam(query, "imageId", -1)));
+        });
+        route("/api/xray-images", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.NURSE);
+            return worklistWrite(json(xrayImageDAO.create(body(exchange, XrayImage.class))));
+        });
+        route("/api/xray-images/by-appointment", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(xrayImageDAO.findByAppointmentId(intParam(query, "appointmentId", -1)));
+        });
+        route("/api/xray-images/upload", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.NURSE);
+            int[] imageIds = xrayImageDAO.createAndQueue(body(exchange, XRAY_IMAGES));
+            if (imageIds != null) {
+                InferenceWorker.getInstance().wakeUp();
+            }
+            return worklistWrite(json(imageIds));
+        });
+        route("/api/xray-images/delete", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.NURSE);
+            return worklistWrite(json(xrayImageDAO.delete(intParam(query, "imageId", -1))));
+        });
+
+        route("/api/ai-reports", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(aiReportDAO.findById(intParam(query, "reportId", -1)));
+        });
+        route("/api/ai-reports", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.DOCTOR);
+            return worklistWrite(json(aiReportDAO.create(body(exchange, AIReport.class))));
+        });
+        route("/api/ai-reports/by-image", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(aiReportDAO.findByImageId(intParam(query, "imageId", -1)));
+        });
+        route("/api/ai-reports/by-appointment", "GET", (query, exchange) -> {
+            int appointmentId = intParam(query, "appointmentId", -1);
+            if (!Boolean.parseBoolean(param(query, "visibleOnly"))) {
+                requireRole(exchange, STAFF);
+                return json(aiReportDAO.findByAppointmentId(appointmentId));
+            }
+            // Released reports are also shown to the patient
+            Appointment appointment = appointmentDAO.findById(appointmentId);
+            requirePatientOrStaff(exchange, appointment != null ? appointment.getPatientId() : -1);
+            return json(aiReportDAO.findVisibleByAppointmentId(appointmentId));
+        });
+        route("/api/ai-reports/visible", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.DOCTOR);
+            return json(aiReportDAO.updateIsVisible(intParam(query, "reportId", -1),
+                                                    Boolean.parseBoolean(requireParam(query, "visible"))));
+        });
+
+        route("/api/diagnoses", "GET", (query, exchange) -> {
+            int reportId = intParam(query, "reportId", -1);
+            requireReportReader(exchange, reportId);
+            return json(doctorDiagnosisDAO.findByReportId(reportId));
+        });
+        route("/api/diagnoses", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.DOCTOR);
+            return json(doctorDiagnosisDAO.create(body(exchange, DoctorDiagnosis.class)));
+        });
+        route("/api/diagnoses/all", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(doctorDiagnosisDAO.findAll());
+        });
+        route("/api/diagnoses/report-file", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.DOCTOR);
+            return json(doctorDiagnosisDAO.updateReportFilePath(intParam(query, "reportId", -1), param(query, "filePath")));
+        });
+        route("/api/diagnoses/report-file/upsert", "POST", (query, exchange) -> {
+            requireRole(exchange, User.Role.DOCTOR);
+            return json(doctorDiagnosisDAO.updateOrInsertReportFilePath(intParam(query, "reportId", -1),
+                                                                        intParam(query, "doctorId", -1), param(query, "filePath")));
+        });
+
+        route("/api/report-summaries", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            String fromDate = param(query, "fromDate");
+            String toDate = param(query, "toDate");
+            return json(reportSummaryDAO.findSummaries(fromDate != null ? LocalDate.parse(fromDate) : null,
+                                                       toDate != null ? LocalDate.parse(toDate) : null,
+                                                       param(query, "prediction"), limit(query), intParam(query, "offset", 0)));
+        });
+        route("/api/report-summaries/by-id", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            List<Integer> reportIds = new ArrayList<>();
+            for (String reportId : query.getOrDefault("reportId", List.of())) {
+                reportIds.add(Integer.parseInt(reportId));
+            }
+            return json(reportSummaryDAO.findByReportIds(reportIds));
+        });
+
+        route("/api/blobs/acquire", "POST", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(blobDAO.acquire(requireParam(query, "blobId"), Long.parseLong(requireParam(query, "sizeBytes"))));
+        });
+        // Deletes the file from this server's blob directory, which the clients share
+        route("/api/blobs/release", "POST", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(BlobStore.getInstance().release(BlobStore.referenceTo(requireParam(query, "blobId"))));
+        });
+        route("/api/blobs/ref-count", "GET", (query, exchange) -> {
+            requireRole(exchange, STAFF);
+            return json(blobDAO.getRefCount(requireParam(query, "blobId")));
+        });
+
+        for (String entityType : List.of(CacheInvalidation.ENTITY_APPOINTMENT, CacheInvalidation.ENTITY_REPORT)) {
+            unsubscribes.add(InvalidationPoller.getInstance().subscribe(entityType, ids -> worklistResponses.invalidateAll()));
+        }
+        server.start();
+        logger.info("Application server listening on " + BIND_ADDRESS + ":" + PORT + " with " + THREADS + " threads");
+    }
+
+    public synchronized void shutdown() {
+        if (server != null) {
+            unsubscribes.forEach(Runnable::run);
+            unsubscribes.clear();
+            routes.clear();
+            sessions.clear();
+            server.stop(1);
+            executor.shutdownNow();
+            server = null;
+            executor = null;
+        }
+    }
+
+    private void route(String path, String method, Endpoint endpoint) {
+        routes.computeIfAbsent(path, p -> {
+            Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+            server.createContext(p, exchange -> handle(exchange, p, endpoints));
+            return endpoints;
+        }).put(method, endpoint);
+    }
+
+    private void handle(HttpExchange exchange, String path, Map<String, Endpoint> endpoints) throws IOException {
+        try {
+            Endpoint endpoint = endpoints.get(exchange.getRequestMethod());
+            String secret = exchange.getRequestHeaders().getFirst(SECRET_HEADER);
+            if (secret == null || !MessageDigest.isEqual(SECRET, secret.getBytes(StandardCharsets.UTF_8))) {
+                send(exchange, 401, error("Missing or wrong " + SECRET_HEADER + " (hms.server.secret)"));
+            } else if (!exchange.getRequestURI().getPath().equals(path)) {
+                send(exchange, 404, error("Not found"));
+            } else if (endpoint == null) {
+                send(exchange, 405, error("Use " + String.join(" or ", endpoints.keySet())));
+            } else {
+                send(exchange, 200, endpoint.handle(parseQuery(exchange.getRequestURI().getRawQuery()), exchange));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException | JsonParseException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (SecurityException e) {
+            send(exchange, 403, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error handling " + exchange.getRequestURI(), e);
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Opens a session for a user who has just signed in, dropping expired ones
+     * @return The session token
+     */
+    private String openSession(int userId, User.Role role) {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.expiresAt < now);
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(userId, role, now + SESSION_MILLIS));
+        return token;
+    }
+
+    /**
+     * The sessions of the users signed in at the calling workstation, from the tokens it
+     * sent. Each session used is kept open for another SESSION_MILLIS.
+     */
+    private List<Session> signedIn(HttpExchange exchange) {
+        List<Session> signedIn = new ArrayList<>();
+        String tokens = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        if (tokens == null) {
+            return signedIn;
+        }
+        long now = System.currentTimeMillis();
+        for (String token : tokens.split(",")) {
+            Session session = sessions.get(token.trim());
+            if (session != null && session.expiresAt >= now) {
+                session.expiresAt = now + SESSION_MILLIS;
+                signedIn.add(session);
+            }
+        }
+        return signedIn;
+    }
+
+    private Set<Integer> signedInUsers(HttpExchange exchange) {
+        Set<Integer> userIds = new HashSet<>();
+        for (Session session : signedIn(exchange)) {
+            userIds.add(session.userId);
+        }
+        return userIds;
+    }
+
+    private boolean hasRole(List<Session> signedIn, User.Role... roles) {
+        for (Session session : signedIn) {
+            for (User.Role role : roles) {
+                if (session.role == role) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @throws SecurityException unless every user is signed in at the calling workstation
+     */
+    private void requireSignedIn(HttpExchange exchange, Collection<Integer> userIds) {
+        if (!signedInUsers(exchange).containsAll(userIds)) {
+            throw new SecurityException("Not signed in as user " + userIds);
+        }
+    }
+
+    /**
+     * @throws SecurityException unless a user with one of the roles is signed in at the calling workstation
+     */
+    private void requireRole(HttpExchange exchange, User.Role... roles) {
+        if (!hasRole(signedIn(exchange), roles)) {
+            throw new SecurityException("Requires a " + Arrays.toString(roles) + " user to be signed in");
+        }
+    }
+
+    /**
+     * @throws SecurityException unless the user, or a user with one of the roles, is signed in
+     *         at the calling workstation
+     */
+    private void requireUserOrRole(HttpExchange exchange, int userId, User.Role... roles) {
+        List<Session> signedIn = signedIn(exchange);
+        for (Session session : signedIn) {
+            if (session.userId == userId) {
+                return;
+            }
+        }
+        if (!hasRole(signedIn, roles)) {
+            throw new SecurityException("Not signed in as user " + userId);
+        }
+    }
+
+    /**
+     * @throws SecurityException unless staff, or the patient themself, is signed in at the
+     *         calling workstation
+     */
+    private void requirePatientOrStaff(HttpExchange exchange, int patientId) {
+        List<Session> signedIn = signedIn(exchange);
+        if (hasRole(signedIn, STAFF)) {
+            return;
+        }
+        Patient patient = patientId > 0 ? patientDAO.findByPatientId(patientId) : null;
+        if (patient != null) {
+            for (Session session : signedIn) {
+                if (session.userId == patient.getUserId()) {
+                    return;
+                }
+            }
+        }
+        throw new SecurityException("Not signed in as patient " + patientId + " or as staff");
+    }
+
+    /**
+     * Staff read any report's diagnosis; a patient only those of their own released reports
+     * @throws SecurityException otherwise
+     */
+    private void requireReportReader(HttpExchange exchange, int reportId) {
+        if (hasRole(signedIn(exchange), STAFF)) {
+            return;
+        }
+        AIReport report = aiReportDAO.findById(reportId);
+        XrayImage image = report != null && report.isVisible() ? xrayImageDAO.findById(report.getImageId()) : null;
+        Appointment appointment = image != null ? appointmentDAO.findById(image.getAppointmentId()) : null;
+        requirePatientOrStaff(exchange, appointment != null ? appointment.getPatientId() : -1);
+    }
+
+    /**
+     * Drops the cached worklist responses after a write made through this server, which
+     * its caller expects to see at once. Writes made elsewhere (the inference queue, the
+     * drop-folder import, other app instances) drop them when the invalidation log reports
+     * them; every write that changes a worklist row logs an APPOINTMENT or REPORT entry in
+     * its own transaction.
+     * @return The write's response
+     */
+    private String worklistWrite(String response) {
+        worklistResponses.invalidateAll();
+        return response;
+    }
+
+    /**
+     * Serves a response from the worklist cache
+     * @param loader Builds the response, or returns null if it should not be cached
+     * @param fallback Response when the loader returns null
+     */
+    private String cached(String key, Supplier<String> loader, String fallback) {
+        String response = worklistResponses.get(key, k -> loader.get());
+        return response != null ? response : fallback;
+    }
+
+    private static WorklistDAO.Filter filter(Map<String, List<String>> query) {
+        Map<String, String> definition = new LinkedHashMap<>();
+        for (String name : List.of("statuses", "withImages", "search")) {
+            String value = param(query, name);
+            if (value != null) {
+                definition.put(name, value);
+            }
+        }
+        return WorklistDAO.Filter.fromDefinition(definition);
+    }
+
+    /**
+     * The keyset of the row before a window, as sent by RemoteWorklistDAO
+     */
+    private static WorklistRow after(Map<String, List<String>> query) {
+        String afterId = param(query, "afterId");
+        if (afterId == null) {
+            return null;
+        }
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(Integer.parseInt(afterId));
+        appointment.setAppointmentDate(LocalDate.parse(requireParam(query, "afterDate")));
+        appointment.setAppointmentTime(LocalTime.parse(requireParam(query, "afterTime")));
+        return new WorklistRow(appointment, null, null);
+    }
+
+    private static int limit(Map<String, List<String>> query) {
+        return Math.max(1, Math.min(MAX_LIMIT, intParam(query, "limit", MAX_LIMIT)));
+    }
+
+    private static int intParam(Map<String, List<String>> query, String name, int defaultValue) {
+        String value = param(query, name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static String requireParam(Map<String, List<String>> query, String name) {
+        String value = param(query, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static String param(Map<String, List<String>> query, String name) {
+        List<String> values = query.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals >= 0 ? pair.substring(0, equals) : pair, StandardCharsets.UTF_8);
+            String value = equals >= 0 ? URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8) : "";
+            query.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+        }
+        return query;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The request body as JSON
+     * @throws IllegalArgumentException if there is no body
+     */
+    private static <T> T body(HttpExchange exchange, Type type) throws IOException {
+        T value = ApiJson.GSON.fromJson(readBody(exchange), type);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing request body");
+        }
+        return value;
+    }
+
+    /**
+     * Passwords never leave the server
+     */
+    private static User withoutPassword(User user) {
+        if (user != null) {
+            user.setPassword(null);
+        }
+        return user;
+    }
+
+    private static String json(Object value) {
+        return ApiJson.GSON.toJson(value);
+    }
+
+    private static String error(String message) {
+        return json(Map.of("error", message != null ? message : "Bad request"));
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hospital.appointment.server;
+
+import com.hospital.appointment.api.PneumoniaDetectionAPI;
+import com.hospital.appointment.concurrent.BackgroundExecutor;
+import com.hospital.appointment.concurrent.InferenceWorker;
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.EntityCache;
+import com.hospital.appointment.dao.remote.ApiClient;
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.ingest.FolderIngestService;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ServerMain - Runs the headless application server instead of the JavaFX client
+ *
+ * Start it with `HospitalApp --server` through Maven, or run this class directly; it does
+ * not extend Application, so the JavaFX toolkit is never started. The server hosts the
+ * inference queue, the drop-folder import, the entity caches and ApiServer, and runs until
+ * the process is stopped.
+ */
+public class ServerMain {
+    private static final Logger logger = Logger.getLogger(ServerMain.class.getName());
+
+    public static void main(String[] args) {
+        if (ApiClient.isConfigured()) {
+            // Its DAOs would call the server instead of the database
+            logger.severe("hms.server.url must not be set on the application server itself");
+            System.exit(1);
+        }
+        DatabaseManager.getInstance().initializeDatabase();
+        // Drain queued X-ray analyses in the background
+        InferenceWorker.getInstance().start();
+        // Import films from the radiology drop folder, if one is configured
+        FolderIngestService.getInstance().start();
+        DaoFactory.getInstance().subscribeCaches();
+        InvalidationPoller.getInstance().start();
+        try {
+            ApiServer.getInstance().start();
+        } catch (IOException | IllegalStateException e) {
+            logger.log(Level.SEVERE, "Could not start the application server", e);
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ApiServer.getInstance().shutdown();
+            InvalidationPoller.getInstance().shutdown();
+            FolderIngestService.getInstance().shutdown();
+            InferenceWorker.getInstance().shutdown();
+            BackgroundExecutor.shutdown();
+            PneumoniaDetectionAPI.shutdown();
+            EntityCache.logStatistics();
+            DatabaseManager.getInstance().closeConnection();
+        }, "server-shutdown"));
+    }
+}
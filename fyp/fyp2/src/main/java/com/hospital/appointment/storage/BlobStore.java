@@ -0,0 +1,303 @@
+package com.hospital.appointment.storage;
+
+import com.hospital.appointment.dao.BlobDAO;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.imaging.ImageRenditions;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BlobStore - Content-addressable storage for uploaded X-rays and e-reports
+ *
+ * A file is stored once under the SHA-256 of its bytes, sharded by the first two byte
+ * pairs of the hash: blobs/ab/cd/abcd...ef.jpg. The extension is kept so external
+ * viewers can open the file. Database columns (image_path, report_file_path) hold a
+ * reference "blob:&lt;id&gt;"; the blobs table counts how many rows use each blob, and the
+ * file is deleted when the last reference is released.
+ *
+ * A file is read from disk once on ingest: each chunk is hashed and written to a temporary
+ * file in the same pass, which is fsynced and then renamed to its content address, so a
+ * blob path never points at a partial file. Storing content that already exists only adds
+ * a reference and drops the temporary copy. Copies report progress and stop when the
+ * calling thread is interrupted (e.g. its task is cancelled).
+ *
+ * Paths stored before the blob store existed are plain file paths and still resolve.
+ * Root directory: -Dhms.blobs.dir (default blobs).
+ */
+public class BlobStore {
+    private static final Logger logger = Logger.getLogger(BlobStore.class.getName());
+    private static final String REFERENCE_PREFIX = "blob:";
+    private static final String BLOB_ID_PATTERN = "[0-9a-f]{64}(\\.[a-z0-9]{1,10})?";
+    private static final String TEMP_DIR = "tmp";
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+    private static BlobStore instance;
+
+    private final Path root;
+    private final BlobDAO blobDAO;
+
+    /**
+     * Progress of a copy, called on the copying thread
+     */
+    public interface ProgressListener {
+        void onProgress(long bytesCopied, long totalBytes);
+    }
+
+    private BlobStore(Path root) {
+        this.root = root;
+        this.blobDAO = DaoFactory.getInstance().getBlobDAO();
+    }
+
+    public static synchronized BlobStore getInstance() {
+        if (instance == null) {
+            instance = new BlobStore(Paths.get(System.getProperty("hms.blobs.dir", "blobs")).toAbsolutePath().normalize());
+        }
+        return instance;
+    }
+
+    /**
+     * Stores a file and adds a reference to it
+     * @return Reference to save in the database, e.g. "blob:3f2a...c1.jpg"
+     * @throws IOException if the file cannot be read or written, or the reference cannot be recorded
+     */
+    public String put(File source) throws IOException {
+        return put(source, null);
+    }
+
+    /**
+     * Stores a file and adds a reference to it, reading the source once
+     * @param listener Notified after each chunk, may be null
+     * @return Reference to save in the database, e.g. "blob:3f2a...c1.jpg"
+     * @throws InterruptedIOException if the thread is interrupted during the copy
+     * @throws IOException if the file cannot be read or written, or the reference cannot be recorded
+     */
+    public String put(File source, ProgressListener listener) throws IOException {
+        Path tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload", ".tmp");
+        try {
+            String blobId = copyAndHash(source.toPath(), temp, listener) + extensionOf(source.getName());
+
+            // Count the reference first: while the row exists, release() cannot delete the file under us
+            if (!blobDAO.acquire(blobId, Files.size(temp))) {
+                throw new IOException("Failed to record blob reference for " + source.getName());
+            }
+
+            Path target = pathFor(blobId);
+            try {
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    syncDirectory(target.getParent());
+                }
+            } catch (IOException e) {
+                release(REFERENCE_PREFIX + blobId);
+                throw e;
+            }
+            return REFERENCE_PREFIX + blobId;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Copies a stored file to a destination chosen by the user, e.g. an e-report download.
+     * The bytes are moved by the operating system (FileChannel.transferTo) without passing
+     * through the heap, and the destination is only replaced once the copy is complete.
+     * @param listener Notified after each chunk, may be null
+     * @throws InterruptedIOException if the thread is interrupted during the copy
+     */
+    public void copyTo(String reference, File destination, ProgressListener listener) throws IOException {
+        Path source = resolve(reference).toPath();
+        Path target = destination.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), ".download", ".tmp");
+        try {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long total = in.size();
+                long position = 0;
+                while (position < total) {
+                    checkInterrupted();
+                    position += in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, total - position), out);
+                    if (listener != null) {
+                        listener.onProgress(position, total);
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drops a reference. The blob file is deleted with its last reference.
+     * A legacy plain path is deleted directly, as before the blob store.
+     * @return References left to the blob (0 for a legacy path), or -1 if failed
+     */
+    public int release(String reference) {
+        if (reference == null || reference.trim().isEmpty()) {
+            return 0;
+        }
+        if (!isBlobReference(reference)) {
+            try {
+                Files.deleteIfExists(Paths.get(reference));
+            } catch (IOException e) {
+                logger.warning("Failed to delete file " + reference + ": " + e.getMessage());
+            }
+            return 0;
+        }
+
+        String blobId = reference.substring(REFERENCE_PREFIX.length());
+        Path file = pathFor(blobId);
+        return blobDAO.release(blobId, () -> {
+            Files.deleteIfExists(file);
+            for (File rendition : ImageRenditions.renditionFiles(file.toFile())) {
+                Files.deleteIfExists(rendition.toPath());
+            }
+        });
+    }
+
+    /**
+     * Resolves a stored path to the file on disk
+     * @param reference Blob reference or legacy file path
+     */
+    public File resolve(String reference) {
+        if (isBlobReference(reference)) {
+            return pathFor(reference.substring(REFERENCE_PREFIX.length())).toFile();
+        }
+        return new File(reference);
+    }
+
+    /**
+     * Hex SHA-256 of a file's contents. Stored blobs are named by their hash, so for them
+     * the hash is taken from the name instead of reading the file again.
+     */
+    public String contentHash(File file) throws IOException {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        String name = path.getFileName().toString();
+        if (path.startsWith(root) && name.matches(BLOB_ID_PATTERN)) {
+            return name.substring(0, 64);
+        }
+        return sha256(file);
+    }
+
+    /**
+     * The reference put() returns for a stored blob
+     */
+    public static String referenceTo(String blobId) {
+        return REFERENCE_PREFIX + blobId;
+    }
+
+    public static boolean isBlobReference(String reference) {
+        return reference != null && reference.startsWith(REFERENCE_PREFIX);
+    }
+
+    private Path pathFor(String blobId) {
+        if (!blobId.matches(BLOB_ID_PATTERN)) {
+            throw new IllegalArgumentException("Invalid blob id: " + blobId);
+        }
+        return root.resolve(blobId.substring(0, 2)).resolve(blobId.substring(2, 4)).resolve(blobId);
+    }
+
+    /**
+     * Copies source to temp, hashing each chunk on the way, and fsyncs temp
+     * @return Hex SHA-256 of the copied bytes
+     */
+    private static String copyAndHash(Path source, Path temp, ProgressListener listener) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long total = in.size();
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                checkInterrupted();
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+                copied += read;
+                if (listener != null) {
+                    listener.onProgress(copied, total);
+                }
+            }
+            out.force(true);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Copy cancelled");
+        }
+    }
+
+    /**
+     * Makes the rename durable. Not supported on every platform (e.g. Windows), where it is skipped.
+     */
+    private void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Directory fsync not supported for " + dir, e);
+        }
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) {
+            return "";
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return extension.matches("[a-z0-9]{1,10}") ? "." + extension : "";
+    }
+
+    /**
+     * Hex SHA-256 of a file's contents
+     */
+    public static String sha256(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
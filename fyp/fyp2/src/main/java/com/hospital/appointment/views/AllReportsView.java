@@ -1,24 +1,27 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.concurrent.ViewTasks;
 import com.hospital.appointment.dao.AIReportDAO;
-import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.DoctorDAO;
 import com.hospital.appointment.dao.DoctorDiagnosisDAO;
-import com.hospital.appointment.dao.PatientDAO;
-import com.hospital.appointment.dao.XrayImageDAO;
+import com.hospital.appointment.dao.ReportSummaryDAO;
 import com.hospital.appointment.models.AIReport;
 import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.CacheInvalidation;
 import com.hospital.appointment.models.DoctorDiagnosis;
-import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.ReportSummary;
 import com.hospital.appointment.models.User;
 import com.hospital.appointment.models.XrayImage;
+import com.hospital.appointment.storage.BlobStore;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.geometry.Pos;
@@ -29,30 +32,37 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class AllReportsView {
+    private static final int PAGE_SIZE = 200;
     private Stage stage;
     private User user;
     private AIReportDAO aiReportDAO;
     private DoctorDiagnosisDAO doctorDiagnosisDAO;
-    private AppointmentDAO appointmentDAO;
-    private XrayImageDAO xrayImageDAO;
-    private PatientDAO patientDAO;
+    private ReportSummaryDAO reportSummaryDAO;
     private DoctorDAO doctorDAO;
+    private DatePicker fromDatePicker;
+    private DatePicker toDatePicker;
+    private ComboBox<String> predictionFilter;
+    private Button loadMoreButton;
+    private TableView<ReportData> reportsTable;
+    private ViewTasks tasks;
 
     public AllReportsView(User user) {
         this.user = user;
-        this.aiReportDAO = new AIReportDAO();
-        this.doctorDiagnosisDAO = new DoctorDiagnosisDAO();
-        this.appointmentDAO = new AppointmentDAO();
-        this.xrayImageDAO = new XrayImageDAO();
-        this.patientDAO = new PatientDAO();
-        this.doctorDAO = new DoctorDAO();
+        this.aiReportDAO = DaoFactory.getInstance().getAIReportDAO();
+        this.doctorDiagnosisDAO = DaoFactory.getInstance().getDoctorDiagnosisDAO();
+        this.reportSummaryDAO = DaoFactory.getInstance().getReportSummaryDAO();
+        this.doctorDAO = DaoFactory.getInstance().getDoctorDAO();
+        this.tasks = new ViewTasks();
     }
 
     public void show() {
@@ -86,7 +96,7 @@ public class AllReportsView {
         header.getChildren().addAll(titleLabel, headerSpacer, headerCloseButton);
     
         // --- Reports Table Styling ---
-        TableView<ReportData> reportsTable = new TableView<>();
+        reportsTable = new TableView<>();
         reportsTable.setStyle(
             "-fx-background-color: white; " +
             "-fx-control-inner-background: white; " +
@@ -134,6 +144,43 @@ public class AllReportsView {
                                          aiPredictionCol, aiConfidenceCol, doctorDiagnosisCol);
         reportsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
     
+        // --- Filter Bar ---
+        HBox filterBar = new HBox(10);
+        filterBar.setAlignment(Pos.CENTER_LEFT);
+        
+        Label fromLabel = new Label("From:");
+        fromLabel.setStyle("-fx-text-fill: white;");
+        fromDatePicker = new DatePicker();
+        fromDatePicker.setPromptText("Any date");
+        
+        Label toLabel = new Label("To:");
+        toLabel.setStyle("-fx-text-fill: white;");
+        toDatePicker = new DatePicker();
+        toDatePicker.setPromptText("Any date");
+        
+        Label predictionLabel = new Label("AI Result:");
+        predictionLabel.setStyle("-fx-text-fill: white;");
+        predictionFilter = new ComboBox<>(FXCollections.observableArrayList("ALL", "PNEUMONIA", "NORMAL"));
+        predictionFilter.setValue("ALL");
+        
+        Button applyFilterButton = new Button("Apply Filter");
+        applyFilterButton.setStyle("-fx-background-color: #3182ce; -fx-text-fill: white; -fx-cursor: hand; -fx-background-radius: 4;");
+        applyFilterButton.setOnAction(e -> {
+            reports.clear();
+            loadAllReports(reports);
+        });
+        
+        Region filterSpacer = new Region();
+        HBox.setHgrow(filterSpacer, Priority.ALWAYS);
+        
+        loadMoreButton = new Button("Load More");
+        loadMoreButton.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white; -fx-cursor: hand; -fx-background-radius: 4;");
+        loadMoreButton.setOnAction(e -> loadAllReports(reports));
+        
+        filterBar.getChildren().addAll(fromLabel, fromDatePicker, toLabel, toDatePicker,
+                                       predictionLabel, predictionFilter, applyFilterButton,
+                                       filterSpacer, loadMoreButton);
+    
         loadAllReports(reports);
         reportsTable.setItems(reports);
     
@@ -185,63 +232,95 @@ public class AllReportsView {
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.getChildren().add(closeButton);
     
-        root.getChildren().addAll(header, reportsTable, detailsScrollPane, buttonBox);
+        root.getChildren().addAll(header, filterBar, reportsTable, detailsScrollPane, buttonBox);
         VBox.setVgrow(reportsTable, Priority.ALWAYS);
     
         Scene scene = new Scene(root);
         stage.setScene(scene);
+        // Reports changed by other workstations (e-reports, release to patient) are re-read in place
+        Runnable unsubscribeChanges = InvalidationPoller.getInstance().subscribe(CacheInvalidation.ENTITY_REPORT,
+            reportIds -> Platform.runLater(() -> refreshReports(reports, reportIds)));
+        stage.setOnHidden(e -> {
+            unsubscribeChanges.run();
+            tasks.cancelAll();
+        });
         
         // Optional: Add a subtle glow to the stage
         stage.show();
     }
 
+    /**
+     * Appends the next page of reports matching the current filter.
+     * All rows come from a single joined query in ReportSummaryDAO, run in the background.
+     */
     private void loadAllReports(ObservableList<ReportData> reports) {
-        List<AIReport> aiReports = new java.util.ArrayList<>();
-        
-        // Get all appointments with X-ray images
-        for (Appointment apt : appointmentDAO.findAll()) {
-            List<XrayImage> images = xrayImageDAO.findByAppointmentId(apt.getAppointmentId());
-            if (!images.isEmpty()) {
-                // Get AI reports for this appointment
-                List<AIReport> aptReports = aiReportDAO.findByAppointmentId(apt.getAppointmentId());
-                aiReports.addAll(aptReports);
-            }
-        }
+        String prediction = "ALL".equals(predictionFilter.getValue()) ? null : predictionFilter.getValue();
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+        int offset = reports.size();
+        loadMoreButton.setDisable(true);
 
-        // Create report data entries
-        for (AIReport aiReport : aiReports) {
-            // Find appointment through X-ray image
-            XrayImage xrayImage = xrayImageDAO.findById(aiReport.getImageId());
-            if (xrayImage != null) {
-                Appointment appointment = appointmentDAO.findById(xrayImage.getAppointmentId());
-                if (appointment != null) {
-                    Patient patient = patientDAO.findByPatientId(appointment.getPatientId());
-                    String patientName = patient != null ? patient.getFullName() : "Unknown";
-
-                    // Get doctor diagnosis if exists
-                    DoctorDiagnosis doctorDiagnosis = doctorDiagnosisDAO.findByReportId(aiReport.getReportId());
-                    String doctorDiagnosisText = doctorDiagnosis != null ? doctorDiagnosis.getComments() : "Not available";
-
-                    double confidence = aiReport.getConfidenceScore() != null ? aiReport.getConfidenceScore() * 100.0 : 0.0;
-                    String confidenceText = String.format("%.2f%%", confidence);
-
-                    ReportData reportData = new ReportData(
-                        aiReport.getReportId(),
-                        patientName,
-                        appointment.getAppointmentDate(),
-                        appointment.getAppointmentTime(),
-                        aiReport.getPrediction(),
-                        confidenceText,
-                        doctorDiagnosisText,
-                        aiReport,
-                        doctorDiagnosis,
-                        xrayImage
-                    );
-
-                    reports.add(reportData);
+        tasks.load("load", reportsTable,
+            () -> reportSummaryDAO.findSummaries(fromDate, toDate, prediction, PAGE_SIZE, offset),
+            summaries -> {
+                for (ReportSummary summary : summaries) {
+                    reports.add(toReportData(summary));
                 }
+
+                // A short page means there is nothing left to fetch
+                loadMoreButton.setDisable(summaries.size() < PAGE_SIZE);
+            });
+    }
+
+    /**
+     * Re-reads the listed reports that changed and replaces their rows; reports that are
+     * not loaded are skipped
+     */
+    private void refreshReports(ObservableList<ReportData> reports, Set<Integer> changedIds) {
+        List<Integer> loadedIds = new ArrayList<>();
+        for (ReportData row : reports) {
+            if (changedIds.contains(row.getReportId())) {
+                loadedIds.add(row.getReportId());
             }
         }
+        if (loadedIds.isEmpty()) {
+            return;
+        }
+        tasks.submit("changes", () -> reportSummaryDAO.findByReportIds(loadedIds), summaries -> {
+            Map<Integer, ReportData> fresh = new HashMap<>();
+            for (ReportSummary summary : summaries) {
+                fresh.put(summary.getAiReport().getReportId(), toReportData(summary));
+            }
+            for (int i = 0; i < reports.size(); i++) {
+                ReportData row = fresh.get(reports.get(i).getReportId());
+                if (row != null) {
+                    reports.set(i, row);
+                }
+            }
+        });
+    }
+
+    private ReportData toReportData(ReportSummary summary) {
+        AIReport aiReport = summary.getAiReport();
+        Appointment appointment = summary.getAppointment();
+        DoctorDiagnosis doctorDiagnosis = summary.getDoctorDiagnosis();
+        String doctorDiagnosisText = doctorDiagnosis != null ? doctorDiagnosis.getComments() : "Not available";
+
+        double confidence = aiReport.getConfidenceScore() != null ? aiReport.getConfidenceScore() * 100.0 : 0.0;
+        String confidenceText = String.format("%.2f%%", confidence);
+
+        return new ReportData(
+            aiReport.getReportId(),
+            summary.getPatientName(),
+            appointment.getAppointmentDate(),
+            appointment.getAppointmentTime(),
+            aiReport.getPrediction(),
+            confidenceText,
+            doctorDiagnosisText,
+            aiReport,
+            doctorDiagnosis,
+            summary.getXrayImage()
+        );
     }
 
     private void displayReportDetails(ReportData reportData, VBox detailsBox) {
@@ -252,7 +331,7 @@ public class AllReportsView {
 
         // X-Ray Image
         if (reportData.getXrayImage() != null) {
-            File imageFile = new File(reportData.getXrayImage().getImagePath());
+            File imageFile = BlobStore.getInstance().resolve(reportData.getXrayImage().getImagePath());
             if (imageFile.exists()) {
                 VBox imageBox = new VBox(5);
                 imageBox.setPadding(new Insets(10));
@@ -261,9 +340,8 @@ public class AllReportsView {
                 Label imageTitle = new Label("X-Ray Image:");
                 imageTitle.setFont(Font.font("Arial", FontWeight.BOLD, 14));
                 
-                ImageView imageView = new ImageView(new Image(imageFile.toURI().toString()));
-                imageView.setPreserveRatio(true);
-                imageView.setFitWidth(400);
+                // Loaded in the background from a 400px rendition; click opens full resolution
+                ImageView imageView = XrayPreview.create(imageFile, 400);
                 
                 imageBox.getChildren().addAll(imageTitle, imageView);
                 detailsBox.getChildren().add(imageBox);
@@ -295,8 +373,24 @@ public class AllReportsView {
         doctorText.setStyle("-fx-text-fill: black;");
         doctorDetails.getChildren().addAll(doctorTitle, doctorText);
 
+        Label loadingLabel = new Label("Loading report status...");
+        detailsBox.getChildren().addAll(detailsTitle, aiDetails, doctorDetails, loadingLabel);
+
+        // Reload AI report and diagnosis to get current visibility and e-report status
+        int reportId = reportData.getReportId();
+        tasks.submit("details", 
+            () -> new ReportSummary(aiReportDAO.findById(reportId), null, null, null,
+                                    doctorDiagnosisDAO.findByReportId(reportId)),
+            current -> {
+                detailsBox.getChildren().remove(loadingLabel);
+                detailsBox.getChildren().add(createReportActions(reportData, detailsBox,
+                    current.getAiReport(), current.getDoctorDiagnosis()));
+            });
+    }
+
+    private VBox createReportActions(ReportData reportData, VBox detailsBox,
+                                     AIReport currentReport, DoctorDiagnosis currentDiagnosis) {
         // Check if report file already uploaded
-        DoctorDiagnosis currentDiagnosis = doctorDiagnosisDAO.findByReportId(reportData.getReportId());
         boolean hasReportFile = currentDiagnosis != null && currentDiagnosis.getReportFilePath() != null 
                                && !currentDiagnosis.getReportFilePath().trim().isEmpty();
         
@@ -313,8 +407,6 @@ public class AllReportsView {
         }
         
         // Send Report to Patient Button
-        // Reload AI report to get current visibility status
-        AIReport currentReport = aiReportDAO.findById(reportData.getReportId());
         boolean isVisible = currentReport != null && currentReport.isVisible();
         
         Button sendToPatientButton = new Button("Send Report to Patient");
@@ -342,27 +434,22 @@ public class AllReportsView {
                 
                 confirmAlert.showAndWait().ifPresent(response -> {
                     if (response == javafx.scene.control.ButtonType.OK) {
-                        if (sendReportToPatient(reportData.getReportId())) {
-                            Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                            successAlert.setTitle("Success");
-                            successAlert.setHeaderText(null);
-                            successAlert.setContentText("Report has been sent to the patient successfully.");
-                            successAlert.showAndWait();
-                            // Refresh the report details to reflect the change
-                            displayReportDetails(reportData, detailsBox);
-                        } else {
-                            Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                            errorAlert.setTitle("Error");
-                            errorAlert.setHeaderText(null);
-                            errorAlert.setContentText("Failed to send report to patient. Please try again.");
-                            errorAlert.showAndWait();
-                        }
+                        sendToPatientButton.setDisable(true);
+                        tasks.submit("send", () -> sendReportToPatient(reportData.getReportId()), sent -> {
+                            if (sent) {
+                                showAlert(Alert.AlertType.INFORMATION, "Success", "Report has been sent to the patient successfully.");
+                                // Refresh the report details to reflect the change
+                                displayReportDetails(reportData, detailsBox);
+                            } else {
+                                sendToPatientButton.setDisable(false);
+                                showAlert(Alert.AlertType.ERROR, "Error", "Failed to send report to patient. Please try again.");
+                            }
+                        });
                     }
                 });
             });
         }
-        
-        detailsBox.getChildren().addAll(detailsTitle, aiDetails, doctorDetails, buttonContainer);
+        return buttonContainer;
     }
 
     private boolean sendReportToPatient(int reportId) {
@@ -378,62 +465,42 @@ public class AllReportsView {
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == javafx.scene.control.ButtonType.OK) {
-                try {
-                    // Get current diagnosis to get file path
-                    DoctorDiagnosis diagnosis = doctorDiagnosisDAO.findByReportId(reportId);
-                    if (diagnosis == null || diagnosis.getReportFilePath() == null || diagnosis.getReportFilePath().trim().isEmpty()) {
-                        Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                        errorAlert.setTitle("Error");
-                        errorAlert.setHeaderText(null);
-                        errorAlert.setContentText("No e-report file found to delete.");
-                        errorAlert.showAndWait();
-                        return;
-                    }
-                    
-                    String filePath = diagnosis.getReportFilePath();
-                    File reportFile = new File(filePath);
-                    
-                    // Delete file from filesystem
-                    if (reportFile.exists()) {
-                        try {
-                            Files.deleteIfExists(reportFile.toPath());
-                        } catch (Exception ex) {
-                            Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                            errorAlert.setTitle("Error");
-                            errorAlert.setHeaderText(null);
-                            errorAlert.setContentText("Failed to delete file from filesystem: " + ex.getMessage());
-                            errorAlert.showAndWait();
-                            return;
-                        }
-                    }
-                    
-                    // Update database to set report_file_path to null
-                    if (doctorDiagnosisDAO.updateReportFilePath(reportId, null)) {
-                        Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                        successAlert.setTitle("Success");
-                        successAlert.setHeaderText(null);
-                        successAlert.setContentText("E-report deleted successfully!");
-                        successAlert.showAndWait();
+                tasks.submit("ereport", () -> deleteEReportFile(reportId), errorMessage -> {
+                    if (errorMessage == null) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "E-report deleted successfully!");
                         // Refresh the report details
                         displayReportDetails(reportData, detailsBox);
                     } else {
-                        Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                        errorAlert.setTitle("Error");
-                        errorAlert.setHeaderText(null);
-                        errorAlert.setContentText("Failed to update database. File may have been deleted but database was not updated.");
-                        errorAlert.showAndWait();
+                        showAlert(Alert.AlertType.ERROR, "Error", errorMessage);
                     }
-                } catch (Exception ex) {
-                    Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                    errorAlert.setTitle("Error");
-                    errorAlert.setHeaderText(null);
-                    errorAlert.setContentText("Failed to delete e-report: " + ex.getMessage());
-                    errorAlert.showAndWait();
-                }
+                }, error -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete e-report: " + error.getMessage()));
             }
         });
     }
 
+    /**
+     * Deletes the e-report file and clears its path. Runs on a background thread.
+     * @return null on success, otherwise the error message to show
+     */
+    private String deleteEReportFile(int reportId) {
+        // Get current diagnosis to get file path
+        DoctorDiagnosis diagnosis = doctorDiagnosisDAO.findByReportId(reportId);
+        if (diagnosis == null || diagnosis.getReportFilePath() == null || diagnosis.getReportFilePath().trim().isEmpty()) {
+            return "No e-report file found to delete.";
+        }
+        
+        String filePath = diagnosis.getReportFilePath();
+        
+        // Update database to set report_file_path to null
+        if (!doctorDiagnosisDAO.updateReportFilePath(reportId, null)) {
+            return "Failed to update database. The e-report was not deleted.";
+        }
+        
+        // Drop this report's reference; the file is deleted once nothing else uses it
+        BlobStore.getInstance().release(filePath);
+        return null;
+    }
+
     private void uploadEReport(int reportId, VBox detailsBox, ReportData reportData) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Select E-Report PDF File");
@@ -443,69 +510,54 @@ public class AllReportsView {
 
         File selectedFile = fileChooser.showOpenDialog(stage);
         if (selectedFile != null) {
-            try {
-                // Create /reports/ directory if it doesn't exist
-                File reportsDir = new File("reports");
-                if (!reportsDir.exists()) {
-                    reportsDir.mkdirs();
-                }
-
-                // Copy file to /reports/ directory
-                String fileName = reportId + "_" + System.currentTimeMillis() + "_" + selectedFile.getName();
-                File destFile = new File(reportsDir, fileName);
-                Files.copy(selectedFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-                // Store only the file path in doctor_diagnosis table
-                String filePath = destFile.getAbsolutePath();
-                
-                // Get doctor_id from user
-                Integer doctorId = doctorDAO.findDoctorIdByUserId(user.getUserId());
-                if (doctorId == null) {
-                    // If update fails, delete the copied file
-                    try {
-                        Files.deleteIfExists(destFile.toPath());
-                    } catch (Exception ex) {
-                        // Ignore deletion errors
-                    }
-                    Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                    errorAlert.setTitle("Error");
-                    errorAlert.setHeaderText(null);
-                    errorAlert.setContentText("Failed to find doctor information. Please try again.");
-                    errorAlert.showAndWait();
-                    return;
-                }
-                
-                if (doctorDiagnosisDAO.updateOrInsertReportFilePath(reportId, doctorId, filePath)) {
-                    Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                    successAlert.setTitle("Success");
-                    successAlert.setHeaderText(null);
-                    successAlert.setContentText("E-report uploaded successfully!");
-                    successAlert.showAndWait();
+            tasks.submit("ereport", () -> storeEReportFile(reportId, selectedFile), errorMessage -> {
+                if (errorMessage == null) {
+                    showAlert(Alert.AlertType.INFORMATION, "Success", "E-report uploaded successfully!");
                     // Refresh the report details
                     displayReportDetails(reportData, detailsBox);
                 } else {
-                    // If update fails, delete the copied file
-                    try {
-                        Files.deleteIfExists(destFile.toPath());
-                    } catch (Exception ex) {
-                        // Ignore deletion errors
-                    }
-                    Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                    errorAlert.setTitle("Error");
-                    errorAlert.setHeaderText(null);
-                    errorAlert.setContentText("Failed to save e-report file path to database.");
-                    errorAlert.showAndWait();
+                    showAlert(Alert.AlertType.ERROR, "Error", errorMessage);
                 }
-            } catch (Exception ex) {
-                Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                errorAlert.setTitle("Error");
-                errorAlert.setHeaderText(null);
-                errorAlert.setContentText("Failed to upload e-report: " + ex.getMessage());
-                errorAlert.showAndWait();
-            }
+            }, error -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to upload e-report: " + error.getMessage()));
         }
     }
 
+    /**
+     * Stores the e-report in the blob store and records its reference. Runs on a background thread.
+     * @return null on success, otherwise the error message to show
+     */
+    private String storeEReportFile(int reportId, File selectedFile) throws IOException {
+        // Get doctor_id from user
+        Integer doctorId = doctorDAO.findDoctorIdByUserId(user.getUserId());
+        if (doctorId == null) {
+            return "Failed to find doctor information. Please try again.";
+        }
+
+        // Store the file once by content; doctor_diagnosis keeps only the blob reference
+        String reference = BlobStore.getInstance().put(selectedFile);
+        DoctorDiagnosis previous = doctorDiagnosisDAO.findByReportId(reportId);
+        String previousReference = previous != null ? previous.getReportFilePath() : null;
+        
+        if (!doctorDiagnosisDAO.updateOrInsertReportFilePath(reportId, doctorId, reference)) {
+            // If update fails, drop the reference we just added
+            BlobStore.getInstance().release(reference);
+            return "Failed to save e-report file path to database.";
+        }
+        // A replaced e-report no longer needs its old file
+        if (previousReference != null && !previousReference.trim().isEmpty()) {
+            BlobStore.getInstance().release(previousReference);
+        }
+        return null;
+    }
+
+    private void showAlert(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
     // Helper class to hold report data for table display
     public static class ReportData {
         private int reportId;
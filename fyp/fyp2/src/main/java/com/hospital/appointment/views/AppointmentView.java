@@ -1,6 +1,7 @@
 package com.hospital.appointment.views;
 
 import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.PatientDAO;
 import com.hospital.appointment.models.Appointment;
 import com.hospital.appointment.models.Patient;
@@ -26,8 +27,8 @@ public class AppointmentView {
 
     public AppointmentView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.patientDAO = new PatientDAO();
+        this.appointmentDAO = DaoFactory.getInstance().getAppointmentDAO();
+        this.patientDAO = DaoFactory.getInstance().getPatientDAO();
         // Get patient record
         this.patient = patientDAO.findByUserId(user.getUserId());
         createView();
@@ -1,5 +1,6 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.DoctorDAO;
 import com.hospital.appointment.models.Doctor;
 import com.hospital.appointment.models.User;
@@ -111,7 +112,7 @@ public class DoctorInfoView {
                 doctor.setLicenseNumber(licenseNumber);
                 doctor.setDepartment(department);
     
-                DoctorDAO doctorDAO = new DoctorDAO();
+                DoctorDAO doctorDAO = DaoFactory.getInstance().getDoctorDAO();
                 int doctorId = doctorDAO.createDoctor(doctor);
                 
                 if (doctorId != -1) {
@@ -1,5 +1,6 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.UserDAO;
 import com.hospital.appointment.models.User;
 import javafx.geometry.Insets;
@@ -103,7 +104,7 @@ public class DoctorRegisterView {
                 return;
             }
     
-            UserDAO userDAO = new UserDAO();
+            UserDAO userDAO = DaoFactory.getInstance().getUserDAO();
             if (userDAO.usernameExists(username)) {
                 showAlert(Alert.AlertType.ERROR, "Username already exists.");
                 return;
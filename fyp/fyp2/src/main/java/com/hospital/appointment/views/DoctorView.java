@@ -1,23 +1,22 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.concurrent.LazyPagedList;
+import com.hospital.appointment.concurrent.ViewTasks;
 import com.hospital.appointment.dao.AIReportDAO;
-import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.DoctorDAO;
 import com.hospital.appointment.dao.DoctorDiagnosisDAO;
-import com.hospital.appointment.dao.PatientDAO;
+import com.hospital.appointment.dao.WorklistDAO;
 import com.hospital.appointment.dao.XrayImageDAO;
 import com.hospital.appointment.models.AIReport;
-import com.hospital.appointment.models.Appointment;
 import com.hospital.appointment.models.DoctorDiagnosis;
-import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.ReportSummary;
 import com.hospital.appointment.models.User;
+import com.hospital.appointment.models.WorklistRow;
 import com.hospital.appointment.models.XrayImage;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.hospital.appointment.storage.BlobStore;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
@@ -32,27 +31,27 @@ import java.util.List;
 public class DoctorView {
     private VBox view;
     private User user;
-    private AppointmentDAO appointmentDAO;
+    private WorklistDAO worklistDAO;
     private XrayImageDAO xrayImageDAO;
     private AIReportDAO aiReportDAO;
-    private PatientDAO patientDAO;
     private DoctorDAO doctorDAO;
     private DoctorDiagnosisDAO doctorDiagnosisDAO;
-    private ObservableList<Appointment> appointments;
-    private TableView<Appointment> appointmentsTable;
+    private ViewTasks tasks;
+    private LazyPagedList<WorklistRow> appointments;
+    private TableView<WorklistRow> appointmentsTable;
     private VBox resultsPane;
     private TextArea finalDiagnosisField;
     private Button submitDiagnosisButton;
-    private Appointment selectedAppointment;
+    private WorklistRow selectedAppointment;
 
     public DoctorView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.xrayImageDAO = new XrayImageDAO();
-        this.aiReportDAO = new AIReportDAO();
-        this.patientDAO = new PatientDAO();
-        this.doctorDAO = new DoctorDAO();
-        this.doctorDiagnosisDAO = new DoctorDiagnosisDAO();
+        this.worklistDAO = DaoFactory.getInstance().getWorklistDAO();
+        this.xrayImageDAO = DaoFactory.getInstance().getXrayImageDAO();
+        this.aiReportDAO = DaoFactory.getInstance().getAIReportDAO();
+        this.doctorDAO = DaoFactory.getInstance().getDoctorDAO();
+        this.doctorDiagnosisDAO = DaoFactory.getInstance().getDoctorDiagnosisDAO();
+        this.tasks = new ViewTasks();
         createView();
     }
 
@@ -75,6 +74,8 @@ public class DoctorView {
         Button backButton = new Button("Back");
         backButton.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white; -fx-cursor: hand;");
         backButton.setOnAction(e -> {
+            tasks.cancelAll();
+            appointments.cancelLoads();
             DoctorHomeView doctorHomeView = new DoctorHomeView(user);
             view.getScene().setRoot(doctorHomeView.getView());
         });
@@ -88,6 +89,8 @@ public class DoctorView {
             confirmAlert.setContentText("Are you sure you want to logout?");
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == javafx.scene.control.ButtonType.OK) {
+                    tasks.cancelAll();
+                    appointments.cancelLoads();
                     LoginView loginView = new LoginView();
                     view.getScene().setRoot(loginView.getView());
                 }
@@ -113,41 +116,39 @@ public class DoctorView {
         appointmentsTable = new TableView<>();
         appointmentsTable.setStyle("-fx-background-color: white; -fx-control-inner-background: white; -fx-table-cell-border-color: #ddd;");
         appointmentsTable.setPrefHeight(300);
-        appointments = FXCollections.observableArrayList();
+        // Rows are fetched a window at a time as the table scrolls
+        WorklistDAO.Filter withImages = WorklistDAO.Filter.withImages();
+        appointments = new LazyPagedList<>(
+            () -> worklistDAO.count(withImages),
+            (after, offset, limit) -> worklistDAO.findWindow(withImages, after, offset, limit),
+            WorklistRow.placeholder());
         appointmentsTable.setItems(appointments);
         
-        TableColumn<Appointment, String> reportIdCol = new TableColumn<>("Report ID");
+        // All columns read from the preloaded WorklistRow; rendering never touches the database
+        TableColumn<WorklistRow, String> reportIdCol = new TableColumn<>("Report ID");
         reportIdCol.setPrefWidth(100);
         reportIdCol.setCellValueFactory(cellData -> {
-            int appointmentId = cellData.getValue().getAppointmentId();
-            List<AIReport> reports = aiReportDAO.findByAppointmentId(appointmentId);
-            if (!reports.isEmpty()) {
-                return new javafx.beans.property.SimpleStringProperty(String.valueOf(reports.get(0).getReportId()));
-            } else {
-                return new javafx.beans.property.SimpleStringProperty("N/A");
-            }
+            WorklistRow row = cellData.getValue();
+            Integer reportId = row.getLatestReportId();
+            return new javafx.beans.property.SimpleStringProperty(row.isPlaceholder() ? "" : reportId != null ? String.valueOf(reportId) : "N/A");
         });
         
-        TableColumn<Appointment, String> patientCol = new TableColumn<>("Patient Name");
+        TableColumn<WorklistRow, String> patientCol = new TableColumn<>("Patient Name");
         patientCol.setPrefWidth(150);
-        patientCol.setCellValueFactory(cellData -> {
-            int patientId = cellData.getValue().getPatientId();
-            Patient patient = patientDAO.findByPatientId(patientId);
-            String name = patient != null ? patient.getFullName() : "Unknown";
-            return new javafx.beans.property.SimpleStringProperty(name);
-        });
+        patientCol.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getPatientName()));
         
-        TableColumn<Appointment, String> dateCol = new TableColumn<>("Date");
+        TableColumn<WorklistRow, String> dateCol = new TableColumn<>("Date");
         dateCol.setPrefWidth(100);
         dateCol.setCellValueFactory(cellData -> {
-            java.time.LocalDate date = cellData.getValue().getAppointmentDate();
+            java.time.LocalDate date = cellData.getValue().getAppointment().getAppointmentDate();
             return new javafx.beans.property.SimpleStringProperty(date != null ? date.toString() : "");
         });
         
-        TableColumn<Appointment, String> timeCol = new TableColumn<>("Time");
+        TableColumn<WorklistRow, String> timeCol = new TableColumn<>("Time");
         timeCol.setPrefWidth(80);
         timeCol.setCellValueFactory(cellData -> {
-            java.time.LocalTime time = cellData.getValue().getAppointmentTime();
+            java.time.LocalTime time = cellData.getValue().getAppointment().getAppointmentTime();
             return new javafx.beans.property.SimpleStringProperty(time != null ? time.toString() : "");
         });
         
@@ -158,7 +159,12 @@ public class DoctorView {
         appointmentsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
         
         appointmentsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
-            if (newSelection != null) {
+            // The selected row's window was evicted or reloaded: keep the review in progress
+            if (newSelection != null && selectedAppointment != null
+                    && (newSelection.isPlaceholder() || newSelection.getAppointmentId() == selectedAppointment.getAppointmentId())) {
+                return;
+            }
+            if (newSelection != null && !newSelection.isPlaceholder()) {
                 selectedAppointment = newSelection;
                 loadXrayResults(newSelection.getAppointmentId());
                 finalDiagnosisField.setDisable(false);
@@ -225,14 +231,8 @@ public class DoctorView {
     }
 
     private void loadAppointments() {
-        appointments.clear();
-        // Only show appointments that have X-ray images
-        for (Appointment apt : appointmentDAO.findAll()) {
-            List<XrayImage> images = xrayImageDAO.findByAppointmentId(apt.getAppointmentId());
-            if (!images.isEmpty()) {
-                appointments.add(apt);
-            }
-        }
+        // Only appointments that have X-ray images, loaded with one joined query per window
+        tasks.load("load", appointmentsTable, appointments::fetchFirstWindow, appointments::reset);
     }
 
     private void loadXrayResults(int appointmentId) {
@@ -241,21 +241,35 @@ public class DoctorView {
         Label resultsTitle = new Label("X-Ray Analysis Results");
         resultsTitle.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         resultsPane.getChildren().add(resultsTitle);
+        Label loadingLabel = new Label("Loading analysis...");
+        resultsPane.getChildren().add(loadingLabel);
 
-        // Get all AI reports for this appointment (ordered by generated_at DESC, so first is latest)
-        List<AIReport> aiReports = aiReportDAO.findByAppointmentId(appointmentId);
+        // Selecting another row cancels this request, so only the latest selection is shown
+        tasks.submit("results", () -> {
+            // Get all AI reports for this appointment (ordered by generated_at DESC, so first is latest)
+            List<AIReport> aiReports = aiReportDAO.findByAppointmentId(appointmentId);
+            if (aiReports.isEmpty()) {
+                return null;
+            }
+            // Get only the latest AI report and the X-ray image associated with it
+            AIReport latestAiReport = aiReports.get(0);
+            XrayImage xrayImage = xrayImageDAO.findById(latestAiReport.getImageId());
+            return new ReportSummary(latestAiReport, xrayImage, null, null, null);
+        }, summary -> {
+            resultsPane.getChildren().remove(loadingLabel);
+            showXrayResults(summary);
+        });
+    }
 
-        if (aiReports.isEmpty()) {
-            Label noResultsLabel = new Label("No AI reports found for this appointment");
+    private void showXrayResults(ReportSummary summary) {
+        if (summary == null) {
+            Label noResultsLabel = new Label("No AI reports found for this appointment yet. The analysis may still be queued.");
             resultsPane.getChildren().add(noResultsLabel);
             return;
         }
 
-        // Get only the latest AI report (first in the list since it's ordered DESC)
-        AIReport latestAiReport = aiReports.get(0);
-        
-        // Find the X-ray image associated with this AI report
-        XrayImage xrayImage = xrayImageDAO.findById(latestAiReport.getImageId());
+        AIReport latestAiReport = summary.getAiReport();
+        XrayImage xrayImage = summary.getXrayImage();
         
         if (xrayImage == null) {
             Label noImageLabel = new Label("X-Ray image not found for the latest AI report");
@@ -268,11 +282,10 @@ public class DoctorView {
         imageResultBox.setStyle("-fx-background-color: #f9f9f9; -fx-background-radius: 5; -fx-border-color: #ddd; -fx-border-radius: 5;");
 
         // X-Ray Image
-        File imageFile = new File(xrayImage.getImagePath());
+        File imageFile = BlobStore.getInstance().resolve(xrayImage.getImagePath());
         if (imageFile.exists()) {
-            ImageView imageView = new ImageView(new Image(imageFile.toURI().toString()));
-            imageView.setPreserveRatio(true);
-            imageView.setFitWidth(400);
+            // Loaded in the background from a 400px rendition; click opens full resolution
+            ImageView imageView = XrayPreview.create(imageFile, 400);
             imageResultBox.getChildren().add(imageView);
         }
 
@@ -357,35 +370,42 @@ public class DoctorView {
             return;
         }
 
-        // Get report_id for the selected appointment
-        List<AIReport> reports = aiReportDAO.findByAppointmentId(selectedAppointment.getAppointmentId());
-        if (reports.isEmpty()) {
+        // Latest report_id for the selected appointment was loaded with the worklist
+        Integer reportId = selectedAppointment.getLatestReportId();
+        if (reportId == null) {
             showAlert(Alert.AlertType.WARNING, "No AI report found for this appointment. Cannot submit diagnosis.");
             return;
         }
 
-        int reportId = reports.get(0).getReportId();
-        Integer doctorId = doctorDAO.findDoctorIdByUserId(user.getUserId());
-        if (doctorId == null) {
-            showAlert(Alert.AlertType.ERROR, "Doctor ID not found. Please contact administrator.");
-            return;
-        }
-
-        // Create doctor diagnosis
-        DoctorDiagnosis diagnosis = new DoctorDiagnosis();
-        diagnosis.setReportId(reportId);
-        diagnosis.setDoctorId(doctorId);
-        diagnosis.setDiagnosisResult("FINAL_DIAGNOSIS"); // You can change this based on your needs
-        diagnosis.setComments(diagnosisText);
-        diagnosis.setDiagnosisDate(LocalDateTime.now());
+        submitDiagnosisButton.setDisable(true);
+        tasks.submit("submit", () -> {
+            Integer doctorId = doctorDAO.findDoctorIdByUserId(user.getUserId());
+            if (doctorId == null) {
+                return null;
+            }
 
-        int diagnosisId = doctorDiagnosisDAO.create(diagnosis);
-        if (diagnosisId > 0) {
-            showAlert(Alert.AlertType.INFORMATION, "Final diagnosis submitted successfully!");
-            finalDiagnosisField.clear();
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Failed to submit final diagnosis. Please try again.");
-        }
+            // Create doctor diagnosis
+            DoctorDiagnosis diagnosis = new DoctorDiagnosis();
+            diagnosis.setReportId(reportId);
+            diagnosis.setDoctorId(doctorId);
+            diagnosis.setDiagnosisResult("FINAL_DIAGNOSIS"); // You can change this based on your needs
+            diagnosis.setComments(diagnosisText);
+            diagnosis.setDiagnosisDate(LocalDateTime.now());
+            return doctorDiagnosisDAO.create(diagnosis);
+        }, diagnosisId -> {
+            submitDiagnosisButton.setDisable(selectedAppointment == null);
+            if (diagnosisId == null) {
+                showAlert(Alert.AlertType.ERROR, "Doctor ID not found. Please contact administrator.");
+            } else if (diagnosisId > 0) {
+                showAlert(Alert.AlertType.INFORMATION, "Final diagnosis submitted successfully!");
+                finalDiagnosisField.clear();
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Failed to submit final diagnosis. Please try again.");
+            }
+        }, error -> {
+            submitDiagnosisButton.setDisable(selectedAppointment == null);
+            showAlert(Alert.AlertType.ERROR, "Failed to submit final diagnosis: " + error.getMessage());
+        });
     }
 
     private void showAlert(Alert.AlertType type, String message) {
@@ -1,5 +1,7 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.concurrent.BackgroundExecutor;
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.UserDAO;
 import com.hospital.appointment.models.User;
 import javafx.application.Platform;
@@ -117,13 +119,20 @@ public class LoginView {
                 showAlert(Alert.AlertType.WARNING, "Please enter both username and password");
                 return;
             }
-            UserDAO userDAO = new UserDAO();
-            User user = userDAO.authenticate(username, password);
-            if (user != null) {
-                navigateToRoleView(user);
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Invalid username or password");
-            }
+            // Authenticate off the FX thread; keep the button disabled so it cannot be clicked twice
+            loginButton.setDisable(true);
+            UserDAO userDAO = DaoFactory.getInstance().getUserDAO();
+            BackgroundExecutor.submit(() -> userDAO.authenticate(username, password), user -> {
+                loginButton.setDisable(false);
+                if (user != null) {
+                    navigateToRoleView(user);
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Invalid username or password");
+                }
+            }, error -> {
+                loginButton.setDisable(false);
+                showAlert(Alert.AlertType.ERROR, "Login failed: " + error.getMessage());
+            });
         });
     
         registerButton.setOnAction(e -> {
@@ -1,5 +1,6 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.NurseDAO;
 import com.hospital.appointment.models.Nurse;
 import com.hospital.appointment.models.User;
@@ -93,7 +94,7 @@ public class NurseInfoView {
                 nurse.setUserId(userId);
                 nurse.setDepartment(department);
     
-                NurseDAO nurseDAO = new NurseDAO();
+                NurseDAO nurseDAO = DaoFactory.getInstance().getNurseDAO();
                 int nurseId = nurseDAO.createNurse(nurse);
                 
                 if (nurseId != -1) {
@@ -1,22 +1,23 @@
 package com.hospital.appointment.views;
 
-import com.hospital.appointment.api.PneumoniaDetectionAPI;
-import com.hospital.appointment.dao.AIReportDAO;
-import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.concurrent.InferenceWorker;
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.concurrent.LazyPagedList;
+import com.hospital.appointment.concurrent.ViewTasks;
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.NurseDAO;
-import com.hospital.appointment.dao.PatientDAO;
+import com.hospital.appointment.dao.WorklistDAO;
 import com.hospital.appointment.dao.XrayImageDAO;
-import com.hospital.appointment.models.AIReport;
+import com.hospital.appointment.imaging.ImageRenditions;
 import com.hospital.appointment.models.Appointment;
-import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.CacheInvalidation;
 import com.hospital.appointment.models.User;
+import com.hospital.appointment.models.WorklistRow;
 import com.hospital.appointment.models.XrayImage;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import com.hospital.appointment.storage.BlobStore;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -24,37 +25,55 @@ import javafx.geometry.Pos;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.io.InterruptedIOException;
 import java.time.LocalDateTime;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class NurseUploadXrayView {
-    private static final Logger logger = Logger.getLogger(NurseUploadXrayView.class.getName());
+    // Beyond this many changed rows a reload is cheaper than patching
+    private static final int MAX_PATCHED_ROWS = 500;
+
     private VBox view;
     private User user;
     private Integer nurseId;
-    private AppointmentDAO appointmentDAO;
     private XrayImageDAO xrayImageDAO;
-    private AIReportDAO aiReportDAO;
-    private PatientDAO patientDAO;
-    private ObservableList<Appointment> appointments;
-    private FilteredList<Appointment> filteredAppointments;
-    private TableView<Appointment> appointmentsTable;
+    private WorklistDAO worklistDAO;
+    private ViewTasks tasks;
+    private LazyPagedList<WorklistRow> appointments;
+    private volatile WorklistDAO.Filter filter;
+    private volatile LocalDateTime watermark; // Latest change shown in the table
+    private Runnable unsubscribeChanges;
+    private TableView<WorklistRow> appointmentsTable;
     private TextField searchField;
+    private Button uploadXrayButton;
+    private final AtomicInteger uploadPercent = new AtomicInteger(-1);
+    // Cleared by whichever comes first: the cancel button, or the upload starting its transaction
+    private final AtomicBoolean uploadCancellable = new AtomicBoolean();
+
+    /**
+     * Result of a background upload, reported back on the FX thread
+     */
+    private enum UploadOutcome {
+        SUCCESS, DATABASE_FAILED
+    }
 
     public NurseUploadXrayView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.xrayImageDAO = new XrayImageDAO();
-        this.aiReportDAO = new AIReportDAO();
-        this.patientDAO = new PatientDAO();
-        this.appointments = FXCollections.observableArrayList();
-        this.filteredAppointments = new FilteredList<>(appointments, p -> true);
-        // Get nurse_id from user_id
-        NurseDAO nurseDAO = new NurseDAO();
-        this.nurseId = nurseDAO.findNurseIdByUserId(user.getUserId());
+        this.xrayImageDAO = DaoFactory.getInstance().getXrayImageDAO();
+        this.worklistDAO = DaoFactory.getInstance().getWorklistDAO();
+        this.tasks = new ViewTasks();
+        // Rows are fetched a window at a time as the table scrolls, for the current search
+        this.appointments = new LazyPagedList<>(
+            () -> worklistDAO.count(filter),
+            (after, offset, limit) -> worklistDAO.findWindow(filter, after, offset, limit),
+            WorklistRow.placeholder());
         createView();
+        // Get nurse_id from user_id
+        NurseDAO nurseDAO = DaoFactory.getInstance().getNurseDAO();
+        tasks.submit("nurse", () -> nurseDAO.findNurseIdByUserId(user.getUserId()), id -> nurseId = id);
     }
 
     private void createView() {
@@ -78,6 +97,9 @@ public class NurseUploadXrayView {
         Button backButton = new Button("Back");
         backButton.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white; -fx-cursor: hand;");
         backButton.setOnAction(e -> {
+            tasks.cancelAll();
+            appointments.cancelLoads();
+            unsubscribeChanges.run();
             NurseHomeView nurseHomeView = new NurseHomeView(user);
             view.getScene().setRoot(nurseHomeView.getView());
         });
@@ -91,6 +113,9 @@ public class NurseUploadXrayView {
             confirmAlert.setContentText("Are you sure you want to logout?");
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == javafx.scene.control.ButtonType.OK) {
+                    tasks.cancelAll();
+                    appointments.cancelLoads();
+                    unsubscribeChanges.run();
                     LoginView loginView = new LoginView();
                     view.getScene().setRoot(loginView.getView());
                 }
@@ -117,23 +142,15 @@ public class NurseUploadXrayView {
         Region searchSpacer = new Region();
         HBox.setHgrow(searchSpacer, Priority.ALWAYS);
         
-        Label searchLabel = new Label("Search by Report ID:");
+        Label searchLabel = new Label("Search:");
         searchLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: white;");
         searchField = new TextField();
-        searchField.setPromptText("Enter Report ID...");
+        searchField.setPromptText("Report ID, patient name or IC...");
         searchField.setPrefWidth(200);
         searchField.setStyle("-fx-font-size: 13px; -fx-padding: 5;");
         
-        // Add listener to filter appointments based on search
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredAppointments.setPredicate(appointment -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-                String reportId = String.valueOf(appointment.getAppointmentId());
-                return reportId.toLowerCase().contains(newValue.toLowerCase());
-            });
-        });
+        // Searched in the database once typing pauses; a newer search cancels the one in flight
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> tasks.debounce("search", this::loadCompletedAppointments));
         
         HBox searchBox = new HBox(10);
         searchBox.setAlignment(Pos.CENTER_RIGHT);
@@ -145,41 +162,40 @@ public class NurseUploadXrayView {
         // Styling the table for a modern dark look
         appointmentsTable.setStyle("-fx-background-color: white; -fx-control-inner-background: white; -fx-table-cell-border-color: #ddd;");
         appointmentsTable.setPrefHeight(450);
-        appointmentsTable.setItems(filteredAppointments);
+        appointmentsTable.setItems(appointments);
         
-        TableColumn<Appointment, String> reportIdCol = new TableColumn<>("Report ID");
+        TableColumn<WorklistRow, String> reportIdCol = new TableColumn<>("Report ID");
         reportIdCol.setPrefWidth(100);
         reportIdCol.setCellValueFactory(cellData -> {
-            int appointmentId = cellData.getValue().getAppointmentId();
-            return new javafx.beans.property.SimpleStringProperty(String.valueOf(appointmentId));
+            WorklistRow row = cellData.getValue();
+            return new javafx.beans.property.SimpleStringProperty(row.isPlaceholder() ? "" : String.valueOf(row.getAppointmentId()));
         });
         
-        TableColumn<Appointment, String> patientCol = new TableColumn<>("Patient Name");
+        TableColumn<WorklistRow, String> patientCol = new TableColumn<>("Patient Name");
         patientCol.setPrefWidth(200);
-        patientCol.setCellValueFactory(cellData -> {
-            int patientId = cellData.getValue().getPatientId();
-            Patient patient = patientDAO.findByPatientId(patientId);
-            String name = patient != null ? patient.getFullName() : "Unknown";
-            return new javafx.beans.property.SimpleStringProperty(name);
-        });
+        patientCol.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getPatientName()));
         
-        TableColumn<Appointment, String> dateCol = new TableColumn<>("Date");
+        TableColumn<WorklistRow, String> dateCol = new TableColumn<>("Date");
         dateCol.setPrefWidth(120);
         dateCol.setCellValueFactory(cellData -> {
-            java.time.LocalDate date = cellData.getValue().getAppointmentDate();
+            java.time.LocalDate date = cellData.getValue().getAppointment().getAppointmentDate();
             return new javafx.beans.property.SimpleStringProperty(date != null ? date.toString() : "");
         });
         
-        TableColumn<Appointment, String> timeCol = new TableColumn<>("Time");
+        TableColumn<WorklistRow, String> timeCol = new TableColumn<>("Time");
         timeCol.setPrefWidth(100);
         timeCol.setCellValueFactory(cellData -> {
-            java.time.LocalTime time = cellData.getValue().getAppointmentTime();
+            java.time.LocalTime time = cellData.getValue().getAppointment().getAppointmentTime();
             return new javafx.beans.property.SimpleStringProperty(time != null ? time.toString() : "");
         });
         
-        TableColumn<Appointment, String> statusCol = new TableColumn<>("Status");
+        TableColumn<WorklistRow, String> statusCol = new TableColumn<>("Status");
         statusCol.setPrefWidth(120);
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusCol.setCellValueFactory(cellData -> {
+            Appointment.Status status = cellData.getValue().getAppointment().getStatus();
+            return new javafx.beans.property.SimpleStringProperty(status != null ? status.name() : "");
+        });
         
         appointmentsTable.getColumns().add(reportIdCol);
         appointmentsTable.getColumns().add(patientCol);
@@ -189,7 +205,7 @@ public class NurseUploadXrayView {
         appointmentsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
     
         // Action Button (Medical Orange/Amber to signify "Attention Required")
-        Button uploadXrayButton = new Button("PROCEED TO IMAGE SELECTION");
+        uploadXrayButton = new Button("PROCEED TO IMAGE SELECTION");
         uploadXrayButton.setMaxWidth(Double.MAX_VALUE);
         uploadXrayButton.setStyle(
             "-fx-background-color: #ed8936; " + 
@@ -202,8 +218,20 @@ public class NurseUploadXrayView {
         );
     
         uploadXrayButton.setOnAction(e -> {
-            Appointment selected = appointmentsTable.getSelectionModel().getSelectedItem();
-            if (selected == null) {
+            // While an upload is running the button cancels it
+            if (tasks.isRunning("upload")) {
+                if (!uploadCancellable.compareAndSet(true, false)) {
+                    showAlert(Alert.AlertType.INFORMATION, "The upload is already being saved and can no longer be cancelled.");
+                    return;
+                }
+                tasks.cancel("upload");
+                resetUploadButton();
+                showAlert(Alert.AlertType.INFORMATION, "Upload cancelled.");
+                return;
+            }
+
+            WorklistRow selected = appointmentsTable.getSelectionModel().getSelectedItem();
+            if (selected == null || selected.isPlaceholder()) {
                 showAlert(Alert.AlertType.WARNING, "Please select a completed appointment first");
                 return;
             }
@@ -211,7 +239,7 @@ public class NurseUploadXrayView {
             Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
             confirmAlert.setTitle("Confirm X-Ray Image Upload");
             confirmAlert.setHeaderText("Initialize Radiography Link");
-            confirmAlert.setContentText("Are you sure you want to upload a new X-ray for " + selected.getPatientId() + "?");
+            confirmAlert.setContentText("Are you sure you want to upload a new X-ray for " + selected.getPatientName() + "?");
             
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == javafx.scene.control.ButtonType.OK) {
@@ -229,128 +257,193 @@ public class NurseUploadXrayView {
     
         view.getChildren().addAll(header, contentWrapper);
         loadCompletedAppointments();
+        // Appointments changed by other workstations are patched in as they are logged
+        unsubscribeChanges = InvalidationPoller.getInstance().subscribe(CacheInvalidation.ENTITY_APPOINTMENT,
+            appointmentIds -> Platform.runLater(this::refreshChanges));
     }
 
     private void loadCompletedAppointments() {
-        appointments.clear();
         // Load both COMPLETED and UPLOADED appointments so all reports are always visible
-        appointments.addAll(appointmentDAO.findByStatus(Appointment.Status.COMPLETED));
-        appointments.addAll(appointmentDAO.findByStatus(Appointment.Status.UPLOADED));
+        filter = WorklistDAO.Filter.byStatuses(Appointment.Status.COMPLETED, Appointment.Status.UPLOADED)
+            .matching(searchField.getText());
+        tasks.load("load", appointmentsTable, () -> {
+            watermark = worklistDAO.findLatestChange();
+            return appointments.fetchFirstWindow();
+        }, appointments::reset);
+    }
+
+    /**
+     * Re-reads only the appointments changed since the last load or refresh and patches
+     * them in place, instead of reloading the whole list. Changes that add rows to the
+     * list or remove rows from it reload it.
+     */
+    private void refreshChanges() {
+        LocalDateTime since = watermark;
+        if (since == null) {
+            // Nothing to compare against (empty table or no updated_at column)
+            loadCompletedAppointments();
+            return;
+        }
+        WorklistDAO.Filter changedFilter = filter;
+        tasks.submit("changes", () -> appointments.fetchChanges(
+                () -> worklistDAO.findChangedSince(changedFilter, since, MAX_PATCHED_ROWS)), changes -> {
+            List<WorklistRow> changed = changes.getRows();
+            // Rows that started or stopped matching the filter move the others, so reload
+            if (changed.size() >= MAX_PATCHED_ROWS || !appointments.patch(changes, WorklistRow::getAppointmentId)) {
+                loadCompletedAppointments();
+                return;
+            }
+            // A reload may have replaced the watermark meanwhile, possibly with null
+            LocalDateTime latest = since;
+            for (WorklistRow row : changed) {
+                LocalDateTime updatedAt = row.getAppointment().getUpdatedAt();
+                if (updatedAt != null && updatedAt.isAfter(latest)) {
+                    latest = updatedAt;
+                }
+            }
+            LocalDateTime current = watermark;
+            if (current == null || latest.isAfter(current)) {
+                watermark = latest;
+            }
+        });
     }
 
     private void uploadXrayImage() {
-        Appointment selected = appointmentsTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        WorklistRow selected = appointmentsTable.getSelectionModel().getSelectedItem();
+        if (selected == null || selected.isPlaceholder()) {
             showAlert(Alert.AlertType.WARNING, "Please select a completed appointment first");
             return;
         }
 
         if (nurseId == null) {
-            showAlert(Alert.AlertType.ERROR, "Nurse record not found. Please contact administrator.");
+            if (tasks.isRunning("nurse")) {
+                showAlert(Alert.AlertType.INFORMATION, "Nurse record is still loading. Please try again in a moment.");
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Nurse record not found. Please contact administrator.");
+            }
             return;
         }
 
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Select X-Ray Image");
+        fileChooser.setTitle("Select X-Ray Images");
         fileChooser.getExtensionFilters().addAll(
             new FileChooser.ExtensionFilter("Image Files", "*.jpg", "*.jpeg", "*.png", "*.dcm")
         );
 
         Stage stage = (Stage) view.getScene().getWindow();
-        File selectedFile = fileChooser.showOpenDialog(stage);
+        // Several films can be selected at once; they are analyzed as one batch
+        List<File> selectedFiles = fileChooser.showOpenMultipleDialog(stage);
 
-        if (selectedFile != null) {
-            try {
-                // Create uploads directory if it doesn't exist
-                File uploadsDir = new File("uploads");
-                if (!uploadsDir.exists()) {
-                    uploadsDir.mkdirs();
+        if (selectedFiles != null && !selectedFiles.isEmpty()) {
+            int appointmentId = selected.getAppointmentId();
+            int uploaderId = nurseId;
+            uploadPercent.set(-1);
+            uploadCancellable.set(true);
+            uploadXrayButton.setText("CANCEL UPLOAD (0%)");
+            tasks.submit("upload", () -> performUpload(appointmentId, uploaderId, new ArrayList<>(selectedFiles)), outcome -> {
+                resetUploadButton();
+                switch (outcome) {
+                    case SUCCESS:
+                        showAlert(Alert.AlertType.INFORMATION, (selectedFiles.size() == 1
+                            ? "X-Ray image uploaded successfully!"
+                            : selectedFiles.size() + " X-Ray images uploaded successfully!")
+                            + "\nAI analysis will run in the background.");
+                        // Refresh the rows that changed
+                        refreshChanges();
+                        break;
+                    case DATABASE_FAILED:
+                        showAlert(Alert.AlertType.ERROR, "Failed to save X-ray image to database.");
+                        break;
                 }
+            }, error -> {
+                resetUploadButton();
+                showAlert(Alert.AlertType.ERROR, "Error uploading image: " + error.getMessage());
+            });
+        }
+    }
 
-                // Copy file to uploads directory
-                String fileName = selected.getAppointmentId() + "_" + System.currentTimeMillis() + "_" + selectedFile.getName();
-                File destFile = new File(uploadsDir, fileName);
-                Files.copy(selectedFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-                // Save to xray_images table
-                XrayImage xrayImage = new XrayImage();
-                xrayImage.setAppointmentId(selected.getAppointmentId());
-                xrayImage.setUploadedBy(nurseId);
-                xrayImage.setImagePath(destFile.getAbsolutePath());
-                xrayImage.setUploadDate(LocalDateTime.now());
-
-                int imageId = xrayImageDAO.create(xrayImage);
-                if (imageId == -1) {
-                    showAlert(Alert.AlertType.ERROR, "Failed to save X-ray image to database.");
-                    return;
-                }
+    private void resetUploadButton() {
+        uploadXrayButton.setText("PROCEED TO IMAGE SELECTION");
+    }
 
-                // Analyze with AI API and save to ai_reports table
-                boolean analysisSuccess = analyzeXrayWithAI(destFile, imageId);
-                
-                if (!analysisSuccess) {
-                    // API failed - delete the xray image from database
-                    xrayImageDAO.delete(imageId);
-                    // Also delete the file
-                    try {
-                        Files.deleteIfExists(destFile.toPath());
-                    } catch (Exception ex) {
-                        logger.warning("Failed to delete image file: " + ex.getMessage());
-                    }
-                    showAlert(Alert.AlertType.WARNING, 
-                        "AI service is not available. The X-ray image has been removed.\n" +
-                        "Please try again when the AI service is ready.");
-                    return;
+    /**
+     * Shows upload progress on the button. Called from the upload thread.
+     */
+    private void showUploadProgress(long bytesStored, long totalBytes) {
+        int percent = totalBytes > 0 ? (int) (bytesStored * 100 / totalBytes) : 100;
+        // Only hop to the FX thread when the displayed value changes
+        if (uploadPercent.getAndSet(percent) != percent) {
+            Platform.runLater(() -> {
+                if (tasks.isRunning("upload") && uploadCancellable.get()) {
+                    uploadXrayButton.setText("CANCEL UPLOAD (" + percent + "%)");
                 }
-
-                // Update appointment status to UPLOADED after successful upload
-                appointmentDAO.updateStatus(selected.getAppointmentId(), Appointment.Status.UPLOADED);
-                
-                showAlert(Alert.AlertType.INFORMATION, "X-Ray image uploaded successfully!");
-                // Refresh the appointments list
-                loadCompletedAppointments();
-            } catch (Exception e) {
-                showAlert(Alert.AlertType.ERROR, "Error uploading image: " + e.getMessage());
-                e.printStackTrace();
-            }
+            });
         }
     }
 
     /**
-     * Analyzes X-ray image using the FastAPI AI service and saves to ai_reports table.
-     * @return true if analysis successful, false if API is not available
+     * Stores the files, records them and queues them for AI analysis.
+     * Runs on a background thread; cancelling the task undoes the upload until its
+     * transaction starts, after which the cancel button no longer applies.
      */
-    private boolean analyzeXrayWithAI(File imageFile, int imageId) {
-        try {
-            // Step 1: Initialize API client and send image
-            PneumoniaDetectionAPI api = new PneumoniaDetectionAPI();
-            PneumoniaDetectionAPI.PneumoniaResult result = api.analyzeXray(imageFile);
+    private UploadOutcome performUpload(int appointmentId, int uploaderId, List<File> selectedFiles) throws IOException {
+        // Store each file in the blob store first; the database rows are written together below
+        BlobStore blobStore = BlobStore.getInstance();
+        List<String> references = new ArrayList<>();
+        long totalBytes = 0;
+        for (File selectedFile : selectedFiles) {
+            totalBytes += selectedFile.length();
+        }
+        long storedBytes = 0;
+        for (File selectedFile : selectedFiles) {
+            long offset = storedBytes;
+            long uploadBytes = totalBytes;
+            try {
+                references.add(blobStore.put(selectedFile, (copied, total) -> showUploadProgress(offset + copied, uploadBytes)));
+            } catch (IOException e) {
+                releaseBlobs(references);
+                throw e;
+            }
+            storedBytes += selectedFile.length();
+        }
 
-            // Step 2: Save AI report to ai_reports table
-            AIReport aiReport = new AIReport();
-            aiReport.setImageId(imageId);
-            aiReport.setPrediction(result.getDiagnosis());
-            // Convert percentage back to 0.0-1.0 for database
-            aiReport.setConfidenceScore(result.getRawScore());
-            aiReport.setGeneratedAt(LocalDateTime.now());
+        // Cancelled after the last copy finished: nothing is recorded yet, so undo the upload.
+        // Otherwise the upload can no longer be cancelled, so the outcome shown is the real one.
+        if (!uploadCancellable.compareAndSet(true, false) || Thread.currentThread().isInterrupted()) {
+            releaseBlobs(references);
+            throw new InterruptedIOException("Upload cancelled");
+        }
+        Platform.runLater(() -> uploadXrayButton.setText("SAVING UPLOAD..."));
 
-            int reportId = aiReportDAO.create(aiReport);
-            if (reportId == -1) {
-                logger.warning("AI analysis completed but failed to save report to database.");
-                return false;
-            }
-            
-            return true;
-                
-        } catch (IOException e) {
-            // API is not available - return false so caller can delete the image
-            logger.warning("AI API unavailable: " + e.getMessage());
-            return false;
-        } catch (Exception e) {
-            // Unexpected error - also return false
-            logger.severe("Unexpected error during AI analysis: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        List<XrayImage> xrayImages = new ArrayList<>();
+        for (String reference : references) {
+            XrayImage xrayImage = new XrayImage();
+            xrayImage.setAppointmentId(appointmentId);
+            xrayImage.setUploadedBy(uploaderId);
+            xrayImage.setImagePath(reference);
+            xrayImage.setUploadDate(LocalDateTime.now());
+            xrayImages.add(xrayImage);
+        }
+
+        // Save the xray_images rows and queue the AI analysis in one transaction;
+        // InferenceWorker writes the reports and marks the appointment UPLOADED
+        if (xrayImageDAO.createAndQueue(xrayImages) == null) {
+            releaseBlobs(references);
+            return UploadOutcome.DATABASE_FAILED;
+        }
+        InferenceWorker.getInstance().wakeUp();
+
+        // Prepare display renditions off the upload path
+        references.forEach(reference -> ImageRenditions.generateAsync(blobStore.resolve(reference)));
+        return UploadOutcome.SUCCESS;
+    }
+
+    /**
+     * Releases the blobs of an upload that was not recorded.
+     */
+    private void releaseBlobs(List<String> references) {
+        for (String reference : references) {
+            BlobStore.getInstance().release(reference);
         }
     }
 
@@ -1,36 +1,51 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.concurrent.InvalidationPoller;
+import com.hospital.appointment.concurrent.LazyPagedList;
+import com.hospital.appointment.concurrent.ViewTasks;
 import com.hospital.appointment.dao.AppointmentDAO;
-import com.hospital.appointment.dao.PatientDAO;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.WorklistDAO;
 import com.hospital.appointment.models.Appointment;
-import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.CacheInvalidation;
 import com.hospital.appointment.models.User;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import com.hospital.appointment.models.WorklistRow;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 public class NurseView {
+    // Beyond this many changed rows a reload is cheaper than patching
+    private static final int MAX_PATCHED_ROWS = 500;
+
     private VBox view;
     private User user;
     private AppointmentDAO appointmentDAO;
-    private PatientDAO patientDAO;
-    private ObservableList<Appointment> appointments;
-    private FilteredList<Appointment> filteredAppointments;
-    private TableView<Appointment> appointmentsTable;
+    private WorklistDAO worklistDAO;
+    private ViewTasks tasks;
+    private LazyPagedList<WorklistRow> appointments;
+    private volatile WorklistDAO.Filter filter = WorklistDAO.Filter.all();
+    private volatile LocalDateTime watermark; // Latest change shown in the table
+    private Runnable unsubscribeChanges;
+    private TableView<WorklistRow> appointmentsTable;
     private TextField searchField;
 
     public NurseView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.patientDAO = new PatientDAO();
-        this.appointments = FXCollections.observableArrayList();
-        this.filteredAppointments = new FilteredList<>(appointments, p -> true);
+        this.appointmentDAO = DaoFactory.getInstance().getAppointmentDAO();
+        this.worklistDAO = DaoFactory.getInstance().getWorklistDAO();
+        this.tasks = new ViewTasks();
+        // Rows are fetched a window at a time as the table scrolls, for the current search
+        this.appointments = new LazyPagedList<>(
+            () -> worklistDAO.count(filter),
+            (after, offset, limit) -> worklistDAO.findWindow(filter, after, offset, limit),
+            WorklistRow.placeholder());
         createView();
     }
 
@@ -55,6 +70,9 @@ public class NurseView {
         Button backButton = new Button("Back");
         backButton.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white; -fx-cursor: hand;");
         backButton.setOnAction(e -> {
+            tasks.cancelAll();
+            appointments.cancelLoads();
+            unsubscribeChanges.run();
             NurseHomeView nurseHomeView = new NurseHomeView(user);
             view.getScene().setRoot(nurseHomeView.getView());
         });
@@ -68,6 +86,9 @@ public class NurseView {
             confirmAlert.setContentText("Are you sure you want to logout?");
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == javafx.scene.control.ButtonType.OK) {
+                    tasks.cancelAll();
+                    appointments.cancelLoads();
+                    unsubscribeChanges.run();
                     LoginView loginView = new LoginView();
                     view.getScene().setRoot(loginView.getView());
                 }
@@ -94,23 +115,15 @@ public class NurseView {
         Region searchSpacer = new Region();
         HBox.setHgrow(searchSpacer, Priority.ALWAYS);
         
-        Label searchLabel = new Label("Search by Report ID:");
+        Label searchLabel = new Label("Search:");
         searchLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: white;");
         searchField = new TextField();
-        searchField.setPromptText("Enter Report ID...");
+        searchField.setPromptText("Report ID, patient name or IC...");
         searchField.setPrefWidth(200);
         searchField.setStyle("-fx-font-size: 13px; -fx-padding: 5;");
         
-        // Add listener to filter appointments based on search
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredAppointments.setPredicate(appointment -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-                String reportId = String.valueOf(appointment.getAppointmentId());
-                return reportId.toLowerCase().contains(newValue.toLowerCase());
-            });
-        });
+        // Searched in the database once typing pauses; a newer search cancels the one in flight
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> tasks.debounce("search", this::loadAppointments));
         
         HBox searchBox = new HBox(10);
         searchBox.setAlignment(Pos.CENTER_RIGHT);
@@ -122,41 +135,40 @@ public class NurseView {
         // White background table with black text
         appointmentsTable.setStyle("-fx-background-color: white; -fx-control-inner-background: white; -fx-table-cell-border-color: #ddd;");
         appointmentsTable.setPrefHeight(400);
-        appointmentsTable.setItems(filteredAppointments);
+        appointmentsTable.setItems(appointments);
         
-        TableColumn<Appointment, String> reportIdCol = new TableColumn<>("Report ID");
+        TableColumn<WorklistRow, String> reportIdCol = new TableColumn<>("Report ID");
         reportIdCol.setPrefWidth(100);
         reportIdCol.setCellValueFactory(cellData -> {
-            int appointmentId = cellData.getValue().getAppointmentId();
-            return new javafx.beans.property.SimpleStringProperty(String.valueOf(appointmentId));
+            WorklistRow row = cellData.getValue();
+            return new javafx.beans.property.SimpleStringProperty(row.isPlaceholder() ? "" : String.valueOf(row.getAppointmentId()));
         });
         
-        TableColumn<Appointment, String> patientCol = new TableColumn<>("Patient Name");
+        TableColumn<WorklistRow, String> patientCol = new TableColumn<>("Patient Name");
         patientCol.setPrefWidth(200);
-        patientCol.setCellValueFactory(cellData -> {
-            int patientId = cellData.getValue().getPatientId();
-            Patient patient = patientDAO.findByPatientId(patientId);
-            String name = patient != null ? patient.getFullName() : "Unknown";
-            return new javafx.beans.property.SimpleStringProperty(name);
-        });
+        patientCol.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getPatientName()));
         
-        TableColumn<Appointment, String> dateCol = new TableColumn<>("Date");
+        TableColumn<WorklistRow, String> dateCol = new TableColumn<>("Date");
         dateCol.setPrefWidth(120);
         dateCol.setCellValueFactory(cellData -> {
-            java.time.LocalDate date = cellData.getValue().getAppointmentDate();
+            java.time.LocalDate date = cellData.getValue().getAppointment().getAppointmentDate();
             return new javafx.beans.property.SimpleStringProperty(date != null ? date.toString() : "");
         });
         
-        TableColumn<Appointment, String> timeCol = new TableColumn<>("Time");
+        TableColumn<WorklistRow, String> timeCol = new TableColumn<>("Time");
         timeCol.setPrefWidth(100);
         timeCol.setCellValueFactory(cellData -> {
-            java.time.LocalTime time = cellData.getValue().getAppointmentTime();
+            java.time.LocalTime time = cellData.getValue().getAppointment().getAppointmentTime();
             return new javafx.beans.property.SimpleStringProperty(time != null ? time.toString() : "");
         });
         
-        TableColumn<Appointment, String> statusCol = new TableColumn<>("Status");
+        TableColumn<WorklistRow, String> statusCol = new TableColumn<>("Status");
         statusCol.setPrefWidth(120);
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusCol.setCellValueFactory(cellData -> {
+            Appointment.Status status = cellData.getValue().getAppointment().getStatus();
+            return new javafx.beans.property.SimpleStringProperty(status != null ? status.name() : "");
+        });
         
         appointmentsTable.getColumns().add(reportIdCol);
         appointmentsTable.getColumns().add(patientCol);
@@ -198,16 +210,58 @@ public class NurseView {
     
         view.getChildren().addAll(header, contentWrapper);
         loadAppointments();
+        // Appointments changed by other workstations are patched in as they are logged
+        unsubscribeChanges = InvalidationPoller.getInstance().subscribe(CacheInvalidation.ENTITY_APPOINTMENT,
+            appointmentIds -> Platform.runLater(this::refreshChanges));
     }
 
     private void loadAppointments() {
-        appointments.clear();
-        appointments.addAll(appointmentDAO.findAll());
+        filter = WorklistDAO.Filter.all().matching(searchField.getText());
+        tasks.load("load", appointmentsTable, () -> {
+            watermark = worklistDAO.findLatestChange();
+            return appointments.fetchFirstWindow();
+        }, appointments::reset);
+    }
+
+    /**
+     * Re-reads only the appointments changed since the last load or refresh and patches
+     * them in place, instead of reloading the whole list. Changes that add rows to the
+     * list or remove rows from it reload it.
+     */
+    private void refreshChanges() {
+        LocalDateTime since = watermark;
+        if (since == null) {
+            // Nothing to compare against (empty table or no updated_at column)
+            loadAppointments();
+            return;
+        }
+        WorklistDAO.Filter changedFilter = filter;
+        tasks.submit("changes", () -> appointments.fetchChanges(
+                () -> worklistDAO.findChangedSince(changedFilter, since, MAX_PATCHED_ROWS)), changes -> {
+            List<WorklistRow> changed = changes.getRows();
+            // Rows that started or stopped matching the filter move the others, so reload
+            if (changed.size() >= MAX_PATCHED_ROWS || !appointments.patch(changes, WorklistRow::getAppointmentId)) {
+                loadAppointments();
+                return;
+            }
+            // A reload may have replaced the watermark meanwhile, possibly with null
+            LocalDateTime latest = since;
+            for (WorklistRow row : changed) {
+                LocalDateTime updatedAt = row.getAppointment().getUpdatedAt();
+                if (updatedAt != null && updatedAt.isAfter(latest)) {
+                    latest = updatedAt;
+                }
+            }
+            LocalDateTime current = watermark;
+            if (current == null || latest.isAfter(current)) {
+                watermark = latest;
+            }
+        });
     }
 
     private void updateSelectedAppointmentStatus(Appointment.Status status) {
-        Appointment selected = appointmentsTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        WorklistRow selected = appointmentsTable.getSelectionModel().getSelectedItem();
+        if (selected == null || selected.isPlaceholder()) {
             showAlert(Alert.AlertType.WARNING, "Please select an appointment");
             return;
         }
@@ -222,9 +276,13 @@ public class NurseView {
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == javafx.scene.control.ButtonType.OK) {
-                appointmentDAO.updateStatus(selected.getAppointmentId(), status);
-                showAlert(Alert.AlertType.INFORMATION, "Appointment status updated to " + status);
-                loadAppointments();
+                tasks.submit("update", () -> {
+                    appointmentDAO.updateStatus(selected.getAppointmentId(), status);
+                    return status;
+                }, updated -> {
+                    showAlert(Alert.AlertType.INFORMATION, "Appointment status updated to " + updated);
+                    refreshChanges();
+                });
             }
         });
     }
@@ -1,9 +1,8 @@
 package com.hospital.appointment.views;
 
-import com.hospital.appointment.dao.AppointmentDAO;
-import com.hospital.appointment.dao.PatientDAO;
-import com.hospital.appointment.models.Patient;
 import com.hospital.appointment.models.User;
+import com.hospital.appointment.notifications.NotificationCenter;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
@@ -19,15 +18,12 @@ import javafx.scene.control.Separator;
 public class PatientHomeView {
     private AnchorPane view;
     private final User user;
-    private AppointmentDAO appointmentDAO;
-    private PatientDAO patientDAO;
     private StackPane buttonContainer;
     private StackPane badgePane;
+    private Runnable unsubscribeBadge;
 
     public PatientHomeView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.patientDAO = new PatientDAO();
         createView();
     }
 
@@ -66,6 +62,7 @@ public class PatientHomeView {
             confirmAlert.setContentText("Are you sure you want to logout?");
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == javafx.scene.control.ButtonType.OK) {
+                    unsubscribeBadge.run();
                     LoginView loginView = new LoginView();
                     view.getScene().setRoot(loginView.getView());
                 }
@@ -96,6 +93,7 @@ public class PatientHomeView {
             "#3182ce" // Medical Blue
         );
         bookAppointmentBtn.setOnMouseClicked(e -> {
+            unsubscribeBadge.run();
             AppointmentView appointmentView = new AppointmentView(user);
             view.getScene().setRoot(appointmentView.getView());
         });
@@ -107,6 +105,7 @@ public class PatientHomeView {
             "#38a169" // Clinical Green
         );
         viewStatusBtn.setOnMouseClicked(e -> {
+            unsubscribeBadge.run();
             PatientReportView patientReportView = new PatientReportView(user);
             view.getScene().setRoot(patientReportView.getView());
         });
@@ -139,12 +138,13 @@ public class PatientHomeView {
         );
         
         buttonContainer.getChildren().add(notificationButton);
-        updateBadge(); // Assuming this logic adds a badge to the StackPane
+        // The badge follows the unread count pushed by the notification center
+        unsubscribeBadge = NotificationCenter.getInstance().subscribe(user.getUserId(),
+            count -> Platform.runLater(() -> updateBadge(count)));
         
         notificationButton.setOnAction(e -> {
             PatientNotificationView notificationView = new PatientNotificationView(user);
             notificationView.showAndWait();
-            updateBadge();
         });
     
         // --- Final Assembly ---
@@ -188,29 +188,25 @@ public class PatientHomeView {
         return card;
     }
 
-    private void updateBadge() {
+    private void updateBadge(int unreadCount) {
         // Remove existing badge if present
         if (badgePane != null && buttonContainer.getChildren().contains(badgePane)) {
             buttonContainer.getChildren().remove(badgePane);
             badgePane = null;
         }
         
-        // Check for unseen APPROVED appointments and show badge if any
-        Patient patient = patientDAO.findByUserId(user.getUserId());
-        if (patient != null) {
-            int unseenCount = appointmentDAO.findUnseenApprovedByPatientId(patient.getPatientId()).size();
-            if (unseenCount > 0) {
-                // Add red badge circle
-                Circle badge = new Circle(12);
-                badge.setFill(Color.RED);
-                Label badgeLabel = new Label(String.valueOf(unseenCount > 9 ? "9+" : unseenCount));
-                badgeLabel.setFont(Font.font("Arial", FontWeight.BOLD, 11));
-                badgeLabel.setTextFill(Color.WHITE);
-                badgePane = new StackPane(badge, badgeLabel);
-                badgePane.setTranslateX(20);
-                badgePane.setTranslateY(-20);
-                buttonContainer.getChildren().add(badgePane);
-            }
+        // Show the number of unread notifications, if any
+        if (unreadCount > 0) {
+            // Add red badge circle
+            Circle badge = new Circle(12);
+            badge.setFill(Color.RED);
+            Label badgeLabel = new Label(String.valueOf(unreadCount > 9 ? "9+" : unreadCount));
+            badgeLabel.setFont(Font.font("Arial", FontWeight.BOLD, 11));
+            badgeLabel.setTextFill(Color.WHITE);
+            badgePane = new StackPane(badge, badgeLabel);
+            badgePane.setTranslateX(20);
+            badgePane.setTranslateY(-20);
+            buttonContainer.getChildren().add(badgePane);
         }
     }
 
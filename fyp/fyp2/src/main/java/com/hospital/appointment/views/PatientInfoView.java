@@ -1,5 +1,6 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.PatientDAO;
 import com.hospital.appointment.models.Patient;
 import javafx.geometry.Insets;
@@ -142,7 +143,7 @@ public class PatientInfoView {
                 }
                 patient.setAddress(addressField.getText().trim().isEmpty() ? null : addressField.getText().trim());
     
-                PatientDAO patientDAO = new PatientDAO();
+                PatientDAO patientDAO = DaoFactory.getInstance().getPatientDAO();
                 if (patientDAO.createPatient(patient) != -1) {
                     showAlert(Alert.AlertType.INFORMATION, "Profile saved. You may now login.");
                     LoginView loginView = new LoginView();
@@ -1,16 +1,18 @@
 package com.hospital.appointment.views;
 
-import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.concurrent.ViewTasks;
+import com.hospital.appointment.dao.DaoFactory;
+import com.hospital.appointment.dao.NotificationDAO;
 import com.hospital.appointment.dao.PatientDAO;
-import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.Notification;
 import com.hospital.appointment.models.Patient;
 import com.hospital.appointment.models.User;
+import com.hospital.appointment.notifications.NotificationCenter;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
@@ -18,25 +20,28 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.geometry.Pos;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
 public class PatientNotificationView {
+    private static final DateTimeFormatter SENT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private Stage stage;
-    private AppointmentDAO appointmentDAO;
+    private NotificationDAO notificationDAO;
     private PatientDAO patientDAO;
     private User user;
-    private Patient patient;
-    private List<Appointment> unseenAppointments;
+    private List<Notification> unreadNotifications;
+    private ViewTasks tasks;
 
     public PatientNotificationView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.patientDAO = new PatientDAO();
-        this.patient = patientDAO.findByUserId(user.getUserId());
-        this.unseenAppointments = new ArrayList<>();
+        this.notificationDAO = DaoFactory.getInstance().getNotificationDAO();
+        this.patientDAO = DaoFactory.getInstance().getPatientDAO();
+        this.unreadNotifications = new ArrayList<>();
+        this.tasks = new ViewTasks();
+        // Patient record and notifications are looked up in the background by showAndWait()
     }
 
     public void show() {
@@ -63,11 +68,10 @@ public class PatientNotificationView {
         header.setStyle("-fx-background-color: #2b6cb0; -fx-background-radius: 8 8 0 0;");
     
         VBox titleBox = new VBox(2);
-        String displayName = patient != null ? patient.getFullName() : user.getUsername();
         Label titleLabel = new Label("NEW UPDATES");
         titleLabel.setStyle("-fx-font-family: 'Segoe UI'; -fx-font-weight: bold; -fx-font-size: 18px; -fx-text-fill: white;");
         
-        Label userSubLabel = new Label("Account: " + displayName);
+        Label userSubLabel = new Label("Account: " + user.getUsername());
         userSubLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #ebf8ff;");
         titleBox.getChildren().addAll(titleLabel, userSubLabel);
     
@@ -79,42 +83,42 @@ public class PatientNotificationView {
         // Darker slate background for the "unread" content
         appointmentsBox.setStyle("-fx-background-color: #2d3748; -fx-background-radius: 8; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 10, 0, 0, 0);");
     
-        Label appointmentsTitle = new Label("Unseen Approved Appointments");
+        Label appointmentsTitle = new Label("Unread Notifications");
         appointmentsTitle.setStyle("-fx-font-family: 'Segoe UI Semibold'; -fx-font-size: 15px; -fx-text-fill: #38a169;"); // Clinical Green for Approved
     
-        TableView<Appointment> appointmentsTable = new TableView<>();
+        TableView<Notification> appointmentsTable = new TableView<>();
         // Dark mode table styling
         appointmentsTable.setStyle("-fx-background-color: white; -fx-control-inner-background: white; -fx-table-cell-border-color: #ddd;");
         
-        ObservableList<Appointment> appointments = FXCollections.observableArrayList();
-        appointmentsTable.setItems(appointments);
-    
-        TableColumn<Appointment, String> dateCol = new TableColumn<>("Appointment Date");
-        dateCol.setPrefWidth(200);
-        dateCol.setCellValueFactory(cellData -> {
-            LocalDate date = cellData.getValue().getAppointmentDate();
-            return new javafx.beans.property.SimpleStringProperty(date != null ? date.toString() : "");
-        });
-    
-        TableColumn<Appointment, String> timeCol = new TableColumn<>("Scheduled Time");
-        timeCol.setPrefWidth(150);
-        timeCol.setCellValueFactory(cellData -> {
-            LocalTime time = cellData.getValue().getAppointmentTime();
-            return new javafx.beans.property.SimpleStringProperty(time != null ? time.toString() : "");
+        ObservableList<Notification> notifications = FXCollections.observableArrayList();
+        appointmentsTable.setItems(notifications);
+    
+        TableColumn<Notification, String> sentCol = new TableColumn<>("Received");
+        sentCol.setPrefWidth(160);
+        sentCol.setCellValueFactory(cellData -> {
+            LocalDateTime sentAt = cellData.getValue().getSentAt();
+            return new javafx.beans.property.SimpleStringProperty(sentAt != null ? sentAt.format(SENT_FORMAT) : "");
         });
     
-        TableColumn<Appointment, String> statusCol = new TableColumn<>("Current Status");
-        statusCol.setPrefWidth(150);
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        TableColumn<Notification, String> messageCol = new TableColumn<>("Message");
+        messageCol.setPrefWidth(500);
+        messageCol.setCellValueFactory(cellData ->
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getMessage()));
     
-        appointmentsTable.getColumns().addAll(dateCol, timeCol, statusCol);
+        appointmentsTable.getColumns().add(sentCol);
+        appointmentsTable.getColumns().add(messageCol);
         appointmentsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
     
-        // Logic for loading appointments
-        if (patient != null) {
-            unseenAppointments = appointmentDAO.findUnseenApprovedByPatientId(patient.getPatientId());
-            appointments.addAll(unseenAppointments);
-        }
+        // Logic for loading notifications
+        tasks.submit("patient", () -> patientDAO.findByUserId(user.getUserId()), patient -> {
+            if (patient != null) {
+                userSubLabel.setText("Account: " + patient.getFullName());
+            }
+        });
+        tasks.load("load", appointmentsTable, () -> notificationDAO.findUnreadByUserId(user.getUserId()), unread -> {
+            unreadNotifications = unread;
+            notifications.setAll(unread);
+        });
     
         appointmentsBox.getChildren().addAll(appointmentsTitle, new Separator(), appointmentsTable);
     
@@ -130,7 +134,7 @@ public class PatientNotificationView {
         );
     
         closeButton.setOnAction(e -> {
-            markAppointmentsAsSeen();
+            markNotificationsAsRead();
             stage.close();
         });
     
@@ -142,7 +146,7 @@ public class PatientNotificationView {
         VBox.setVgrow(appointmentsBox, Priority.ALWAYS);
     
         // Window close event logic
-        stage.setOnCloseRequest(e -> markAppointmentsAsSeen());
+        stage.setOnCloseRequest(e -> markNotificationsAsRead());
     
         Scene scene = new Scene(root);
         stage.setScene(scene);
@@ -150,14 +154,19 @@ public class PatientNotificationView {
     }
     
     // Private helper to keep the UI code clean
-    private void markAppointmentsAsSeen() {
-        if (!unseenAppointments.isEmpty()) {
-            List<Integer> appointmentIds = new ArrayList<>();
-            for (Appointment apt : unseenAppointments) {
-                appointmentIds.add(apt.getAppointmentId());
+    private void markNotificationsAsRead() {
+        tasks.cancelAll();
+        if (!unreadNotifications.isEmpty()) {
+            List<Integer> notificationIds = new ArrayList<>();
+            for (Notification notification : unreadNotifications) {
+                notificationIds.add(notification.getNotificationId());
             }
-            appointmentDAO.markAsSeen(appointmentIds);
+            unreadNotifications = new ArrayList<>();
+            // The badge is refreshed once the write has landed, not when the window closes
+            tasks.submit("read", () -> {
+                notificationDAO.markRead(notificationIds);
+                return null;
+            }, marked -> NotificationCenter.getInstance().refresh());
         }
     }
 }
-
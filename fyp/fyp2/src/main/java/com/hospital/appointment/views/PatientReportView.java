@@ -1,14 +1,19 @@
 package com.hospital.appointment.views;
 
+import com.hospital.appointment.concurrent.ViewTasks;
 import com.hospital.appointment.dao.AIReportDAO;
 import com.hospital.appointment.dao.AppointmentDAO;
+import com.hospital.appointment.dao.DaoFactory;
 import com.hospital.appointment.dao.DoctorDiagnosisDAO;
 import com.hospital.appointment.dao.PatientDAO;
 import com.hospital.appointment.models.AIReport;
 import com.hospital.appointment.models.Appointment;
 import com.hospital.appointment.models.DoctorDiagnosis;
 import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.ReportSummary;
 import com.hospital.appointment.models.User;
+import com.hospital.appointment.storage.BlobStore;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -21,6 +26,7 @@ import javafx.scene.text.FontWeight;
 import javafx.geometry.Pos;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 public class PatientReportView {
@@ -33,15 +39,16 @@ public class PatientReportView {
     private DoctorDiagnosisDAO doctorDiagnosisDAO;
     private ObservableList<Appointment> appointments;
     private TableView<Appointment> appointmentsTable;
+    private ViewTasks tasks;
 
     public PatientReportView(User user) {
         this.user = user;
-        this.appointmentDAO = new AppointmentDAO();
-        this.patientDAO = new PatientDAO();
-        this.aiReportDAO = new AIReportDAO();
-        this.doctorDiagnosisDAO = new DoctorDiagnosisDAO();
-        // Get patient record
-        this.patient = patientDAO.findByUserId(user.getUserId());
+        this.appointmentDAO = DaoFactory.getInstance().getAppointmentDAO();
+        this.patientDAO = DaoFactory.getInstance().getPatientDAO();
+        this.aiReportDAO = DaoFactory.getInstance().getAIReportDAO();
+        this.doctorDiagnosisDAO = DaoFactory.getInstance().getDoctorDiagnosisDAO();
+        this.tasks = new ViewTasks();
+        // Patient record is looked up in the background by loadAppointments()
         createView();
     }
 
@@ -66,6 +73,7 @@ public class PatientReportView {
         Button backButton = new Button("Back");
         backButton.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white; -fx-cursor: hand;");
         backButton.setOnAction(e -> {
+            tasks.cancelAll();
             PatientHomeView patientHomeView = new PatientHomeView(user);
             view.getScene().setRoot(patientHomeView.getView());
         });
@@ -79,6 +87,7 @@ public class PatientReportView {
             confirmAlert.setContentText("Are you sure you want to logout?");
             confirmAlert.showAndWait().ifPresent(response -> {
                 if (response == javafx.scene.control.ButtonType.OK) {
+                    tasks.cancelAll();
                     LoginView loginView = new LoginView();
                     view.getScene().setRoot(loginView.getView());
                 }
@@ -156,10 +165,21 @@ public class PatientReportView {
     }
 
     private void loadAppointments() {
+        tasks.load("load", appointmentsTable, this::findAppointmentsWithReports, appointments::setAll);
+    }
+
+    /**
+     * Find the patient's appointments that have an e-report file. Runs on a background thread.
+     */
+    private List<Appointment> findAppointmentsWithReports() {
+        List<Appointment> withReports = new ArrayList<>();
         if (patient == null) {
-            return;
+            // Get patient record
+            patient = patientDAO.findByUserId(user.getUserId());
+            if (patient == null) {
+                return withReports;
+            }
         }
-        appointments.clear();
         // Get all appointments for the patient
         List<Appointment> allAppointments = appointmentDAO.findByPatientId(patient.getPatientId());
         
@@ -174,13 +194,14 @@ public class PatientReportView {
                 if (doctorDiagnosis != null && doctorDiagnosis.getReportFilePath() != null 
                     && !doctorDiagnosis.getReportFilePath().trim().isEmpty()) {
                     // Validate file exists
-                    File reportFile = new File(doctorDiagnosis.getReportFilePath());
+                    File reportFile = BlobStore.getInstance().resolve(doctorDiagnosis.getReportFilePath());
                     if (reportFile.exists()) {
-                        appointments.add(appointment);
+                        withReports.add(appointment);
                     }
                 }
             }
         }
+        return withReports;
     }
 
     private void viewSelectedAppointmentReport() {
@@ -190,17 +211,26 @@ public class PatientReportView {
             return;
         }
 
-        // Get visible AI reports only (reports sent by doctor)
-        List<AIReport> reports = aiReportDAO.findVisibleByAppointmentId(selected.getAppointmentId());
-        if (reports.isEmpty()) {
+        tasks.submit("report", () -> {
+            // Get visible AI reports only (reports sent by doctor)
+            List<AIReport> reports = aiReportDAO.findVisibleByAppointmentId(selected.getAppointmentId());
+            if (reports.isEmpty()) {
+                return null;
+            }
+            // Get doctor diagnosis using the report ID
+            AIReport report = reports.get(0);
+            return new ReportSummary(report, null, selected, null, doctorDiagnosisDAO.findByReportId(report.getReportId()));
+        }, this::showAppointmentReport);
+    }
+
+    private void showAppointmentReport(ReportSummary summary) {
+        if (summary == null) {
             showAlert(Alert.AlertType.INFORMATION, "No report available for this appointment yet. Please wait for the doctor's reply");
             return;
         }
 
-        // Get doctor diagnosis using the report ID
-        AIReport report = reports.get(0);
-        DoctorDiagnosis doctorDiagnosis = doctorDiagnosisDAO.findByReportId(report.getReportId());
-        
+        Appointment selected = summary.getAppointment();
+        DoctorDiagnosis doctorDiagnosis = summary.getDoctorDiagnosis();
         if (doctorDiagnosis == null || doctorDiagnosis.getReportFilePath() == null || doctorDiagnosis.getReportFilePath().trim().isEmpty()) {
             showAlert(Alert.AlertType.INFORMATION, "No e-report file available for this appointment yet.");
             return;
@@ -221,7 +251,7 @@ public class PatientReportView {
         reportBox.setStyle("-fx-background-color: #f9f9f9; -fx-background-radius: 5; -fx-border-color: #ddd; -fx-border-radius: 5;");
 
         String filePath = doctorDiagnosis.getReportFilePath();
-        java.io.File reportFile = new java.io.File(filePath);
+        java.io.File reportFile = BlobStore.getInstance().resolve(filePath);
         
         if (!reportFile.exists()) {
             Label errorLabel = new Label("Report file not found.");
@@ -244,7 +274,7 @@ public class PatientReportView {
                 }
             });
             
-            // Download button - uses Files.copy to create a copy, never modifies original
+            // Download button - copies the stored file in the background, never modifies original
             Button downloadButton = new Button("Download Report");
             downloadButton.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; -fx-font-size: 14px; -fx-padding: 10 20;");
             downloadButton.setOnAction(e -> {
@@ -265,22 +295,29 @@ public class PatientReportView {
                 javafx.stage.Window window = reportDialog.getDialogPane().getScene().getWindow();
                 File saveFile = fileChooser.showSaveDialog(window);
                 if (saveFile != null) {
-                    try {
-                        // Use Files.copy to create a copy of the original file (master copy remains unchanged)
-                        java.nio.file.Files.copy(reportFile.toPath(), saveFile.toPath(), 
-                            java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                    downloadButton.setDisable(true);
+                    tasks.submit("download", () -> {
+                        // Copy the stored file (master copy remains unchanged), showing progress on the button
+                        BlobStore.getInstance().copyTo(filePath, saveFile, (copied, total) -> {
+                            int percent = total > 0 ? (int) (copied * 100 / total) : 100;
+                            Platform.runLater(() -> downloadButton.setText("Downloading... " + percent + "%"));
+                        });
+                        return saveFile;
+                    }, savedFile -> {
+                        resetDownloadButton(downloadButton);
                         Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
                         successAlert.setTitle("Success");
                         successAlert.setHeaderText(null);
                         successAlert.setContentText("Report file downloaded successfully!");
                         successAlert.showAndWait();
-                    } catch (Exception ex) {
+                    }, error -> {
+                        resetDownloadButton(downloadButton);
                         Alert errorAlert = new Alert(Alert.AlertType.ERROR);
                         errorAlert.setTitle("Error");
                         errorAlert.setHeaderText(null);
-                        errorAlert.setContentText("Failed to download file: " + ex.getMessage());
+                        errorAlert.setContentText("Failed to download file: " + error.getMessage());
                         errorAlert.showAndWait();
-                    }
+                    });
                 }
             });
             
@@ -300,6 +337,13 @@ public class PatientReportView {
         ButtonType backAndCloseButtonType = new ButtonType("Back and Close", ButtonBar.ButtonData.OK_DONE);
         reportDialog.getDialogPane().getButtonTypes().add(backAndCloseButtonType);
         reportDialog.showAndWait();
+        // Closing the dialog abandons a download still in progress
+        tasks.cancel("download");
+    }
+
+    private void resetDownloadButton(Button downloadButton) {
+        downloadButton.setDisable(false);
+        downloadButton.setText("Download Report");
     }
 
     private void showAlert(Alert.AlertType type, String message) {
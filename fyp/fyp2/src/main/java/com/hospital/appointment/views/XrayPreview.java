@@ -0,0 +1,49 @@
+package com.hospital.appointment.views;
+
+import com.hospital.appointment.imaging.ImageCache;
+import javafx.scene.Cursor;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.ImageView;
+import javafx.stage.Stage;
+
+import java.io.File;
+
+/**
+ * XrayPreview - X-ray thumbnail that opens the full-resolution film when clicked
+ */
+public final class XrayPreview {
+
+    private XrayPreview() {
+    }
+
+    /**
+     * Creates a preview sized for fitWidth, loaded from the matching rendition
+     */
+    public static ImageView create(File imageFile, int fitWidth) {
+        ImageView imageView = new ImageView(ImageCache.getInstance().get(imageFile, fitWidth));
+        imageView.setPreserveRatio(true);
+        imageView.setFitWidth(fitWidth);
+        imageView.setCursor(Cursor.HAND);
+        Tooltip.install(imageView, new Tooltip("Click to view full resolution"));
+        imageView.setOnMouseClicked(e -> showFullResolution(imageFile));
+        return imageView;
+    }
+
+    /**
+     * Opens the original film in its own scrollable window
+     */
+    private static void showFullResolution(File imageFile) {
+        ImageView fullView = new ImageView(ImageCache.getInstance().get(imageFile, 0));
+        fullView.setPreserveRatio(true);
+
+        ScrollPane scrollPane = new ScrollPane(fullView);
+        scrollPane.setPannable(true);
+
+        Stage stage = new Stage();
+        stage.setTitle("X-Ray Image - " + imageFile.getName());
+        stage.setScene(new Scene(scrollPane, 900, 700));
+        stage.show();
+    }
+}
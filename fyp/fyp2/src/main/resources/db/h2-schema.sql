@@ -0,0 +1,178 @@
+-- Schema for the embedded H2 backend (-Dhms.db.backend=h2), run by DatabaseManager on
+-- every start. Mirrors hms_fyp.sql; H2 runs in MySQL mode so the DAOs' SQL is unchanged.
+-- Index names are unique per schema in H2, so they carry their table's name.
+
+CREATE TABLE IF NOT EXISTS users (
+  user_id int NOT NULL AUTO_INCREMENT,
+  username varchar(50) NOT NULL,
+  password varchar(255) NOT NULL,
+  role enum('PATIENT','NURSE','DOCTOR','ADMIN') NOT NULL,
+  email varchar(100) DEFAULT NULL,
+  phone varchar(20) DEFAULT NULL,
+  status enum('ACTIVE','INACTIVE') DEFAULT 'ACTIVE',
+  PRIMARY KEY (user_id),
+  CONSTRAINT users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS patients (
+  patient_id int NOT NULL AUTO_INCREMENT,
+  user_id int NOT NULL,
+  full_name varchar(100) NOT NULL,
+  ic_number varchar(20) DEFAULT NULL,
+  date_of_birth date DEFAULT NULL,
+  gender enum('MALE','FEMALE') DEFAULT NULL,
+  address text,
+  PRIMARY KEY (patient_id),
+  CONSTRAINT patients_ic_number UNIQUE (ic_number),
+  CONSTRAINT patients_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_patients_user ON patients (user_id);
+CREATE INDEX IF NOT EXISTS idx_patients_full_name ON patients (full_name);
+
+CREATE TABLE IF NOT EXISTS doctors (
+  doctor_id int NOT NULL AUTO_INCREMENT,
+  user_id int NOT NULL,
+  specialization varchar(100) DEFAULT NULL,
+  license_number varchar(50) DEFAULT NULL,
+  department varchar(100) DEFAULT NULL,
+  PRIMARY KEY (doctor_id),
+  CONSTRAINT doctors_license_number UNIQUE (license_number),
+  CONSTRAINT doctors_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_doctors_user ON doctors (user_id);
+
+CREATE TABLE IF NOT EXISTS nurses (
+  nurse_id int NOT NULL AUTO_INCREMENT,
+  user_id int NOT NULL,
+  department varchar(100) DEFAULT NULL,
+  PRIMARY KEY (nurse_id),
+  CONSTRAINT nurses_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_nurses_user ON nurses (user_id);
+
+CREATE TABLE IF NOT EXISTS appointments (
+  appointment_id int NOT NULL AUTO_INCREMENT,
+  patient_id int NOT NULL,
+  appointment_date date NOT NULL,
+  appointment_time time NOT NULL,
+  status enum('PENDING','APPROVED','REJECTED','UPLOADED','COMPLETED') DEFAULT 'PENDING',
+  is_seen tinyint DEFAULT 0,
+  updated_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (appointment_id),
+  CONSTRAINT appointments_ibfk_1 FOREIGN KEY (patient_id) REFERENCES patients (patient_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_appointments_patient ON appointments (patient_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_schedule ON appointments (appointment_date, appointment_time, appointment_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_status_schedule ON appointments (status, appointment_date, appointment_time, appointment_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_updated ON appointments (updated_at);
+-- No longer used; restored on databases created while it was dropped
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS is_seen tinyint DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS xray_images (
+  image_id int NOT NULL AUTO_INCREMENT,
+  appointment_id int NOT NULL,
+  uploaded_by int DEFAULT NULL,
+  image_path varchar(255) NOT NULL,
+  upload_date timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (image_id),
+  CONSTRAINT xray_images_ibfk_1 FOREIGN KEY (appointment_id) REFERENCES appointments (appointment_id) ON DELETE CASCADE,
+  CONSTRAINT xray_images_ibfk_2 FOREIGN KEY (uploaded_by) REFERENCES nurses (nurse_id) ON DELETE SET NULL
+);
+CREATE INDEX IF NOT EXISTS idx_xray_images_appointment ON xray_images (appointment_id);
+CREATE INDEX IF NOT EXISTS idx_xray_images_uploaded_by ON xray_images (uploaded_by);
+
+CREATE TABLE IF NOT EXISTS ai_reports (
+  report_id int NOT NULL AUTO_INCREMENT,
+  image_id int NOT NULL,
+  prediction varchar(100) NOT NULL,
+  confidence_score decimal(5,2) DEFAULT NULL,
+  generated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  is_visible tinyint DEFAULT 0,
+  PRIMARY KEY (report_id),
+  CONSTRAINT ai_reports_ibfk_1 FOREIGN KEY (image_id) REFERENCES xray_images (image_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_ai_reports_image ON ai_reports (image_id);
+
+CREATE TABLE IF NOT EXISTS doctor_diagnosis (
+  diagnosis_id int NOT NULL AUTO_INCREMENT,
+  report_id int NOT NULL,
+  doctor_id int NOT NULL,
+  diagnosis_result varchar(255) DEFAULT NULL,
+  comments text,
+  diagnosis_date timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  report_file_path varchar(255) DEFAULT NULL,
+  PRIMARY KEY (diagnosis_id),
+  CONSTRAINT doctor_diagnosis_ibfk_1 FOREIGN KEY (report_id) REFERENCES ai_reports (report_id) ON DELETE CASCADE,
+  CONSTRAINT doctor_diagnosis_ibfk_2 FOREIGN KEY (doctor_id) REFERENCES doctors (doctor_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_doctor_diagnosis_report ON doctor_diagnosis (report_id);
+CREATE INDEX IF NOT EXISTS idx_doctor_diagnosis_doctor ON doctor_diagnosis (doctor_id);
+
+CREATE TABLE IF NOT EXISTS inference_jobs (
+  job_id int NOT NULL AUTO_INCREMENT,
+  image_id int NOT NULL,
+  status enum('PENDING','RUNNING','DONE','FAILED') DEFAULT 'PENDING',
+  attempts int NOT NULL DEFAULT 0,
+  next_attempt_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  last_error text,
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  claimed_by varchar(64) DEFAULT NULL,
+  lease_until timestamp NULL DEFAULT NULL,
+  PRIMARY KEY (job_id),
+  CONSTRAINT inference_jobs_ibfk_1 FOREIGN KEY (image_id) REFERENCES xray_images (image_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_inference_jobs_image ON inference_jobs (image_id);
+CREATE INDEX IF NOT EXISTS idx_inference_jobs_status_next_attempt ON inference_jobs (status, next_attempt_at);
+-- Job leases, added after the table; a no-op on databases created with them
+ALTER TABLE inference_jobs ADD COLUMN IF NOT EXISTS claimed_by varchar(64) DEFAULT NULL;
+ALTER TABLE inference_jobs ADD COLUMN IF NOT EXISTS lease_until timestamp NULL DEFAULT NULL;
+
+CREATE TABLE IF NOT EXISTS notifications (
+  notification_id int NOT NULL AUTO_INCREMENT,
+  user_id int NOT NULL,
+  message text NOT NULL,
+  notification_type varchar(50) DEFAULT NULL,
+  sent_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  status enum('SENT','READ') DEFAULT 'SENT',
+  PRIMARY KEY (notification_id),
+  CONSTRAINT notifications_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_notifications_unread ON notifications (user_id, status);
+
+CREATE TABLE IF NOT EXISTS blobs (
+  blob_id varchar(80) NOT NULL,
+  size_bytes bigint NOT NULL,
+  ref_count int NOT NULL DEFAULT 0,
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (blob_id)
+);
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  version bigint NOT NULL AUTO_INCREMENT,
+  entity_type varchar(32) NOT NULL,
+  entity_id int NOT NULL,
+  created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (version)
+);
+CREATE INDEX IF NOT EXISTS idx_cache_invalidations_created ON cache_invalidations (created_at);
+
+-- Default logins from the README, with the profiles their portals need
+INSERT INTO users (username, password, role, email, status)
+SELECT 'doctor1', 'password', 'DOCTOR', 'doctor1@hospital.com', 'ACTIVE' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'doctor1');
+INSERT INTO users (username, password, role, email, status)
+SELECT 'nurse1', 'password', 'NURSE', 'nurse1@hospital.com', 'ACTIVE' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'nurse1');
+INSERT INTO users (username, password, role, email, status)
+SELECT 'patient1', 'password', 'PATIENT', 'patient1@hospital.com', 'ACTIVE' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'patient1');
+
+INSERT INTO doctors (user_id, specialization, department)
+SELECT u.user_id, 'Radiology', 'Radiology' FROM users u
+WHERE u.username = 'doctor1' AND NOT EXISTS (SELECT 1 FROM doctors d WHERE d.user_id = u.user_id);
+INSERT INTO nurses (user_id, department)
+SELECT u.user_id, 'Radiology' FROM users u
+WHERE u.username = 'nurse1' AND NOT EXISTS (SELECT 1 FROM nurses n WHERE n.user_id = u.user_id);
+INSERT INTO patients (user_id, full_name)
+SELECT u.user_id, 'Patient One' FROM users u
+WHERE u.username = 'patient1' AND NOT EXISTS (SELECT 1 FROM patients p WHERE p.user_id = u.user_id);
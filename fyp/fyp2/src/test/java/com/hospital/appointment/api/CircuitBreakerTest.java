@@ -0,0 +1,87 @@
+package com.hospital.appointment.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static void fail(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.recordFailure();
+        }
+    }
+
+    @Test
+    void staysClosedBelowThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, 60_000);
+        fail(breaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, 60_000);
+        fail(breaker, 2);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordSuccess();
+        fail(breaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensAtThresholdAndFailsFast() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, 60_000);
+        fail(breaker, 3);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void letsOneProbeThroughAfterOpenPeriod() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        fail(breaker, 1);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Only one probe at a time
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void successfulProbeCloses() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        fail(breaker, 1);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, 0);
+        fail(breaker, 5);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // One failed probe is enough, whatever the threshold
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void cancelledProbeFreesTheSlot() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        fail(breaker, 1);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordCancelled();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,93 @@
+package com.hospital.appointment.dao;
+
+import com.hospital.appointment.database.DatabaseManager;
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.Patient;
+import com.hospital.appointment.models.XrayImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * H2TestDatabase - Embedded H2 database shared by the DAO tests
+ *
+ * DatabaseManager is a singleton that reads -Dhms.db.backend once, so every test class in
+ * the JVM uses the same database, created in a temporary directory with the default logins.
+ * Tests keep to rows they create themselves (their own patient, appointments and images).
+ */
+final class H2TestDatabase {
+    private static boolean initialized;
+
+    private H2TestDatabase() {
+    }
+
+    static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        try {
+            Path dir = Files.createTempDirectory("hms-test");
+            System.setProperty("hms.db.backend", "h2");
+            System.setProperty("hms.db.h2.path", dir.resolve("hms").toString());
+            System.setProperty("hms.blobs.dir", dir.resolve("blobs").toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        DatabaseManager.getInstance().initializeDatabase();
+        initialized = true;
+    }
+
+    /**
+     * Creates a patient with its own name, on the seeded patient1 login
+     * @return Generated patient_id
+     */
+    static int createPatient(String fullName) {
+        int userId = new JdbcUserDAO().authenticate("patient1", "password").getUserId();
+        Patient patient = new Patient();
+        patient.setUserId(userId);
+        patient.setFullName(fullName);
+        int patientId = new JdbcPatientDAO().createPatient(patient);
+        if (patientId < 0) {
+            throw new IllegalStateException("Could not create patient " + fullName);
+        }
+        return patientId;
+    }
+
+    /**
+     * @return Generated appointment_id
+     */
+    static int createAppointment(int patientId, LocalDate date, LocalTime time, Appointment.Status status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(patientId);
+        appointment.setAppointmentDate(date);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(status);
+        int appointmentId = new JdbcAppointmentDAO().create(appointment);
+        if (appointmentId < 0) {
+            throw new IllegalStateException("Could not create appointment");
+        }
+        return appointmentId;
+    }
+
+    /**
+     * Creates an image uploaded by the seeded nurse1
+     * @return Generated image_id
+     */
+    static int createImage(int appointmentId) {
+        int userId = new JdbcUserDAO().authenticate("nurse1", "password").getUserId();
+        XrayImage image = new XrayImage();
+        image.setAppointmentId(appointmentId);
+        image.setUploadedBy(new JdbcNurseDAO().findNurseIdByUserId(userId));
+        image.setImagePath("test.png");
+        image.setUploadDate(LocalDateTime.now());
+        int imageId = new JdbcXrayImageDAO().create(image);
+        if (imageId < 0) {
+            throw new IllegalStateException("Could not create image");
+        }
+        return imageId;
+    }
+}
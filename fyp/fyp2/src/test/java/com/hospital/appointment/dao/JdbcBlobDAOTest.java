@@ -0,0 +1,74 @@
+package com.hospital.appointment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class JdbcBlobDAOTest {
+    private final JdbcBlobDAO blobDAO = new JdbcBlobDAO();
+
+    @BeforeAll
+    static void initialize() {
+        H2TestDatabase.initialize();
+    }
+
+    private static String newBlobId() {
+        return (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "") + ".png";
+    }
+
+    @Test
+    void acquireCountsReferences() {
+        String blobId = newBlobId();
+        assertEquals(0, blobDAO.getRefCount(blobId));
+        assertTrue(blobDAO.acquire(blobId, 100));
+        assertTrue(blobDAO.acquire(blobId, 100));
+        assertEquals(2, blobDAO.getRefCount(blobId));
+    }
+
+    @Test
+    void lastReleaseDeletesRowAndRunsAction() {
+        String blobId = newBlobId();
+        blobDAO.acquire(blobId, 100);
+        blobDAO.acquire(blobId, 100);
+        AtomicInteger deletions = new AtomicInteger();
+
+        assertEquals(1, blobDAO.release(blobId, deletions::incrementAndGet));
+        assertEquals(0, deletions.get());
+        assertEquals(0, blobDAO.release(blobId, deletions::incrementAndGet));
+        assertEquals(1, deletions.get());
+        assertEquals(0, blobDAO.getRefCount(blobId));
+    }
+
+    @Test
+    void releasingUnknownBlobDoesNothing() {
+        AtomicInteger deletions = new AtomicInteger();
+        assertEquals(0, blobDAO.release(newBlobId(), deletions::incrementAndGet));
+        assertEquals(0, deletions.get());
+    }
+
+    @Test
+    void failedLastReferenceActionKeepsRow() {
+        String blobId = newBlobId();
+        blobDAO.acquire(blobId, 100);
+
+        assertEquals(-1, blobDAO.release(blobId, () -> {
+            throw new IllegalStateException("file is locked");
+        }));
+        assertEquals(1, blobDAO.getRefCount(blobId));
+    }
+
+    @Test
+    void acquireAfterLastReleaseStartsAgain() {
+        String blobId = newBlobId();
+        blobDAO.acquire(blobId, 100);
+        blobDAO.release(blobId, null);
+        assertFalse(blobDAO.getRefCount(blobId) > 0);
+        assertTrue(blobDAO.acquire(blobId, 100));
+        assertEquals(1, blobDAO.getRefCount(blobId));
+    }
+}
@@ -0,0 +1,99 @@
+package com.hospital.appointment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.InferenceJob;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class JdbcInferenceJobDAOTest {
+    private static int appointmentId;
+
+    private final JdbcInferenceJobDAO jobDAO = new JdbcInferenceJobDAO();
+
+    @BeforeAll
+    static void createAppointment() {
+        H2TestDatabase.initialize();
+        int patientId = H2TestDatabase.createPatient("Job Test Patient");
+        appointmentId = H2TestDatabase.createAppointment(patientId, LocalDate.now(), LocalTime.NOON,
+                                                         Appointment.Status.APPROVED);
+    }
+
+    /**
+     * Claims jobs until the given one is among them; jobs of other tests are put back
+     */
+    private InferenceJob claim(int jobId, String worker, LocalDateTime leaseUntil) {
+        List<InferenceJob> claimed = jobDAO.claimDue(1000, worker, leaseUntil);
+        InferenceJob found = null;
+        for (InferenceJob job : claimed) {
+            if (job.getJobId() == jobId) {
+                found = job;
+            } else {
+                jobDAO.scheduleRetry(job.getJobId(), worker, LocalDateTime.now(), null);
+            }
+        }
+        return found;
+    }
+
+    private int queueJob() {
+        int jobId = jobDAO.create(H2TestDatabase.createImage(appointmentId));
+        assertTrue(jobId > 0);
+        return jobId;
+    }
+
+    @Test
+    void claimLeasesJobToOneWorker() {
+        int jobId = queueJob();
+        InferenceJob job = claim(jobId, "worker-a", LocalDateTime.now().plusMinutes(5));
+        assertNotNull(job);
+        assertEquals(InferenceJob.Status.RUNNING, job.getStatus());
+        assertEquals("worker-a", job.getClaimedBy());
+
+        // A running job is not claimed again
+        assertNull(claim(jobId, "worker-b", LocalDateTime.now().plusMinutes(5)));
+        assertFalse(jobDAO.markDone(jobId, "worker-b"));
+        assertTrue(jobDAO.markDone(jobId, "worker-a"));
+        assertFalse(jobDAO.markDone(jobId, "worker-a"));
+    }
+
+    @Test
+    void expiredLeaseIsRequeuedAndOldWorkerLosesIt() {
+        int jobId = queueJob();
+        assertNotNull(claim(jobId, "worker-a", LocalDateTime.now().minusMinutes(1)));
+
+        assertTrue(jobDAO.requeueExpired() >= 1);
+        InferenceJob job = claim(jobId, "worker-b", LocalDateTime.now().plusMinutes(5));
+        assertNotNull(job);
+        assertEquals("worker-b", job.getClaimedBy());
+
+        assertFalse(jobDAO.scheduleRetry(jobId, "worker-a", LocalDateTime.now(), "late"));
+        assertFalse(jobDAO.markFailed(jobId, "worker-a", "late"));
+        assertTrue(jobDAO.markDone(jobId, "worker-b"));
+    }
+
+    @Test
+    void unexpiredLeaseIsNotRequeued() {
+        int jobId = queueJob();
+        assertNotNull(claim(jobId, "worker-a", LocalDateTime.now().plusMinutes(5)));
+        jobDAO.requeueExpired();
+        assertTrue(jobDAO.markDone(jobId, "worker-a"));
+    }
+
+    @Test
+    void retryWaitsUntilNextAttempt() {
+        int jobId = queueJob();
+        assertNotNull(claim(jobId, "worker-a", LocalDateTime.now().plusMinutes(5)));
+        assertTrue(jobDAO.scheduleRetry(jobId, "worker-a", LocalDateTime.now().plusHours(1), "service down"));
+
+        assertNull(claim(jobId, "worker-a", LocalDateTime.now().plusMinutes(5)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hospital.appointment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hospital.appointment.models.Appointment;
+import com.hospital.appointment.models.WorklistRow;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class JdbcWorklistDAOTest {
+    private static final String PATIENT_NAME = "Worklist Test Patient";
+    private static final int APPOINTMENTS = 7;
+
+    private static final JdbcWorklistDAO worklistDAO = new JdbcWorklistDAO();
+    private static final List<Integer> appointmentIds = new ArrayList<>();
+
+    @BeforeAll
+    static void createAppointments() {
+        H2TestDatabase.initialize();
+        int patientId = H2TestDatabase.createPatient(PATIENT_NAME);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            // Pairs share a date and time, so the id has to break the tie
+            LocalDate date = today.plusDays(i / 2);
+            appointmentIds.add(H2TestDatabase.createAppointment(patientId, date, LocalTime.of(9, 0),
+                                                                Appointment.Status.PENDING));
+        }
+    }
+
+    private static WorklistDAO.Filter filter() {
+        return WorklistDAO.Filter.all().matching(PATIENT_NAME);
+    }
+
+    private static List<Integer> ids(List<WorklistRow> rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (WorklistRow row : rows) {
+            ids.add(row.getAppointmentId());
+        }
+        return ids;
+    }
+
+    @Test
+    void countsOnlyMatchingAppointments() {
+        assertEquals(APPOINTMENTS, worklistDAO.count(filter()));
+    }
+
+    @Test
+    void keysetWindowsFollowEachOtherWithoutGapsOrRepeats() {
+        List<Integer> all = ids(worklistDAO.findWindow(filter(), null, 0, 100));
+        assertEquals(APPOINTMENTS, all.size());
+
+        List<Integer> paged = new ArrayList<>();
+        WorklistRow after = null;
+        while (true) {
+            List<WorklistRow> window = worklistDAO.findWindow(filter(), after, 0, 3);
+            if (window.isEmpty()) {
+                break;
+            }
+            paged.addAll(ids(window));
+            after = window.get(window.size() - 1);
+        }
+        assertEquals(all, paged);
+    }
+
+    @Test
+    void newestAppointmentComesFirst() {
+        List<Integer> all = ids(worklistDAO.findWindow(filter(), null, 0, 100));
+        // The last two created share the latest date and time; the larger id wins the tie
+        assertEquals(appointmentIds.get(APPOINTMENTS - 1), all.get(0));
+        assertEquals(appointmentIds.get(0), all.get(APPOINTMENTS - 1));
+    }
+
+    @Test
+    void offsetWindowMatchesKeysetWindow() {
+        List<WorklistRow> first = worklistDAO.findWindow(filter(), null, 0, 3);
+        List<WorklistRow> byKeyset = worklistDAO.findWindow(filter(), first.get(2), 0, 3);
+        List<WorklistRow> byOffset = worklistDAO.findWindow(filter(), null, 3, 3);
+        assertEquals(ids(byKeyset), ids(byOffset));
+    }
+
+    @Test
+    void findChangedSinceReturnsUpdatedRowsThatStillMatch() {
+        LocalDateTime since = worklistDAO.findLatestChange();
+        assertNotNull(since);
+        int changedId = appointmentIds.get(0);
+        new JdbcAppointmentDAO().updateStatus(changedId, Appointment.Status.APPROVED);
+
+        List<WorklistRow> changed = worklistDAO.findChangedSince(filter(), since, 100);
+        WorklistRow row = changed.stream().filter(r -> r.getAppointmentId() == changedId).findFirst().orElse(null);
+        assertNotNull(row);
+        assertEquals(Appointment.Status.APPROVED, row.getAppointment().getStatus());
+
+        // The row left a PENDING-only worklist, so that worklist's changes leave it out
+        WorklistDAO.Filter pending = WorklistDAO.Filter.byStatuses(Appointment.Status.PENDING).matching(PATIENT_NAME);
+        assertTrue(worklistDAO.findChangedSince(pending, since, 100).stream()
+                       .noneMatch(r -> r.getAppointmentId() == changedId));
+    }
+
+    @Test
+    void findChangedSinceIsEmptyAfterTheLatestChange() {
+        LocalDateTime latest = worklistDAO.findLatestChange();
+        assertTrue(worklistDAO.findChangedSince(filter(), latest.plusMinutes(1), 100).isEmpty());
+    }
+}
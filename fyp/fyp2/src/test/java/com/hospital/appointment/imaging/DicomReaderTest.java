@@ -0,0 +1,198 @@
+package com.hospital.appointment.imaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DicomReaderTest {
+    private static final String EXPLICIT_VR_LITTLE_ENDIAN = "1.2.840.10008.1.2.1";
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Writes Explicit VR Little Endian data elements after the preamble and file meta information
+     */
+    private static final class DicomBuilder {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        DicomBuilder() {
+            out.writeBytes(new byte[128]);
+            out.writeBytes("DICM".getBytes(StandardCharsets.US_ASCII));
+            string(0x0002, 0x0010, "UI", EXPLICIT_VR_LITTLE_ENDIAN);
+        }
+
+        DicomBuilder uint16(int group, int element, int value) {
+            header(group, element, "US");
+            short16(2);
+            short16(value);
+            return this;
+        }
+
+        DicomBuilder string(int group, int element, String vr, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            if (bytes.length % 2 != 0) {
+                bytes = (value + " ").getBytes(StandardCharsets.US_ASCII);
+            }
+            header(group, element, vr);
+            short16(bytes.length);
+            out.writeBytes(bytes);
+            return this;
+        }
+
+        /**
+         * A text element whose header claims a length, without the value behind it
+         */
+        DicomBuilder longText(int group, int element, long claimedLength) {
+            header(group, element, "UT");
+            short16(0);
+            int32(claimedLength);
+            return this;
+        }
+
+        DicomBuilder pixelData(byte[] pixels) {
+            header(0x7FE0, 0x0010, "OB");
+            short16(0);
+            int32(pixels.length);
+            out.writeBytes(pixels);
+            return this;
+        }
+
+        DicomBuilder image(int rows, int columns, int bitsAllocated, String photometric) {
+            return uint16(0x0028, 0x0002, 1)
+                .string(0x0028, 0x0004, "CS", photometric)
+                .uint16(0x0028, 0x0010, rows)
+                .uint16(0x0028, 0x0011, columns)
+                .uint16(0x0028, 0x0100, bitsAllocated)
+                .uint16(0x0028, 0x0101, bitsAllocated);
+        }
+
+        private void header(int group, int element, String vr) {
+            short16(group);
+            short16(element);
+            out.writeBytes(vr.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void short16(int value) {
+            out.write(value & 0xFF);
+            out.write((value >> 8) & 0xFF);
+        }
+
+        private void int32(long value) {
+            short16((int) (value & 0xFFFF));
+            short16((int) ((value >> 16) & 0xFFFF));
+        }
+
+        File writeTo(Path file) throws IOException {
+            return Files.write(file, out.toByteArray()).toFile();
+        }
+    }
+
+    @Test
+    void decodesGrayscaleFilm() throws IOException {
+        File file = new DicomBuilder()
+            .image(2, 2, 8, "MONOCHROME2")
+            .pixelData(new byte[] {0, 100, 50, (byte) 200})
+            .writeTo(dir.resolve("film.dcm"));
+
+        assertTrue(DicomReader.isDicom(file));
+        BufferedImage image = DicomReader.read(file);
+        assertEquals(2, image.getWidth());
+        assertEquals(2, image.getHeight());
+        // Without a window the values present are stretched to the full range
+        assertEquals(0, image.getRaster().getSample(0, 0, 0));
+        assertEquals(255, image.getRaster().getSample(1, 1, 0));
+        int middle = image.getRaster().getSample(1, 0, 0);
+        assertTrue(middle > 0 && middle < 255);
+    }
+
+    @Test
+    void invertsMonochrome1() throws IOException {
+        File file = new DicomBuilder()
+            .image(1, 2, 8, "MONOCHROME1")
+            .pixelData(new byte[] {0, (byte) 200})
+            .writeTo(dir.resolve("inverted.dcm"));
+
+        BufferedImage image = DicomReader.read(file);
+        assertEquals(255, image.getRaster().getSample(0, 0, 0));
+        assertEquals(0, image.getRaster().getSample(1, 0, 0));
+    }
+
+    @Test
+    void decodes16BitFilmWithWindow() throws IOException {
+        File file = new DicomBuilder()
+            .image(1, 3, 16, "MONOCHROME2")
+            .string(0x0028, 0x1050, "DS", "1000")
+            .string(0x0028, 0x1051, "DS", "1000")
+            .pixelData(new byte[] {0, 0, (byte) 0xE8, 0x03, (byte) 0xD0, 0x07})
+            .writeTo(dir.resolve("wide.dcm"));
+
+        BufferedImage image = DicomReader.read(file);
+        // Values 0, 1000 and 2000 against a window of 500-1500
+        assertEquals(0, image.getRaster().getSample(0, 0, 0));
+        int center = image.getRaster().getSample(1, 0, 0);
+        assertTrue(center > 100 && center < 155);
+        assertEquals(255, image.getRaster().getSample(2, 0, 0));
+    }
+
+    @Test
+    void rejectsFileWithoutDicomMarker() throws IOException {
+        File file = Files.write(dir.resolve("plain.dcm"), new byte[200]).toFile();
+        assertFalse(DicomReader.isDicom(file));
+        assertThrows(IOException.class, () -> DicomReader.read(file));
+    }
+
+    @Test
+    void rejectsOversizedFrameWithoutAllocatingIt() throws IOException {
+        // 65535 x 65535 x 16-bit is 8 GB, past both int and the frame cap
+        File file = new DicomBuilder()
+            .image(65535, 65535, 16, "MONOCHROME2")
+            .pixelData(new byte[16])
+            .writeTo(dir.resolve("huge.dcm"));
+
+        IOException e = assertThrows(IOException.class, () -> DicomReader.read(file));
+        assertTrue(e.getMessage().contains("too large"), e.getMessage());
+    }
+
+    @Test
+    void rejectsOversizedTextValue() throws IOException {
+        File file = new DicomBuilder()
+            .image(2, 2, 8, "MONOCHROME2")
+            .longText(0x0028, 0x0004, 0x7FFFFFF0L)
+            .writeTo(dir.resolve("text.dcm"));
+
+        assertThrows(IOException.class, () -> DicomReader.read(file));
+    }
+
+    @Test
+    void rejectsUnsupportedSamplesPerPixel() throws IOException {
+        File file = new DicomBuilder()
+            .image(2, 2, 8, "MONOCHROME2")
+            .uint16(0x0028, 0x0002, 4)
+            .pixelData(new byte[16])
+            .writeTo(dir.resolve("samples.dcm"));
+
+        assertThrows(IOException.class, () -> DicomReader.read(file));
+    }
+
+    @Test
+    void rejectsTruncatedPixelData() throws IOException {
+        File file = new DicomBuilder()
+            .image(4, 4, 8, "MONOCHROME2")
+            .pixelData(new byte[4])
+            .writeTo(dir.resolve("truncated.dcm"));
+
+        assertThrows(IOException.class, () -> DicomReader.read(file));
+    }
+}
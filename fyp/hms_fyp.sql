@@ -59,8 +59,12 @@ CREATE TABLE `appointments` (
   `appointment_time` time NOT NULL,
   `status` enum('PENDING','APPROVED','REJECTED','UPLOADED','COMPLETED') DEFAULT 'PENDING',
   `is_seen` tinyint(1) DEFAULT '0',
+  `updated_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`appointment_id`),
   KEY `patient_id` (`patient_id`),
+  KEY `idx_appointments_schedule` (`appointment_date`,`appointment_time`,`appointment_id`),
+  KEY `idx_appointments_status_schedule` (`status`,`appointment_date`,`appointment_time`,`appointment_id`),
+  KEY `idx_appointments_updated` (`updated_at`),
   CONSTRAINT `appointments_ibfk_1` FOREIGN KEY (`patient_id`) REFERENCES `patients` (`patient_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -71,10 +75,61 @@ CREATE TABLE `appointments` (
 
 LOCK TABLES `appointments` WRITE;
 /*!40000 ALTER TABLE `appointments` DISABLE KEYS */;
-INSERT INTO `appointments` VALUES (1,2,'2025-12-11','10:00:00','UPLOADED',1),(2,2,'2026-01-02','14:00:00','UPLOADED',1),(3,2,'2025-12-31','10:30:00','PENDING',1),(4,3,'2026-01-09','10:30:00','APPROVED',1),(5,5,'2026-01-10','10:00:00','APPROVED',1);
+INSERT INTO `appointments` (`appointment_id`, `patient_id`, `appointment_date`, `appointment_time`, `status`, `is_seen`) VALUES (1,2,'2025-12-11','10:00:00','UPLOADED',1),(2,2,'2026-01-02','14:00:00','UPLOADED',1),(3,2,'2025-12-31','10:30:00','PENDING',1),(4,3,'2026-01-09','10:30:00','APPROVED',1),(5,5,'2026-01-10','10:00:00','APPROVED',1);
 /*!40000 ALTER TABLE `appointments` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `blobs`
+--
+
+DROP TABLE IF EXISTS `blobs`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `blobs` (
+  `blob_id` varchar(80) NOT NULL,
+  `size_bytes` bigint NOT NULL,
+  `ref_count` int NOT NULL DEFAULT '0',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`blob_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `blobs`
+--
+
+LOCK TABLES `blobs` WRITE;
+/*!40000 ALTER TABLE `blobs` DISABLE KEYS */;
+/*!40000 ALTER TABLE `blobs` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `cache_invalidations`
+--
+
+DROP TABLE IF EXISTS `cache_invalidations`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `cache_invalidations` (
+  `version` bigint NOT NULL AUTO_INCREMENT,
+  `entity_type` varchar(32) NOT NULL,
+  `entity_id` int NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`version`),
+  KEY `idx_cache_invalidations_created` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `cache_invalidations`
+--
+
+LOCK TABLES `cache_invalidations` WRITE;
+/*!40000 ALTER TABLE `cache_invalidations` DISABLE KEYS */;
+/*!40000 ALTER TABLE `cache_invalidations` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `doctor_diagnosis`
 --
@@ -138,6 +193,39 @@ INSERT INTO `doctors` VALUES (1,10,'cccccccc','ccccccccc','ccccccccccc'),(2,15,'
 /*!40000 ALTER TABLE `doctors` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `inference_jobs`
+--
+
+DROP TABLE IF EXISTS `inference_jobs`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `inference_jobs` (
+  `job_id` int NOT NULL AUTO_INCREMENT,
+  `image_id` int NOT NULL,
+  `status` enum('PENDING','RUNNING','DONE','FAILED') DEFAULT 'PENDING',
+  `attempts` int NOT NULL DEFAULT '0',
+  `next_attempt_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `last_error` text,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `claimed_by` varchar(64) DEFAULT NULL,
+  `lease_until` timestamp NULL DEFAULT NULL,
+  PRIMARY KEY (`job_id`),
+  KEY `image_id` (`image_id`),
+  KEY `status_next_attempt` (`status`,`next_attempt_at`),
+  CONSTRAINT `inference_jobs_ibfk_1` FOREIGN KEY (`image_id`) REFERENCES `xray_images` (`image_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `inference_jobs`
+--
+
+LOCK TABLES `inference_jobs` WRITE;
+/*!40000 ALTER TABLE `inference_jobs` DISABLE KEYS */;
+/*!40000 ALTER TABLE `inference_jobs` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `notifications`
 --
@@ -154,6 +242,7 @@ CREATE TABLE `notifications` (
   `status` enum('SENT','READ') DEFAULT 'SENT',
   PRIMARY KEY (`notification_id`),
   KEY `user_id` (`user_id`),
+  KEY `idx_notifications_unread` (`user_id`,`status`),
   CONSTRAINT `notifications_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -212,6 +301,7 @@ CREATE TABLE `patients` (
   PRIMARY KEY (`patient_id`),
   UNIQUE KEY `ic_number` (`ic_number`),
   KEY `user_id` (`user_id`),
+  KEY `idx_patients_full_name` (`full_name`),
   CONSTRAINT `patients_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;